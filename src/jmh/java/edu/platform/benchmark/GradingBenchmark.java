@@ -0,0 +1,81 @@
+package edu.platform.benchmark;
+
+import edu.platform.dto.request.StudentAnswerRequest;
+import edu.platform.entity.Question;
+import edu.platform.entity.Quiz;
+import edu.platform.entity.QuizAttempt;
+import edu.platform.entity.StudentAnswer;
+import edu.platform.grading.AnswerKey;
+import edu.platform.grading.GradingEngine;
+import edu.platform.grading.GradingResult;
+import edu.platform.grading.GradingResult.GradedAnswer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Grading of a full submission, as done by QuizAttemptService.submitQuizAttempt.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class GradingBenchmark {
+    
+    @Param({"10", "100", "1000"})
+    private int questions;
+    
+    private final GradingEngine gradingEngine = new GradingEngine();
+    private Quiz quiz;
+    private AnswerKey answerKey;
+    private List<StudentAnswerRequest> answers;
+    private QuizAttempt attempt;
+    
+    @Setup
+    public void setUp() {
+        quiz = QuizFixtures.quiz(questions);
+        answerKey = AnswerKey.compile(quiz.getId(), quiz.getQuestions());
+        answers = QuizFixtures.answers(quiz, 42L);
+        attempt = QuizAttempt.builder().id(1L).quiz(quiz).build();
+    }
+    
+    @Benchmark
+    public AnswerKey compileAnswerKey() {
+        return AnswerKey.compile(quiz.getId(), quiz.getQuestions());
+    }
+    
+    @Benchmark
+    public GradingResult<StudentAnswerRequest> grade() {
+        return gradingEngine.grade(answerKey, answers,
+                StudentAnswerRequest::getQuestionId, StudentAnswerRequest::getSelectedOptionIds);
+    }
+    
+    /**
+     * Grading plus building the StudentAnswer entities that are saved with the attempt.
+     */
+    @Benchmark
+    public List<StudentAnswer> gradeAndBuildAnswers() {
+        GradingResult<StudentAnswerRequest> grading = grade();
+        List<StudentAnswer> studentAnswers = new ArrayList<>(grading.getAnswers().size());
+        for (GradedAnswer<StudentAnswerRequest> gradedAnswer : grading.getAnswers()) {
+            studentAnswers.add(StudentAnswer.builder()
+                    .attempt(attempt)
+                    .question(Question.builder().id(gradedAnswer.question().getQuestionId()).build())
+                    .isCorrect(gradedAnswer.correct())
+                    .pointsEarned(BigDecimal.valueOf(gradedAnswer.pointsEarned()))
+                    .selectedOptionIds(gradedAnswer.answer().getSelectedOptionIds())
+                    .answerText(gradedAnswer.answer().getAnswerText())
+                    .build());
+        }
+        return studentAnswers;
+    }
+}
@@ -0,0 +1,75 @@
+package edu.platform.benchmark;
+
+import edu.platform.security.JwtTokenVerifier;
+import edu.platform.util.JwtUtil;
+import edu.platform.util.VerifiedToken;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token handling done on every authenticated request by JwtAuthenticationFilter.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class JwtBenchmark {
+    
+    private static final String EMAIL = "student@example.com";
+    
+    private JwtUtil jwtUtil;
+    private JwtTokenVerifier tokenVerifier;
+    private String token;
+    
+    @Setup
+    public void setUp() {
+        jwtUtil = new JwtUtil();
+        ReflectionTestUtils.setField(jwtUtil, "secret", "mySecretKey123456789012345678901234567890");
+        ReflectionTestUtils.setField(jwtUtil, "expiration", 86_400_000L);
+        ReflectionTestUtils.invokeMethod(jwtUtil, "init");
+        tokenVerifier = new JwtTokenVerifier(jwtUtil);
+        ReflectionTestUtils.setField(tokenVerifier, "maxEntries", 10_000);
+        token = jwtUtil.generateToken(EMAIL);
+    }
+    
+    @Benchmark
+    public String generateToken() {
+        return jwtUtil.generateToken(EMAIL);
+    }
+    
+    @Benchmark
+    public String extractEmail() {
+        return jwtUtil.extractEmail(token);
+    }
+    
+    /**
+     * Subject and expiry check, as done by the authentication filter.
+     */
+    @Benchmark
+    public Boolean validateToken() {
+        return jwtUtil.validateToken(token, EMAIL);
+    }
+    
+    /**
+     * Single parse of a token, as done by the authentication filter on a cache miss.
+     */
+    @Benchmark
+    public VerifiedToken parse() {
+        return jwtUtil.parse(token);
+    }
+    
+    /**
+     * Repeat request with an already verified token.
+     */
+    @Benchmark
+    public VerifiedToken verifyCached() {
+        return tokenVerifier.verify(token);
+    }
+}
@@ -0,0 +1,121 @@
+package edu.platform.benchmark;
+
+import edu.platform.dto.request.StudentAnswerRequest;
+import edu.platform.entity.AnswerOption;
+import edu.platform.entity.Course;
+import edu.platform.entity.Question;
+import edu.platform.entity.Quiz;
+import edu.platform.entity.User;
+import edu.platform.entity.enums.QuestionType;
+import edu.platform.entity.enums.UserRole;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Deterministic quizzes and submissions for benchmarks.
+ */
+final class QuizFixtures {
+    
+    static final int OPTIONS_PER_QUESTION = 4;
+    
+    private QuizFixtures() {
+    }
+    
+    /**
+     * Quiz with the given number of questions: mostly single choice, every third
+     * multiple choice with two correct options, every tenth a text question.
+     */
+    static Quiz quiz(int questionCount) {
+        LocalDateTime now = LocalDateTime.of(2024, 1, 1, 12, 0);
+        User teacher = User.builder()
+                .id(1L)
+                .email("teacher@example.com")
+                .fullName("Benchmark Teacher")
+                .role(UserRole.TEACHER)
+                .createdAt(now)
+                .updatedAt(now)
+                .build();
+        Course course = Course.builder()
+                .id(1L)
+                .title("Benchmark Course")
+                .description("Course used by benchmarks")
+                .teacher(teacher)
+                .createdAt(now)
+                .updatedAt(now)
+                .build();
+        Quiz quiz = Quiz.builder()
+                .id(1L)
+                .title("Benchmark Quiz")
+                .description("Quiz with " + questionCount + " questions")
+                .course(course)
+                .timeLimitMinutes(30)
+                .createdAt(now)
+                .updatedAt(now)
+                .build();
+        
+        long optionId = 1;
+        List<Question> questions = new ArrayList<>(questionCount);
+        for (int i = 0; i < questionCount; i++) {
+            QuestionType type = i % 10 == 9 ? QuestionType.TEXT
+                    : i % 3 == 2 ? QuestionType.MULTIPLE_CHOICE
+                    : QuestionType.SINGLE_CHOICE;
+            Question question = Question.builder()
+                    .id((long) i + 1)
+                    .quiz(quiz)
+                    .questionText("Question " + (i + 1))
+                    .questionType(type)
+                    .points(1 + i % 3)
+                    .orderIndex(i)
+                    .createdAt(now)
+                    .build();
+            if (type != QuestionType.TEXT) {
+                for (int o = 0; o < OPTIONS_PER_QUESTION; o++) {
+                    boolean correct = o == 0 || (type == QuestionType.MULTIPLE_CHOICE && o == 2);
+                    question.getAnswerOptions().add(AnswerOption.builder()
+                            .id(optionId++)
+                            .question(question)
+                            .optionText("Option " + (o + 1))
+                            .isCorrect(correct)
+                            .orderIndex(o)
+                            .build());
+                }
+            }
+            questions.add(question);
+        }
+        quiz.setQuestions(questions);
+        return quiz;
+    }
+    
+    /**
+     * One answer per question in shuffled order; about half of them correct.
+     */
+    static List<StudentAnswerRequest> answers(Quiz quiz, long seed) {
+        Random random = new Random(seed);
+        List<StudentAnswerRequest> answers = new ArrayList<>(quiz.getQuestions().size());
+        for (Question question : quiz.getQuestions()) {
+            StudentAnswerRequest answer = new StudentAnswerRequest();
+            answer.setQuestionId(question.getId());
+            if (question.getQuestionType() == QuestionType.TEXT) {
+                answer.setAnswerText("Free text answer");
+            } else {
+                List<AnswerOption> options = question.getAnswerOptions();
+                List<Long> selected = new ArrayList<>();
+                if (random.nextBoolean()) {
+                    options.stream()
+                            .filter(AnswerOption::getIsCorrect)
+                            .forEach(option -> selected.add(option.getId()));
+                } else {
+                    selected.add(options.get(1 + random.nextInt(options.size() - 1)).getId());
+                }
+                answer.setSelectedOptionIds(selected);
+            }
+            answers.add(answer);
+        }
+        Collections.shuffle(answers, random);
+        return answers;
+    }
+}
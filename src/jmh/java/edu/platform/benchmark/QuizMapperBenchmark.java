@@ -0,0 +1,51 @@
+package edu.platform.benchmark;
+
+import edu.platform.dto.response.QuizResponse;
+import edu.platform.entity.Quiz;
+import edu.platform.mapper.QuizMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mapping a quiz with all its questions and options to the API response.
+ * The generated mappers are wired by a minimal Spring context, as in the application.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class QuizMapperBenchmark {
+    
+    @Param({"10", "100", "1000"})
+    private int questions;
+    
+    private AnnotationConfigApplicationContext context;
+    private QuizMapper quizMapper;
+    private Quiz quiz;
+    
+    @Setup
+    public void setUp() {
+        context = new AnnotationConfigApplicationContext("edu.platform.mapper");
+        quizMapper = context.getBean(QuizMapper.class);
+        quiz = QuizFixtures.quiz(questions);
+    }
+    
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+    
+    @Benchmark
+    public QuizResponse toResponse() {
+        return quizMapper.toResponse(quiz);
+    }
+}
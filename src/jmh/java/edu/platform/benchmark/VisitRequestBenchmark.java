@@ -0,0 +1,63 @@
+package edu.platform.benchmark;
+
+import edu.platform.util.ClientRequestInfo;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Client details extracted for every tracked visit by CourseVisitService.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class VisitRequestBenchmark {
+    
+    private static final String DESKTOP_AGENT = "Mozilla/5.0 (Windows NT 10.0; Win64; x64) "
+            + "AppleWebKit/537.36 (KHTML, like Gecko) Chrome/120.0.0.0 Safari/537.36";
+    
+    private static final String MOBILE_AGENT = "Mozilla/5.0 (iPhone; CPU iPhone OS 17_1 like Mac OS X) "
+            + "AppleWebKit/605.1.15 (KHTML, like Gecko) Version/17.1 Mobile/15E148 Safari/604.1";
+    
+    private MockHttpServletRequest proxiedRequest;
+    private MockHttpServletRequest directRequest;
+    
+    @Setup
+    public void setUp() {
+        proxiedRequest = new MockHttpServletRequest();
+        proxiedRequest.addHeader("X-Forwarded-For", "203.0.113.7, 10.0.0.1, 10.0.0.2");
+        proxiedRequest.addHeader("User-Agent", DESKTOP_AGENT);
+        
+        // No proxy headers: every header is checked before falling back to the remote address
+        directRequest = new MockHttpServletRequest();
+        directRequest.setRemoteAddr("198.51.100.23");
+        directRequest.addHeader("User-Agent", MOBILE_AGENT);
+    }
+    
+    @Benchmark
+    public String clientIpBehindProxy() {
+        return ClientRequestInfo.getClientIpAddress(proxiedRequest);
+    }
+    
+    @Benchmark
+    public String clientIpDirect() {
+        return ClientRequestInfo.getClientIpAddress(directRequest);
+    }
+    
+    @Benchmark
+    public String detectDesktop() {
+        return ClientRequestInfo.detectDeviceType(DESKTOP_AGENT);
+    }
+    
+    @Benchmark
+    public String detectMobile() {
+        return ClientRequestInfo.detectDeviceType(MOBILE_AGENT);
+    }
+}
@@ -0,0 +1,105 @@
+package edu.platform.admission;
+
+import edu.platform.exception.TooManyAttemptsException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-client and per-account rate limit for sign-in and registration, checked before any
+ * password is hashed. Each client IP and each email has a token bucket of attempts per
+ * minute with a burst allowance; an attempt without a free token is rejected with 429.
+ * The client IP is the request's remote address, so spoofed forwarding headers cannot pick
+ * a fresh bucket; behind a trusted proxy set server.forward-headers-strategy to resolve it.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class LoginThrottle {
+
+    private final MeterRegistry meterRegistry;
+
+    private final Map<String, TokenBucket> byIp = new ConcurrentHashMap<>();
+    private final Map<String, TokenBucket> byEmail = new ConcurrentHashMap<>();
+
+    @Value("${spring.security.login-throttle.enabled:true}")
+    private boolean enabled;
+
+    @Value("${spring.security.login-throttle.per-ip.attempts-per-minute:30}")
+    private double ipAttemptsPerMinute;
+
+    @Value("${spring.security.login-throttle.per-ip.burst:20}")
+    private int ipBurst;
+
+    @Value("${spring.security.login-throttle.per-email.attempts-per-minute:5}")
+    private double emailAttemptsPerMinute;
+
+    @Value("${spring.security.login-throttle.per-email.burst:5}")
+    private int emailBurst;
+
+    private Counter rejectedByIp;
+    private Counter rejectedByEmail;
+
+    @PostConstruct
+    void init() {
+        rejectedByIp = rejectedCounter("ip");
+        rejectedByEmail = rejectedCounter("email");
+    }
+
+    /**
+     * Take one attempt from the client's and the account's allowance.
+     *
+     * @throws TooManyAttemptsException if either allowance is used up
+     */
+    public void check(String clientIp, String email) {
+        if (!enabled) {
+            return;
+        }
+        long now = System.nanoTime();
+        if (clientIp != null) {
+            take(byIp, clientIp, ipAttemptsPerMinute, ipBurst, now, rejectedByIp);
+        }
+        if (email != null) {
+            take(byEmail, email.trim().toLowerCase(Locale.ROOT), emailAttemptsPerMinute, emailBurst, now,
+                    rejectedByEmail);
+        }
+    }
+
+    /**
+     * Drop buckets of clients that stopped trying; a new bucket behaves the same.
+     */
+    @Scheduled(fixedDelayString = "${spring.security.login-throttle.cleanup-interval-ms:60000}")
+    public void evictIdleBuckets() {
+        long now = System.nanoTime();
+        byIp.values().removeIf(bucket -> bucket.isIdle(now));
+        byEmail.values().removeIf(bucket -> bucket.isIdle(now));
+    }
+
+    private void take(Map<String, TokenBucket> buckets, String key, double perMinute, int burst, long now,
+                      Counter rejected) {
+        TokenBucket bucket = buckets.computeIfAbsent(key, k -> new TokenBucket(perMinute / 60.0, burst, now));
+        if (bucket.reserve(now, 0) < 0) {
+            rejected.increment();
+            long retryAfterSeconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(bucket.estimateWait(now)) + 1);
+            log.debug("Throttled sign-in attempt for {}, retry after {}s", key, retryAfterSeconds);
+            throw new TooManyAttemptsException("Too many sign-in attempts, please retry later", retryAfterSeconds);
+        }
+    }
+
+    private Counter rejectedCounter(String reason) {
+        return Counter.builder("auth.login.throttled")
+                .tag("reason", reason)
+                .description("Sign-in attempts rejected before hashing because of the attempt rate")
+                .register(meterRegistry);
+    }
+}
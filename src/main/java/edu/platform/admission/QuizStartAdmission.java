@@ -0,0 +1,165 @@
+package edu.platform.admission;
+
+import edu.platform.exception.ServiceOverloadedException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Admission control for starting quiz attempts.
+ * Each quiz has a token bucket of starts-per-second with a burst allowance; callers reserve
+ * a token in arrival order and wait for it, up to max-wait-ms. Admitted starts then share
+ * the connection pool minus reserved-connections, so a start surge cannot take the
+ * connections other requests need. Callers that would wait too long, or arrive while
+ * max-waiting requests are already parked, are rejected with 503 and a Retry-After estimate.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class QuizStartAdmission {
+
+    private final MeterRegistry meterRegistry;
+
+    private final Map<Long, TokenBucket> buckets = new ConcurrentHashMap<>();
+    private final AtomicInteger waiting = new AtomicInteger();
+
+    @Value("${quiz.start-admission.enabled:true}")
+    private boolean enabled;
+
+    @Value("${quiz.start-admission.starts-per-second:50}")
+    private double startsPerSecond;
+
+    @Value("${quiz.start-admission.burst:100}")
+    private int burst;
+
+    @Value("${quiz.start-admission.max-wait-ms:10000}")
+    private long maxWaitMs;
+
+    @Value("${quiz.start-admission.max-waiting:100}")
+    private int maxWaiting;
+
+    @Value("${spring.datasource.hikari.maximum-pool-size:10}")
+    private int poolSize;
+
+    @Value("${quiz.start-admission.reserved-connections:4}")
+    private int reservedConnections;
+
+    private Semaphore connectionShare;
+
+    private Timer waitTimer;
+    private DistributionSummary queuePosition;
+    private Counter rejectedByRate;
+    private Counter rejectedByConnections;
+
+    @PostConstruct
+    void init() {
+        int permits = Math.max(1, poolSize - reservedConnections);
+        connectionShare = new Semaphore(permits, true);
+
+        waitTimer = Timer.builder("quiz.start.admission.wait")
+                .description("Time a quiz start waited for admission")
+                .register(meterRegistry);
+        queuePosition = DistributionSummary.builder("quiz.start.admission.queue.position")
+                .description("Starts ahead of an admitted start in its quiz's queue")
+                .register(meterRegistry);
+        rejectedByRate = Counter.builder("quiz.start.admission.rejected")
+                .tag("reason", "rate")
+                .description("Quiz starts rejected because the quiz's queue was too long")
+                .register(meterRegistry);
+        rejectedByConnections = Counter.builder("quiz.start.admission.rejected")
+                .tag("reason", "connections")
+                .description("Quiz starts rejected because no database connection share was free in time")
+                .register(meterRegistry);
+        Gauge.builder("quiz.start.admission.waiting", waiting, AtomicInteger::get)
+                .description("Quiz starts waiting for admission")
+                .register(meterRegistry);
+        Gauge.builder("quiz.start.admission.connections.available", connectionShare, Semaphore::availablePermits)
+                .description("Database connections still available to quiz starts")
+                .register(meterRegistry);
+
+        log.info("Quiz start admission: enabled={}, rate={}/s, burst={}, maxWait={}ms, connections={}/{}",
+                enabled, startsPerSecond, burst, maxWaitMs, permits, poolSize);
+    }
+
+    /**
+     * Run a quiz start once it is admitted.
+     *
+     * @throws ServiceOverloadedException if the start cannot be admitted within max-wait-ms
+     */
+    public <T> T admit(Long quizId, Supplier<T> start) {
+        if (!enabled) {
+            return start.get();
+        }
+        long arrival = System.nanoTime();
+        long maxWaitNanos = TimeUnit.MILLISECONDS.toNanos(maxWaitMs);
+        TokenBucket bucket = buckets.computeIfAbsent(quizId, id -> new TokenBucket(startsPerSecond, burst, arrival));
+
+        if (waiting.get() >= maxWaiting) {
+            rejectedByRate.increment();
+            throw overloaded(quizId, bucket.estimateWait(arrival));
+        }
+        long tokenWait = bucket.reserve(arrival, maxWaitNanos);
+        if (tokenWait < 0) {
+            rejectedByRate.increment();
+            throw overloaded(quizId, bucket.estimateWait(arrival));
+        }
+        queuePosition.record(tokenWait / (1_000_000_000.0 / startsPerSecond));
+
+        waiting.incrementAndGet();
+        boolean acquired = false;
+        try {
+            if (tokenWait > 0) {
+                TimeUnit.NANOSECONDS.sleep(tokenWait);
+            }
+            long remaining = maxWaitNanos - (System.nanoTime() - arrival);
+            acquired = connectionShare.tryAcquire(Math.max(0, remaining), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            waiting.decrementAndGet();
+        }
+        if (!acquired) {
+            rejectedByConnections.increment();
+            throw overloaded(quizId, 0);
+        }
+
+        waitTimer.record(System.nanoTime() - arrival, TimeUnit.NANOSECONDS);
+        try {
+            return start.get();
+        } finally {
+            connectionShare.release();
+        }
+    }
+
+    /**
+     * Drop buckets of quizzes nobody is starting; a new bucket behaves the same.
+     */
+    @Scheduled(fixedDelayString = "${quiz.start-admission.cleanup-interval-ms:60000}")
+    public void evictIdleBuckets() {
+        long now = System.nanoTime();
+        buckets.values().removeIf(bucket -> bucket.isIdle(now));
+    }
+
+    private ServiceOverloadedException overloaded(Long quizId, long estimatedWaitNanos) {
+        long retryAfterSeconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(estimatedWaitNanos -
+                TimeUnit.MILLISECONDS.toNanos(maxWaitMs)) + 1);
+        log.debug("Rejected start of quiz {}, retry after {}s", quizId, retryAfterSeconds);
+        return new ServiceOverloadedException("Too many students are starting this quiz, please retry shortly",
+                retryAfterSeconds);
+    }
+}
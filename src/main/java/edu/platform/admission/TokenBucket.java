@@ -0,0 +1,63 @@
+package edu.platform.admission;
+
+/**
+ * Token bucket that hands out admissions by reservation.
+ * A caller reserves the next free slot and is told how long to wait for it, so callers
+ * are admitted in arrival order and nobody spins. Up to burst unused tokens accumulate
+ * while the bucket is idle.
+ */
+final class TokenBucket {
+    
+    private final long intervalNanos;
+    private final double burst;
+    private double storedTokens;
+    private long nextFreeNanos;
+    
+    TokenBucket(double tokensPerSecond, int burst, long nowNanos) {
+        this.intervalNanos = (long) (1_000_000_000L / tokensPerSecond);
+        this.burst = burst;
+        this.storedTokens = burst;
+        this.nextFreeNanos = nowNanos;
+    }
+    
+    /**
+     * Reserve one token.
+     *
+     * @return nanos to wait before the token is available, or -1 if that exceeds maxWaitNanos
+     *         (nothing is reserved then)
+     */
+    synchronized long reserve(long nowNanos, long maxWaitNanos) {
+        refill(nowNanos);
+        long waitNanos = nextFreeNanos - nowNanos;
+        if (waitNanos > maxWaitNanos) {
+            return -1;
+        }
+        double fromStored = Math.min(1.0, storedTokens);
+        storedTokens -= fromStored;
+        nextFreeNanos += (long) ((1.0 - fromStored) * intervalNanos);
+        return waitNanos;
+    }
+    
+    /**
+     * @return nanos until a token reserved now would be available
+     */
+    synchronized long estimateWait(long nowNanos) {
+        refill(nowNanos);
+        return nextFreeNanos - nowNanos;
+    }
+    
+    /**
+     * @return whether the bucket is full, i.e. indistinguishable from a new one
+     */
+    synchronized boolean isIdle(long nowNanos) {
+        refill(nowNanos);
+        return storedTokens >= burst;
+    }
+    
+    private void refill(long nowNanos) {
+        if (nowNanos > nextFreeNanos) {
+            storedTokens = Math.min(burst, storedTokens + (double) (nowNanos - nextFreeNanos) / intervalNanos);
+            nextFreeNanos = nowNanos;
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package edu.platform.calculation;
+
+import edu.platform.dto.response.CalculationJobResponse;
+import edu.platform.dto.response.TestResultResponse;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * State of one asynchronous test result calculation.
+ * Completion listeners run exactly once, on the thread that finishes the job,
+ * or immediately on registration if the job is already done.
+ */
+public class CalculationJob {
+    
+    private final String id;
+    private final Long quizAttemptId;
+    private final LocalDateTime submittedAt = LocalDateTime.now();
+    
+    private CalculationJobStatus status = CalculationJobStatus.QUEUED;
+    private LocalDateTime startedAt;
+    private LocalDateTime completedAt;
+    private TestResultResponse result;
+    private String errorMessage;
+    private List<Consumer<CalculationJob>> listeners = new ArrayList<>();
+    
+    public CalculationJob(String id, Long quizAttemptId) {
+        this.id = id;
+        this.quizAttemptId = quizAttemptId;
+    }
+    
+    public String getId() {
+        return id;
+    }
+    
+    public Long getQuizAttemptId() {
+        return quizAttemptId;
+    }
+    
+    public synchronized boolean isDone() {
+        return status == CalculationJobStatus.COMPLETED || status == CalculationJobStatus.FAILED;
+    }
+    
+    public synchronized LocalDateTime getCompletedAt() {
+        return completedAt;
+    }
+    
+    synchronized void markRunning() {
+        if (status == CalculationJobStatus.QUEUED) {
+            status = CalculationJobStatus.RUNNING;
+            startedAt = LocalDateTime.now();
+        }
+    }
+    
+    void complete(TestResultResponse result) {
+        finish(CalculationJobStatus.COMPLETED, result, null);
+    }
+    
+    void fail(String errorMessage) {
+        finish(CalculationJobStatus.FAILED, null, errorMessage);
+    }
+    
+    /**
+     * Run the listener once the job is done.
+     */
+    public void onDone(Consumer<CalculationJob> listener) {
+        synchronized (this) {
+            if (!isDone()) {
+                listeners.add(listener);
+                return;
+            }
+        }
+        listener.accept(this);
+    }
+    
+    public synchronized CalculationJobResponse toResponse() {
+        return CalculationJobResponse.builder()
+                .jobId(id)
+                .quizAttemptId(quizAttemptId)
+                .status(status)
+                .submittedAt(submittedAt)
+                .startedAt(startedAt)
+                .completedAt(completedAt)
+                .result(result)
+                .errorMessage(errorMessage)
+                .build();
+    }
+    
+    private void finish(CalculationJobStatus status, TestResultResponse result, String errorMessage) {
+        List<Consumer<CalculationJob>> toNotify;
+        synchronized (this) {
+            if (isDone()) {
+                return;
+            }
+            this.status = status;
+            this.result = result;
+            this.errorMessage = errorMessage;
+            this.completedAt = LocalDateTime.now();
+            toNotify = listeners;
+            listeners = List.of();
+        }
+        toNotify.forEach(listener -> listener.accept(this));
+    }
+}
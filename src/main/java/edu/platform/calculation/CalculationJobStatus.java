@@ -0,0 +1,8 @@
+package edu.platform.calculation;
+
+public enum CalculationJobStatus {
+    QUEUED,
+    RUNNING,
+    COMPLETED,
+    FAILED
+}
@@ -0,0 +1,169 @@
+package edu.platform.calculation;
+
+import edu.platform.entity.enums.TestResultStatus;
+import edu.platform.grading.AnswerKey;
+import edu.platform.grading.AnswerKeyCache;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Closes attempts whose time limit has elapsed without a submission.
+ * Each attempt is completed at its deadline with a zero score and gets a TIMEOUT test result.
+ * Attempts submitted or finalized in the meantime, or whose deadline moved into the future,
+ * are skipped, so running this twice for the same attempt, or on several instances, is harmless.
+ * A quiz whose answer key cannot be compiled is scored from its stored question points instead,
+ * so it does not hold up the attempts of other quizzes.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ExpiredAttemptFinalizer {
+
+    private static final String COMPLETE_SQL = "UPDATE quiz_attempts qa " +
+            "SET is_completed = TRUE, " +
+            "completed_at = qa.started_at + q.time_limit_minutes * INTERVAL '1 minute', " +
+            "score = 0 " +
+            "FROM quizzes q " +
+            "WHERE q.id = qa.quiz_id AND qa.id = ANY (?) AND qa.is_completed = FALSE " +
+            "AND q.time_limit_minutes IS NOT NULL " +
+            "AND qa.started_at + q.time_limit_minutes * INTERVAL '1 minute' <= now() " +
+            "RETURNING qa.id, qa.student_id, qa.quiz_id, qa.started_at, qa.completed_at, q.time_limit_minutes";
+
+    private static final String COMPLETE_OVERDUE_SQL = "UPDATE quiz_attempts qa " +
+            "SET is_completed = TRUE, " +
+            "completed_at = qa.started_at + q.time_limit_minutes * INTERVAL '1 minute', " +
+            "score = 0 " +
+            "FROM quizzes q " +
+            "WHERE q.id = qa.quiz_id AND qa.id IN (" +
+            "SELECT o.id FROM quiz_attempts o JOIN quizzes oq ON oq.id = o.quiz_id " +
+            "WHERE o.is_completed = FALSE AND oq.time_limit_minutes IS NOT NULL " +
+            "AND o.started_at + oq.time_limit_minutes * INTERVAL '1 minute' <= ? " +
+            "ORDER BY o.id LIMIT ? FOR UPDATE OF o SKIP LOCKED) " +
+            "RETURNING qa.id, qa.student_id, qa.quiz_id, qa.started_at, qa.completed_at, q.time_limit_minutes";
+
+    private static final String QUIZ_TOTALS_SQL = "SELECT COALESCE(SUM(points), 0), COUNT(*) " +
+            "FROM questions WHERE quiz_id = ?";
+
+    private static final String UPDATE_MAX_SCORE_SQL = "UPDATE quiz_attempts SET max_score = ? WHERE id = ?";
+
+    private static final String INSERT_RESULT_SQL = "INSERT INTO test_results " +
+            "(quiz_attempt_id, student_id, quiz_id, score, max_score, percentage, passing_score, status, " +
+            "time_spent_seconds, started_at, completed_at, correct_answers, total_questions, error_message) " +
+            "VALUES (?, ?, ?, 0, ?, 0, ?, ?, ?, ?, ?, 0, ?, ?) " +
+            "ON CONFLICT (quiz_attempt_id) DO NOTHING";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final AnswerKeyCache answerKeyCache;
+
+    @Value("${test-result.processing.passing-score-default:70.0}")
+    private BigDecimal passingScore;
+
+    /**
+     * @return ids of the attempts that were finalized
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public List<Long> finalizeAttempts(List<Long> attemptIds) {
+        return writeResults(jdbcTemplate.query(COMPLETE_SQL,
+                ps -> ps.setArray(1, ps.getConnection().createArrayOf("bigint", attemptIds.toArray())),
+                this::mapExpiredAttempt));
+    }
+
+    /**
+     * Finalize up to chunkSize open attempts whose deadline is not after the given time,
+     * without loading them first. Rows locked by another instance are skipped.
+     *
+     * @return ids of the attempts that were finalized
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public List<Long> finalizeOverdue(LocalDateTime now, int chunkSize) {
+        return writeResults(jdbcTemplate.query(COMPLETE_OVERDUE_SQL,
+                ps -> {
+                    ps.setTimestamp(1, Timestamp.valueOf(now));
+                    ps.setInt(2, chunkSize);
+                },
+                this::mapExpiredAttempt));
+    }
+
+    private List<Long> writeResults(List<ExpiredAttempt> expired) {
+        if (expired.isEmpty()) {
+            return List.of();
+        }
+
+        List<Object[]> maxScores = new ArrayList<>(expired.size());
+        List<Object[]> results = new ArrayList<>(expired.size());
+        List<Long> finalized = new ArrayList<>(expired.size());
+        Map<Long, QuizTotals> totalsByQuiz = new HashMap<>();
+        for (ExpiredAttempt attempt : expired) {
+            QuizTotals totals = totalsByQuiz.computeIfAbsent(attempt.quizId(), this::quizTotals);
+            BigDecimal maxScore = BigDecimal.valueOf(totals.maxPoints());
+            maxScores.add(new Object[]{maxScore, attempt.id()});
+            results.add(new Object[]{
+                    attempt.id(),
+                    attempt.studentId(),
+                    attempt.quizId(),
+                    maxScore,
+                    passingScore,
+                    TestResultStatus.TIMEOUT.name(),
+                    Duration.between(attempt.startedAt(), attempt.completedAt()).getSeconds(),
+                    Timestamp.valueOf(attempt.startedAt()),
+                    Timestamp.valueOf(attempt.completedAt()),
+                    totals.questionCount(),
+                    "Time limit of " + attempt.timeLimitMinutes() + " minutes exceeded"
+            });
+            finalized.add(attempt.id());
+        }
+
+        jdbcTemplate.batchUpdate(UPDATE_MAX_SCORE_SQL, maxScores);
+        jdbcTemplate.batchUpdate(INSERT_RESULT_SQL, results, new int[]{
+                Types.BIGINT, Types.BIGINT, Types.BIGINT, Types.DECIMAL, Types.DECIMAL, Types.VARCHAR,
+                Types.BIGINT, Types.TIMESTAMP, Types.TIMESTAMP, Types.INTEGER, Types.VARCHAR});
+        log.debug("Finalized {} expired attempts", finalized.size());
+        return finalized;
+    }
+
+    private QuizTotals quizTotals(Long quizId) {
+        try {
+            AnswerKey answerKey = answerKeyCache.get(quizId);
+            return new QuizTotals(answerKey.getMaxPoints(), answerKey.getQuestionCount());
+        } catch (RuntimeException e) {
+            log.warn("Could not load the answer key of quiz {}, using its stored question points: {}",
+                    quizId, e.getMessage());
+            return jdbcTemplate.queryForObject(QUIZ_TOTALS_SQL,
+                    (rs, rowNum) -> new QuizTotals(rs.getInt(1), rs.getInt(2)), quizId);
+        }
+    }
+
+    private ExpiredAttempt mapExpiredAttempt(ResultSet rs, int rowNum) throws SQLException {
+        return new ExpiredAttempt(
+                rs.getLong(1),
+                rs.getLong(2),
+                rs.getLong(3),
+                rs.getTimestamp(4).toLocalDateTime(),
+                rs.getTimestamp(5).toLocalDateTime(),
+                rs.getInt(6));
+    }
+
+    private record ExpiredAttempt(Long id, Long studentId, Long quizId, LocalDateTime startedAt,
+                                  LocalDateTime completedAt, int timeLimitMinutes) {
+    }
+
+    private record QuizTotals(int maxPoints, int questionCount) {
+    }
+}
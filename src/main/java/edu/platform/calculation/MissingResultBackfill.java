@@ -0,0 +1,100 @@
+package edu.platform.calculation;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Writes test results for completed attempts that never got one, e.g. because the
+ * instance stopped while their results were still queued in {@link SubmittedResultQueue}.
+ * Attempts completed within lookback-minutes are checked at startup and every interval-ms,
+ * so older attempts that were only ever calculated on demand are left alone. Results are rebuilt
+ * from the stored attempt and its answers, and attempts that got a result in the meantime are skipped.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class MissingResultBackfill {
+
+    private static final String MISSING_RESULTS_SQL = "SELECT qa.id, qa.student_id, qa.quiz_id, " +
+            "qa.started_at, qa.completed_at, COALESCE(qa.score, 0), COALESCE(qa.max_score, 0), " +
+            "(SELECT COUNT(*) FROM student_answers sa WHERE sa.attempt_id = qa.id AND sa.is_correct), " +
+            "(SELECT COUNT(*) FROM questions q WHERE q.quiz_id = qa.quiz_id) " +
+            "FROM quiz_attempts qa " +
+            "WHERE qa.is_completed = TRUE AND qa.id > ? AND qa.completed_at >= ? " +
+            "AND NOT EXISTS (SELECT 1 FROM test_results tr WHERE tr.quiz_attempt_id = qa.id) " +
+            "ORDER BY qa.id LIMIT ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TestResultBatchWriter batchWriter;
+
+    @Value("${test-result.auto-calculation.enabled:true}")
+    private boolean enabled;
+
+    @Value("${test-result.auto-calculation.max-batch-size:200}")
+    private int batchSize;
+
+    @Value("${test-result.auto-calculation.backfill.lookback-minutes:60}")
+    private long lookbackMinutes;
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${test-result.auto-calculation.backfill.interval-ms:300000}",
+            initialDelayString = "${test-result.auto-calculation.backfill.interval-ms:300000}")
+    public void backfillRecent() {
+        if (enabled) {
+            backfill(LocalDateTime.now().minusMinutes(lookbackMinutes));
+        }
+    }
+
+    private void backfill(LocalDateTime completedSince) {
+        long position = 0;
+        int total = 0;
+        try {
+            while (true) {
+                List<QuizSubmittedEvent> missing = jdbcTemplate.query(MISSING_RESULTS_SQL, this::mapAttempt,
+                        position, Timestamp.valueOf(completedSince), batchSize);
+                if (missing.isEmpty()) {
+                    break;
+                }
+                batchWriter.writeBatch(missing);
+                total += missing.size();
+                position = missing.get(missing.size() - 1).getAttemptId();
+                if (missing.size() < batchSize) {
+                    break;
+                }
+            }
+        } catch (Exception e) {
+            log.error("Error writing missing test results after attempt {}", position, e);
+        }
+        if (total > 0) {
+            log.info("Wrote {} missing test results for attempts completed since {}", total, completedSince);
+        }
+    }
+
+    private QuizSubmittedEvent mapAttempt(ResultSet rs, int rowNum) throws SQLException {
+        Timestamp completedAt = rs.getTimestamp(5);
+        return QuizSubmittedEvent.builder()
+                .attemptId(rs.getLong(1))
+                .studentId(rs.getLong(2))
+                .quizId(rs.getLong(3))
+                .startedAt(rs.getTimestamp(4).toLocalDateTime())
+                .completedAt(completedAt != null ? completedAt.toLocalDateTime() : null)
+                .earnedPoints(rs.getBigDecimal(6).intValue())
+                .maxPoints(rs.getBigDecimal(7).intValue())
+                .correctAnswers(rs.getInt(8))
+                .totalQuestions(rs.getInt(9))
+                .outcomes(List.of())
+                .build();
+    }
+}
@@ -0,0 +1,48 @@
+package edu.platform.calculation;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Published by QuizAttemptService when a student submits an attempt.
+ * Carries everything grading produced, so consumers do not have to reload
+ * the attempt, its answers or the quiz questions.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class QuizSubmittedEvent {
+    
+    private Long attemptId;
+    
+    private Long studentId;
+    
+    private Long quizId;
+    
+    private LocalDateTime startedAt;
+    
+    private LocalDateTime completedAt;
+    
+    private int earnedPoints;
+    
+    private int maxPoints;
+    
+    private int correctAnswers;
+    
+    private int totalQuestions;
+    
+    /** Time spent grading the submission */
+    private long gradingTimeMs;
+    
+    /** Outcome of every answered question, in quiz order */
+    private List<QuestionOutcome> outcomes;
+    
+    public record QuestionOutcome(Long questionId, boolean correct, int pointsEarned) {
+    }
+}
@@ -0,0 +1,154 @@
+package edu.platform.calculation;
+
+import edu.platform.grading.AnswerKey;
+import edu.platform.grading.GradingEngine;
+import edu.platform.grading.GradingResult;
+import edu.platform.grading.GradingResult.GradedAnswer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Regrades one chunk of attempts against an answer key in a single transaction:
+ * student answers, attempt scores and test results are rewritten with JDBC batches.
+ * Regrading is idempotent, so a chunk can safely be processed again after a failure.
+ * Results of attempts closed by their time limit keep their TIMEOUT status and message.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class RecalculationChunkProcessor {
+
+    private static final String SELECT_ANSWERS_SQL = "SELECT sa.id, sa.attempt_id, sa.question_id, so.selected_option_id " +
+            "FROM student_answers sa " +
+            "LEFT JOIN student_answer_selected_options so ON so.student_answer_id = sa.id " +
+            "WHERE sa.attempt_id = ANY (?) " +
+            "ORDER BY sa.attempt_id, sa.id";
+
+    private static final String UPDATE_ANSWER_SQL = "UPDATE student_answers " +
+            "SET is_correct = ?, points_earned = ? WHERE id = ?";
+
+    private static final String UPDATE_ATTEMPT_SQL = "UPDATE quiz_attempts " +
+            "SET score = ?, max_score = ? WHERE id = ?";
+
+    private static final String UPSERT_RESULT_SQL = "INSERT INTO test_results " +
+            "(quiz_attempt_id, student_id, quiz_id, score, max_score, percentage, passing_score, status, " +
+            "time_spent_seconds, started_at, completed_at, correct_answers, total_questions) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?) " +
+            "ON CONFLICT (quiz_attempt_id) DO UPDATE SET " +
+            "score = EXCLUDED.score, " +
+            "max_score = EXCLUDED.max_score, " +
+            "percentage = EXCLUDED.percentage, " +
+            "status = CASE WHEN test_results.status = 'TIMEOUT' THEN test_results.status " +
+            "WHEN EXCLUDED.percentage >= COALESCE(test_results.passing_score, EXCLUDED.passing_score) " +
+            "THEN 'PASSED' ELSE 'FAILED' END, " +
+            "correct_answers = EXCLUDED.correct_answers, " +
+            "total_questions = EXCLUDED.total_questions, " +
+            "error_message = CASE WHEN test_results.status = 'TIMEOUT' THEN test_results.error_message END, " +
+            "updated_at = CURRENT_TIMESTAMP";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final GradingEngine gradingEngine;
+
+    @Value("${test-result.processing.passing-score-default:70.0}")
+    private BigDecimal defaultPassingScore;
+
+    /**
+     * @return number of attempts regraded
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public int process(AnswerKey answerKey, List<AttemptRow> attempts) {
+        Map<Long, List<AnswerRow>> answersByAttempt = loadAnswers(attempts);
+
+        List<Object[]> answerUpdates = new ArrayList<>();
+        List<Object[]> attemptUpdates = new ArrayList<>(attempts.size());
+        List<Object[]> resultUpserts = new ArrayList<>(attempts.size());
+        for (AttemptRow attempt : attempts) {
+            GradingResult<AnswerRow> grading = gradingEngine.grade(answerKey,
+                    answersByAttempt.getOrDefault(attempt.id(), List.of()),
+                    AnswerRow::questionId, AnswerRow::selectedOptionIds);
+
+            for (GradedAnswer<AnswerRow> graded : grading.getAnswers()) {
+                answerUpdates.add(new Object[]{
+                        graded.correct(), BigDecimal.valueOf(graded.pointsEarned()), graded.answer().id()});
+            }
+            attemptUpdates.add(new Object[]{grading.getScore(), grading.getMaxScore(), attempt.id()});
+            resultUpserts.add(resultRow(answerKey.getQuizId(), attempt, grading));
+        }
+
+        jdbcTemplate.batchUpdate(UPDATE_ANSWER_SQL, answerUpdates);
+        jdbcTemplate.batchUpdate(UPDATE_ATTEMPT_SQL, attemptUpdates);
+        jdbcTemplate.batchUpdate(UPSERT_RESULT_SQL, resultUpserts, new int[]{
+                Types.BIGINT, Types.BIGINT, Types.BIGINT, Types.DECIMAL, Types.DECIMAL, Types.DECIMAL,
+                Types.DECIMAL, Types.VARCHAR, Types.BIGINT, Types.TIMESTAMP, Types.TIMESTAMP,
+                Types.INTEGER, Types.INTEGER});
+        return attempts.size();
+    }
+
+    private Map<Long, List<AnswerRow>> loadAnswers(List<AttemptRow> attempts) {
+        Long[] attemptIds = attempts.stream().map(AttemptRow::id).toArray(Long[]::new);
+        Map<Long, List<AnswerRow>> answersByAttempt = new HashMap<>();
+        Map<Long, AnswerRow> answersById = new HashMap<>();
+        jdbcTemplate.query(SELECT_ANSWERS_SQL,
+                ps -> ps.setArray(1, ps.getConnection().createArrayOf("bigint", attemptIds)),
+                rs -> {
+                    long answerId = rs.getLong(1);
+                    AnswerRow answer = answersById.get(answerId);
+                    if (answer == null) {
+                        answer = new AnswerRow(answerId, rs.getLong(3), new ArrayList<>());
+                        answersById.put(answerId, answer);
+                        answersByAttempt.computeIfAbsent(rs.getLong(2), k -> new ArrayList<>()).add(answer);
+                    }
+                    long optionId = rs.getLong(4);
+                    if (!rs.wasNull()) {
+                        answer.selectedOptionIds().add(optionId);
+                    }
+                });
+        return answersByAttempt;
+    }
+
+    private Object[] resultRow(Long quizId, AttemptRow attempt, GradingResult<AnswerRow> grading) {
+        Long timeSpentSeconds = attempt.startedAt() != null && attempt.completedAt() != null
+                ? Duration.between(attempt.startedAt(), attempt.completedAt()).getSeconds()
+                : null;
+        String status = grading.getPercentage().compareTo(defaultPassingScore) >= 0 ? "PASSED" : "FAILED";
+        return new Object[]{
+                attempt.id(),
+                attempt.studentId(),
+                quizId,
+                grading.getScore(),
+                grading.getMaxScore(),
+                grading.getPercentage(),
+                defaultPassingScore,
+                status,
+                timeSpentSeconds,
+                Timestamp.valueOf(attempt.startedAt()),
+                attempt.completedAt() != null ? Timestamp.valueOf(attempt.completedAt()) : null,
+                grading.getCorrectAnswers(),
+                grading.getTotalQuestions()
+        };
+    }
+
+    /**
+     * Completed attempt selected for recalculation
+     */
+    public record AttemptRow(Long id, Long studentId, LocalDateTime startedAt, LocalDateTime completedAt) {
+    }
+
+    private record AnswerRow(Long id, Long questionId, List<Long> selectedOptionIds) {
+    }
+}
@@ -0,0 +1,209 @@
+package edu.platform.calculation;
+
+import edu.platform.config.AsyncConfig;
+import edu.platform.dto.request.TestResultCalculationRequest;
+import edu.platform.dto.response.TestResultResponse;
+import edu.platform.exception.ResourceNotFoundException;
+import edu.platform.exception.ServiceOverloadedException;
+import edu.platform.service.TestResultService;
+import io.github.resilience4j.timelimiter.TimeLimiterConfig;
+import io.github.resilience4j.timelimiter.TimeLimiterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs test result calculations off the request thread.
+ * Jobs run on the bounded result calculation executor under the timeout of the
+ * {@code testResultCalculation} time limiter, counted from when the job starts running.
+ * Timeouts fire on a dedicated timer thread and interrupt the calculation; the job is
+ * only reported, and its attempt only released, once the calculation has actually
+ * returned, so a late result is reported as completed and never calculated twice.
+ * Jobs are kept in memory for retention-minutes after they finish.
+ */
+@Component
+@Slf4j
+public class ResultCalculationQueue {
+
+    private static final String TIME_LIMITER = "testResultCalculation";
+
+    private final TestResultService testResultService;
+    private final ThreadPoolTaskExecutor executor;
+    private final ScheduledExecutorService timeouts;
+    private final TimeLimiterConfig timeLimit;
+
+    private final Map<String, CalculationJob> jobs = new ConcurrentHashMap<>();
+    private final Map<Long, CalculationJob> activeByAttempt = new ConcurrentHashMap<>();
+
+    @Value("${test-result.calculation.retention-minutes:30}")
+    private long retentionMinutes;
+
+    @Value("${test-result.calculation.sse-timeout-seconds:60}")
+    private long sseTimeoutSeconds;
+
+    public ResultCalculationQueue(TestResultService testResultService,
+                                  @Qualifier(AsyncConfig.RESULT_CALCULATION_EXECUTOR) ThreadPoolTaskExecutor executor,
+                                  TimeLimiterRegistry timeLimiterRegistry) {
+        this.testResultService = testResultService;
+        this.executor = executor;
+        this.timeLimit = timeLimiterRegistry.timeLimiter(TIME_LIMITER).getTimeLimiterConfig();
+        this.timeouts = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "result-calculation-timeout");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    void stop() {
+        timeouts.shutdownNow();
+    }
+
+    /**
+     * Enqueue a calculation. While a job for the same attempt is still pending, that job is returned instead.
+     *
+     * @throws ServiceOverloadedException if the calculation queue is full
+     */
+    public CalculationJob submit(TestResultCalculationRequest request) {
+        Long attemptId = request.getQuizAttemptId();
+        CalculationJob job = new CalculationJob(UUID.randomUUID().toString(), attemptId);
+        CalculationJob active = activeByAttempt.putIfAbsent(attemptId, job);
+        if (active != null) {
+            log.debug("Calculation for attempt {} already pending as job {}", attemptId, active.getId());
+            return active;
+        }
+        jobs.put(job.getId(), job);
+
+        try {
+            executor.execute(() -> run(job, request));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(job.getId());
+            activeByAttempt.remove(attemptId, job);
+            throw new ServiceOverloadedException("Result calculation queue is full, please retry later");
+        }
+
+        log.debug("Queued calculation job {} for attempt {}", job.getId(), attemptId);
+        return job;
+    }
+
+    public CalculationJob getJob(String jobId) {
+        CalculationJob job = jobs.get(jobId);
+        if (job == null) {
+            throw new ResourceNotFoundException("Calculation job not found with ID: " + jobId);
+        }
+        return job;
+    }
+
+    /**
+     * Stream a single event named after the final status of the job, then complete.
+     */
+    public SseEmitter subscribe(String jobId) {
+        CalculationJob job = getJob(jobId);
+        SseEmitter emitter = new SseEmitter(sseTimeoutSeconds * 1000);
+        job.onDone(done -> {
+            try {
+                emitter.send(SseEmitter.event()
+                        .id(done.getId())
+                        .name(done.toResponse().getStatus().name().toLowerCase())
+                        .data(done.toResponse()));
+                emitter.complete();
+            } catch (IOException | IllegalStateException e) {
+                log.debug("Could not notify subscriber of job {}: {}", done.getId(), e.getMessage());
+            }
+        });
+        return emitter;
+    }
+
+    @Scheduled(fixedDelayString = "${test-result.calculation.cleanup-interval-ms:60000}")
+    public void evictFinishedJobs() {
+        LocalDateTime threshold = LocalDateTime.now().minusMinutes(retentionMinutes);
+        jobs.values().removeIf(job -> job.isDone() && job.getCompletedAt().isBefore(threshold));
+    }
+
+    private void run(CalculationJob job, TestResultCalculationRequest request) {
+        job.markRunning();
+        RunningCalculation running = new RunningCalculation(Thread.currentThread());
+        ScheduledFuture<?> timeout = timeouts.schedule(running::timeOut,
+                timeLimit.getTimeoutDuration().toMillis(), TimeUnit.MILLISECONDS);
+
+        TestResultResponse result = null;
+        RuntimeException error = null;
+        try {
+            result = testResultService.calculateAndSaveResult(request);
+        } catch (RuntimeException e) {
+            error = e;
+        } finally {
+            timeout.cancel(false);
+            running.finish();
+        }
+        finish(job, result, error, running.timedOut);
+    }
+
+    private void finish(CalculationJob job, TestResultResponse result, RuntimeException error, boolean timedOut) {
+        activeByAttempt.remove(job.getQuizAttemptId(), job);
+        if (error == null) {
+            job.complete(result);
+            if (timedOut) {
+                log.warn("Calculation job {} for attempt {} completed after its {} time limit",
+                        job.getId(), job.getQuizAttemptId(), timeLimit.getTimeoutDuration());
+            } else {
+                log.debug("Calculation job {} completed", job.getId());
+            }
+            return;
+        }
+        if (timedOut) {
+            job.fail("Calculation timed out after " + timeLimit.getTimeoutDuration());
+        } else {
+            job.fail(error.getMessage());
+        }
+        log.warn("Calculation job {} for attempt {} failed: {}", job.getId(), job.getQuizAttemptId(), error.getMessage());
+    }
+
+    /**
+     * Interrupts a calculation that runs past its time limit, but never once it has returned.
+     */
+    private final class RunningCalculation {
+
+        private final Thread worker;
+        private boolean finished;
+        private volatile boolean timedOut;
+
+        private RunningCalculation(Thread worker) {
+            this.worker = worker;
+        }
+
+        private synchronized void timeOut() {
+            if (finished) {
+                return;
+            }
+            timedOut = true;
+            if (timeLimit.shouldCancelRunningFuture()) {
+                worker.interrupt();
+            }
+        }
+
+        private void finish() {
+            synchronized (this) {
+                finished = true;
+            }
+            // Clear a timeout interrupt so it does not leak into the next task of the pool thread
+            Thread.interrupted();
+        }
+    }
+}
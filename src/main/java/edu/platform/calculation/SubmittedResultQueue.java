@@ -0,0 +1,166 @@
+package edu.platform.calculation;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Turns submitted attempts into test results without another round of queries.
+ * Events are queued once the submission commits and written by a single flusher
+ * thread in JDBC batches, so concurrent submissions share one insert. When the
+ * queue is full, or the queue has been stopped, the result is written on the submitting
+ * thread instead of being lost. Whatever is still queued at shutdown is written before
+ * the queue stops; results lost to a crash are written by {@link MissingResultBackfill}.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class SubmittedResultQueue {
+
+    private final TestResultBatchWriter batchWriter;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${test-result.auto-calculation.enabled:true}")
+    private boolean enabled;
+
+    @Value("${test-result.auto-calculation.queue-capacity:10000}")
+    private int queueCapacity;
+
+    @Value("${test-result.auto-calculation.max-batch-size:200}")
+    private int maxBatchSize;
+
+    @Value("${test-result.auto-calculation.flush-interval-ms:200}")
+    private long flushIntervalMs;
+
+    private BlockingQueue<QuizSubmittedEvent> queue;
+    private Thread flusher;
+    private volatile boolean running;
+
+    private DistributionSummary batchSize;
+    private Counter writtenInline;
+    private Counter failed;
+
+    @PostConstruct
+    void start() {
+        if (!enabled) {
+            log.info("Automatic test result calculation is disabled");
+            return;
+        }
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+
+        batchSize = DistributionSummary.builder("test.result.auto.batch.size")
+                .description("Number of test results written per flush")
+                .register(meterRegistry);
+        writtenInline = Counter.builder("test.result.auto.inline")
+                .description("Test results written on the submitting thread because the queue was full")
+                .register(meterRegistry);
+        failed = Counter.builder("test.result.auto.failed")
+                .description("Test results that could not be written")
+                .register(meterRegistry);
+        Gauge.builder("test.result.auto.queue.size", queue, BlockingQueue::size)
+                .description("Submitted attempts waiting for their test result to be written")
+                .register(meterRegistry);
+
+        running = true;
+        flusher = new Thread(this::runFlushLoop, "test-result-flusher");
+        flusher.setDaemon(true);
+        flusher.start();
+
+        log.info("Automatic test result calculation started: capacity={}, maxBatch={}, flushInterval={}ms",
+                queueCapacity, maxBatchSize, flushIntervalMs);
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        if (flusher == null) {
+            return;
+        }
+        running = false;
+        flusher.interrupt();
+        flusher.join(TimeUnit.SECONDS.toMillis(30));
+
+        List<QuizSubmittedEvent> remaining = new ArrayList<>(maxBatchSize);
+        while (queue.drainTo(remaining, maxBatchSize) > 0) {
+            flush(remaining);
+            remaining.clear();
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onQuizSubmitted(QuizSubmittedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        if (!running || !queue.offer(event)) {
+            writtenInline.increment();
+            flush(List.of(event));
+        }
+    }
+
+    private void runFlushLoop() {
+        List<QuizSubmittedEvent> batch = new ArrayList<>(maxBatchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                collectBatch(batch);
+            } catch (InterruptedException e) {
+                // Woken up for shutdown; flush what we have and keep draining
+            }
+            if (!batch.isEmpty()) {
+                flush(batch);
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * Wait for the first event, then keep collecting until the batch is full
+     * or flush-interval-ms has passed since that first event.
+     */
+    private void collectBatch(List<QuizSubmittedEvent> batch) throws InterruptedException {
+        QuizSubmittedEvent first = queue.poll(flushIntervalMs, TimeUnit.MILLISECONDS);
+        if (first == null) {
+            return;
+        }
+        batch.add(first);
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(flushIntervalMs);
+
+        while (batch.size() < maxBatchSize) {
+            queue.drainTo(batch, maxBatchSize - batch.size());
+            long remaining = deadline - System.nanoTime();
+            if (batch.size() >= maxBatchSize || remaining <= 0 || !running) {
+                return;
+            }
+            QuizSubmittedEvent next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                return;
+            }
+            batch.add(next);
+        }
+    }
+
+    private void flush(List<QuizSubmittedEvent> batch) {
+        try {
+            batchWriter.writeBatch(batch);
+        } catch (Exception e) {
+            log.warn("Batch insert of {} test results failed, retrying row by row: {}", batch.size(), e.getMessage());
+            failed.increment(batchWriter.writeIndividually(batch));
+        } finally {
+            batchSize.record(batch.size());
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package edu.platform.calculation;
+
+import edu.platform.entity.enums.TestResultStatus;
+import edu.platform.grading.GradingResult;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Writes test results built from {@link QuizSubmittedEvent}s with plain JDBC.
+ * An attempt that already has a result (e.g. calculated on demand) is skipped.
+ */
+@Component
+@Slf4j
+public class TestResultBatchWriter {
+    
+    private static final String INSERT_SQL = "INSERT INTO test_results " +
+            "(quiz_attempt_id, student_id, quiz_id, score, max_score, percentage, passing_score, status, " +
+            "time_spent_seconds, started_at, completed_at, correct_answers, total_questions, calculation_time_ms) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?) " +
+            "ON CONFLICT (quiz_attempt_id) DO NOTHING";
+    
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate rowTransaction;
+    
+    @Value("${test-result.processing.passing-score-default:70.0}")
+    private BigDecimal passingScore;
+    
+    public TestResultBatchWriter(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.rowTransaction = new TransactionTemplate(transactionManager);
+        this.rowTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+    
+    /**
+     * Insert the whole batch in one transaction.
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void writeBatch(List<QuizSubmittedEvent> events) {
+        jdbcTemplate.batchUpdate(INSERT_SQL, events, events.size(), this::bind);
+    }
+    
+    /**
+     * Insert results one by one, each in its own new transaction, so they are committed
+     * even when called after the caller's transaction has completed.
+     * Used after a failed batch so that one bad row does not lose the rest.
+     *
+     * @return number of results that could not be written
+     */
+    public int writeIndividually(List<QuizSubmittedEvent> events) {
+        int failed = 0;
+        for (QuizSubmittedEvent event : events) {
+            try {
+                rowTransaction.executeWithoutResult(status -> jdbcTemplate.update(INSERT_SQL, ps -> bind(ps, event)));
+            } catch (Exception e) {
+                failed++;
+                log.warn("Could not write test result for attempt {}: {}", event.getAttemptId(), e.getMessage());
+            }
+        }
+        return failed;
+    }
+    
+    private void bind(PreparedStatement ps, QuizSubmittedEvent event) throws SQLException {
+        BigDecimal score = BigDecimal.valueOf(event.getEarnedPoints());
+        BigDecimal maxScore = BigDecimal.valueOf(event.getMaxPoints());
+        BigDecimal percentage = GradingResult.percentage(event.getEarnedPoints(), event.getMaxPoints());
+        TestResultStatus status = percentage.compareTo(passingScore) >= 0
+                ? TestResultStatus.PASSED
+                : TestResultStatus.FAILED;
+        Long timeSpentSeconds = event.getStartedAt() != null && event.getCompletedAt() != null
+                ? Duration.between(event.getStartedAt(), event.getCompletedAt()).getSeconds()
+                : null;
+        
+        ps.setLong(1, event.getAttemptId());
+        ps.setLong(2, event.getStudentId());
+        ps.setLong(3, event.getQuizId());
+        ps.setBigDecimal(4, score);
+        ps.setBigDecimal(5, maxScore);
+        ps.setBigDecimal(6, percentage);
+        ps.setBigDecimal(7, passingScore);
+        ps.setString(8, status.name());
+        ps.setObject(9, timeSpentSeconds, Types.BIGINT);
+        ps.setTimestamp(10, Timestamp.valueOf(event.getStartedAt()));
+        ps.setTimestamp(11, event.getCompletedAt() != null ? Timestamp.valueOf(event.getCompletedAt()) : null);
+        ps.setInt(12, event.getCorrectAnswers());
+        ps.setInt(13, event.getTotalQuestions());
+        ps.setLong(14, event.getGradingTimeMs());
+    }
+}
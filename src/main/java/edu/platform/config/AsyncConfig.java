@@ -0,0 +1,256 @@
+package edu.platform.config;
+
+import edu.platform.tracking.ExecutorRejectionPolicy;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Executors for {@code @Async} work.
+ * Visit tracking and result calculation get their own bounded pools so load
+ * spikes cannot grow an unbounded queue or starve other asynchronous work.
+ */
+@Configuration
+@Slf4j
+public class AsyncConfig {
+
+    public static final String VISIT_TRACKING_EXECUTOR = "visitTrackingExecutor";
+
+    public static final String RESULT_CALCULATION_EXECUTOR = "resultCalculationExecutor";
+
+    public static final String RESULT_RECALCULATION_EXECUTOR = "resultRecalculationExecutor";
+
+    public static final String PASSWORD_HASHING_EXECUTOR = "passwordHashingExecutor";
+
+    public static final String USER_IMPORT_EXECUTOR = "userImportExecutor";
+
+    private static final String VISIT_EXECUTOR_METRIC = "visit.tracking.executor";
+
+    private static final String RESULT_CALCULATION_EXECUTOR_METRIC = "test.result.calculation.executor";
+
+    private static final String PASSWORD_HASHING_EXECUTOR_METRIC = "auth.password.hashing.executor";
+
+    @Value("${visit-tracking.executor.core-pool-size:2}")
+    private int corePoolSize;
+
+    @Value("${visit-tracking.executor.max-pool-size:4}")
+    private int maxPoolSize;
+
+    @Value("${visit-tracking.executor.queue-capacity:10000}")
+    private int queueCapacity;
+
+    @Value("${visit-tracking.executor.keep-alive-seconds:60}")
+    private int keepAliveSeconds;
+
+    @Value("${visit-tracking.executor.rejection-policy:DROP_OLDEST}")
+    private ExecutorRejectionPolicy rejectionPolicy;
+
+    @Value("${visit-tracking.executor.sample-rate:10}")
+    private int sampleRate;
+
+    @Value("${test-result.calculation.executor.core-pool-size:2}")
+    private int calculationCorePoolSize;
+
+    @Value("${test-result.calculation.executor.max-pool-size:4}")
+    private int calculationMaxPoolSize;
+
+    @Value("${test-result.calculation.executor.queue-capacity:500}")
+    private int calculationQueueCapacity;
+
+    @Value("${test-result.recalculation.parallelism:4}")
+    private int recalculationParallelism;
+
+    @Value("${spring.security.password-hashing.threads:0}")
+    private int hashingThreads;
+
+    @Value("${spring.security.password-hashing.queue-capacity:64}")
+    private int hashingQueueCapacity;
+
+    @Value("${user-import.hashing-threads:0}")
+    private int importHashingThreads;
+
+    /**
+     * Bounded executor used by the {@code @Async} methods of the visit tracking service.
+     * Exposes pool gauges, task queue wait / run time and a rejected task counter.
+     */
+    @Bean(name = VISIT_TRACKING_EXECUTOR)
+    public ThreadPoolTaskExecutor visitTrackingExecutor(MeterRegistry meterRegistry) {
+        Timer queueWait = Timer.builder(VISIT_EXECUTOR_METRIC + ".queue.wait")
+                .description("Time visit tracking tasks spent waiting in the queue")
+                .register(meterRegistry);
+        Timer execution = Timer.builder(VISIT_EXECUTOR_METRIC + ".execution")
+                .description("Time spent running visit tracking tasks")
+                .register(meterRegistry);
+
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("visit-tracking-");
+        executor.setCorePoolSize(corePoolSize);
+        executor.setMaxPoolSize(maxPoolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setKeepAliveSeconds(keepAliveSeconds);
+        executor.setRejectedExecutionHandler(rejectionHandler(meterRegistry));
+        executor.setTaskDecorator(task -> {
+            long submittedAt = System.nanoTime();
+            return () -> {
+                long startedAt = System.nanoTime();
+                queueWait.record(startedAt - submittedAt, TimeUnit.NANOSECONDS);
+                try {
+                    task.run();
+                } finally {
+                    execution.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+                }
+            };
+        });
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(10);
+        executor.initialize();
+
+        new ExecutorServiceMetrics(executor.getThreadPoolExecutor(), VISIT_EXECUTOR_METRIC, Tags.empty())
+                .bindTo(meterRegistry);
+
+        log.info("Visit tracking executor: core={}, max={}, queue={}, rejectionPolicy={}",
+                corePoolSize, maxPoolSize, queueCapacity, rejectionPolicy);
+        return executor;
+    }
+
+    /**
+     * Bounded executor for asynchronous test result calculation jobs.
+     * A full queue rejects the job, which the caller reports as 503.
+     */
+    @Bean(name = RESULT_CALCULATION_EXECUTOR)
+    public ThreadPoolTaskExecutor resultCalculationExecutor(MeterRegistry meterRegistry) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("result-calculation-");
+        executor.setCorePoolSize(calculationCorePoolSize);
+        executor.setMaxPoolSize(calculationMaxPoolSize);
+        executor.setQueueCapacity(calculationQueueCapacity);
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        executor.initialize();
+
+        new ExecutorServiceMetrics(executor.getThreadPoolExecutor(), RESULT_CALCULATION_EXECUTOR_METRIC, Tags.empty())
+                .bindTo(meterRegistry);
+
+        log.info("Result calculation executor: core={}, max={}, queue={}",
+                calculationCorePoolSize, calculationMaxPoolSize, calculationQueueCapacity);
+        return executor;
+    }
+
+    /**
+     * Workers for bulk recalculation chunks. Jobs submit at most parallelism chunks at a time;
+     * if several jobs overlap, excess chunks run on the job's coordinator thread.
+     */
+    @Bean(name = RESULT_RECALCULATION_EXECUTOR)
+    public ThreadPoolTaskExecutor resultRecalculationExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("result-recalculation-");
+        executor.setCorePoolSize(recalculationParallelism);
+        executor.setMaxPoolSize(recalculationParallelism);
+        executor.setQueueCapacity(recalculationParallelism);
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Workers for BCrypt hashing, so login bursts cannot occupy request threads or more
+     * than the configured cores. A full queue rejects the hash, which the caller reports as 503.
+     * Threads default to half the available processors.
+     */
+    @Bean(name = PASSWORD_HASHING_EXECUTOR)
+    public ThreadPoolTaskExecutor passwordHashingExecutor(MeterRegistry meterRegistry) {
+        int threads = hashingThreads > 0
+                ? hashingThreads
+                : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("password-hashing-");
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(hashingQueueCapacity);
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        executor.initialize();
+
+        new ExecutorServiceMetrics(executor.getThreadPoolExecutor(), PASSWORD_HASHING_EXECUTOR_METRIC, Tags.empty())
+                .bindTo(meterRegistry);
+
+        log.info("Password hashing executor: threads={}, queue={}", threads, hashingQueueCapacity);
+        return executor;
+    }
+
+    /**
+     * Workers hashing the passwords of bulk user imports, separate from the sign-in pool so an
+     * import cannot reject logins. Excess hashes run on the importing thread.
+     * Threads default to the available processors.
+     */
+    @Bean(name = USER_IMPORT_EXECUTOR)
+    public ThreadPoolTaskExecutor userImportExecutor() {
+        int threads = importHashingThreads > 0
+                ? importHashingThreads
+                : Runtime.getRuntime().availableProcessors();
+
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("user-import-");
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(threads * 4);
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.initialize();
+        return executor;
+    }
+
+    private RejectedExecutionHandler rejectionHandler(MeterRegistry meterRegistry) {
+        Counter dropped = rejectedCounter(meterRegistry, "dropped");
+        Counter callerRuns = rejectedCounter(meterRegistry, "caller_runs");
+
+        return switch (rejectionPolicy) {
+            case CALLER_RUNS -> (task, pool) -> {
+                callerRuns.increment();
+                if (!pool.isShutdown()) {
+                    task.run();
+                }
+            };
+            case SAMPLE -> {
+                AtomicLong rejected = new AtomicLong();
+                yield (task, pool) -> {
+                    if (rejected.getAndIncrement() % sampleRate == 0 && !pool.isShutdown()) {
+                        callerRuns.increment();
+                        task.run();
+                    } else {
+                        dropped.increment();
+                    }
+                };
+            }
+            default -> (task, pool) -> {
+                if (pool.isShutdown()) {
+                    dropped.increment();
+                    return;
+                }
+                if (pool.getQueue().poll() != null) {
+                    dropped.increment();
+                }
+                pool.execute(task);
+            };
+        };
+    }
+
+    private Counter rejectedCounter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder(VISIT_EXECUTOR_METRIC + ".rejected")
+                .description("Visit tracking tasks rejected because the executor queue was full")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+}
@@ -2,10 +2,9 @@ package edu.platform.controller;
 
 import edu.platform.dto.request.CourseRequest;
 import edu.platform.dto.response.CourseResponse;
-import edu.platform.entity.User;
+import edu.platform.security.CurrentUser;
 import edu.platform.service.CourseService;
 import edu.platform.service.CourseVisitService;
-import edu.platform.service.UserService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -36,7 +35,6 @@ import java.util.List;
 public class CourseController {
     
     private final CourseService courseService;
-    private final UserService userService;
     private final CourseVisitService courseVisitService;
     
     @PostMapping
@@ -54,8 +52,8 @@ public class CourseController {
         
         log.info("Course creation request received from: {}", email);
         
-        User currentUser = userService.getCurrentUserEntity(email);
-        CourseResponse course = courseService.createCourse(request, currentUser.getId());
+        Long currentUserId = CurrentUser.id();
+        CourseResponse course = courseService.createCourse(request, currentUserId);
         
         return ResponseEntity.status(HttpStatus.CREATED).body(course);
     }
@@ -107,8 +105,8 @@ public class CourseController {
         
         log.info("Course update request received for ID: {} from: {}", id, email);
         
-        User currentUser = userService.getCurrentUserEntity(email);
-        CourseResponse course = courseService.updateCourse(id, request, currentUser.getId());
+        Long currentUserId = CurrentUser.id();
+        CourseResponse course = courseService.updateCourse(id, request, currentUserId);
         
         return ResponseEntity.ok(course);
     }
@@ -128,8 +126,8 @@ public class CourseController {
         
         log.info("Course deletion request received for ID: {} from: {}", id, email);
         
-        User currentUser = userService.getCurrentUserEntity(email);
-        courseService.deleteCourse(id, currentUser.getId());
+        Long currentUserId = CurrentUser.id();
+        courseService.deleteCourse(id, currentUserId);
         
         return ResponseEntity.noContent().build();
     }
@@ -146,8 +144,8 @@ public class CourseController {
         
         log.debug("Getting courses for teacher: {}", email);
         
-        User currentUser = userService.getCurrentUserEntity(email);
-        List<CourseResponse> courses = courseService.getCoursesByTeacher(currentUser.getId());
+        Long currentUserId = CurrentUser.id();
+        List<CourseResponse> courses = courseService.getCoursesByTeacher(currentUserId);
         
         return ResponseEntity.ok(courses);
     }
@@ -166,16 +164,11 @@ public class CourseController {
     }
 
     private void recordCourseView(Long courseId, HttpServletRequest request) {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        if (authentication == null || !authentication.isAuthenticated()) {
-            return;
-        }
-        Object principal = authentication.getPrincipal();
-        if (principal == null || "anonymousUser".equals(principal)) {
+        Long userId = CurrentUser.idOrNull();
+        if (userId == null) {
             return;
         }
         try {
-            Long userId = userService.getCurrentUserEntity(authentication.getName()).getId();
             courseVisitService.recordCourseView(userId, courseId, request);
         } catch (Exception ex) {
             log.debug("Failed to record course visit for course {}", courseId, ex);
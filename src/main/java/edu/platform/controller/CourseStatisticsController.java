@@ -7,6 +7,13 @@ import edu.platform.entity.enums.VisitType;
 import edu.platform.mapper.CourseVisitMapper;
 import edu.platform.repository.CourseVisitRepository;
 import edu.platform.service.CourseVisitService;
+import edu.platform.service.IncrementalStatisticsAggregationService;
+import edu.platform.statistics.ActiveUserTracker;
+import edu.platform.statistics.LiveCourseSnapshot;
+import edu.platform.statistics.LiveCourseStatistics;
+import edu.platform.statistics.SpaceSaving;
+import edu.platform.statistics.UniqueVisitorEstimate;
+import edu.platform.statistics.VisitorSketchStore;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -17,6 +24,8 @@ import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -30,6 +39,7 @@ import java.time.LocalTime;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import jakarta.validation.Valid;
 
 @RestController
@@ -42,8 +52,12 @@ public class CourseStatisticsController {
     
     private final CourseVisitRepository courseVisitRepository;
     private final CourseVisitService courseVisitService;
+    private final IncrementalStatisticsAggregationService incrementalAggregationService;
     private final CourseVisitMapper courseVisitMapper;
     private final JdbcTemplate jdbcTemplate;
+    private final VisitorSketchStore visitorSketchStore;
+    private final LiveCourseStatistics liveCourseStatistics;
+    private final ActiveUserTracker activeUserTracker;
     
     /**
      * Get overall statistics for a course
@@ -51,17 +65,48 @@ public class CourseStatisticsController {
     @GetMapping("/courses/{courseId}")
     @PreAuthorize("hasRole('TEACHER') or hasRole('ADMIN')")
     @Operation(summary = "Get course statistics", 
-               description = "Get aggregated statistics for a specific course")
+               description = "Get statistics for a course from live counters, or recounted from raw visits with exact=true")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Statistics retrieved successfully",
                 content = @Content(schema = @Schema(implementation = CourseStatisticsResponse.class))),
         @ApiResponse(responseCode = "404", description = "Course not found")
     })
     public ResponseEntity<CourseStatisticsResponse> getCourseStatistics(
-            @Parameter(description = "Course ID") @PathVariable Long courseId) {
+            @Parameter(description = "Course ID") @PathVariable Long courseId,
+            @Parameter(description = "Recount from raw visits instead of using live counters")
+            @RequestParam(defaultValue = "false") boolean exact) {
+        
+        log.debug("Getting statistics for course: {} (exact={})", courseId, exact);
+        
+        if (exact) {
+            return ResponseEntity.ok(countCourseStatistics(courseId));
+        }
         
-        log.debug("Getting statistics for course: {}", courseId);
+        LiveCourseSnapshot snapshot = liveCourseStatistics.getSnapshot(courseId);
+        long quizStarts = snapshot.count(VisitType.QUIZ_START);
+        long quizCompletions = snapshot.count(VisitType.QUIZ_COMPLETE);
+        
+        CourseStatisticsResponse response = CourseStatisticsResponse.builder()
+                .courseId(courseId)
+                .totalVisits(snapshot.getTotalVisits())
+                .uniqueVisitors(snapshot.getUniqueVisitors())
+                .uniqueVisitorsStandardError(snapshot.getUniqueVisitorsStandardError())
+                .totalDurationSeconds(snapshot.getTotalDurationSeconds())
+                .averageDurationSeconds(snapshot.getDurationSamples() > 0
+                        ? (int) (snapshot.getTotalDurationSeconds() / snapshot.getDurationSamples())
+                        : 0)
+                .lessonViews(snapshot.count(VisitType.LESSON_VIEW))
+                .quizAttempts(snapshot.count(VisitType.QUIZ_VIEW))
+                .completionRate(quizStarts > 0 ? (double) quizCompletions / quizStarts * 100 : 0.0)
+                .build();
         
+        return ResponseEntity.ok(response);
+    }
+    
+    /**
+     * Exact course statistics counted from raw visits
+     */
+    private CourseStatisticsResponse countCourseStatistics(Long courseId) {
         Long totalVisits = courseVisitRepository.countByCourseId(courseId);
         Long uniqueVisitors = courseVisitRepository.countUniqueVisitorsByCourseId(courseId);
         Long totalDuration = courseVisitRepository.getTotalDurationByCourseId(courseId);
@@ -74,18 +119,17 @@ public class CourseStatisticsController {
                 ? (quizCompletions.doubleValue() / quizStarts.doubleValue()) * 100
                 : 0.0;
         
-        CourseStatisticsResponse response = CourseStatisticsResponse.builder()
+        return CourseStatisticsResponse.builder()
                 .courseId(courseId)
                 .totalVisits(totalVisits)
                 .uniqueVisitors(uniqueVisitors)
+                .uniqueVisitorsStandardError(0.0)
                 .totalDurationSeconds(totalDuration)
                 .averageDurationSeconds(avgDuration != null ? avgDuration.intValue() : 0)
                 .lessonViews(lessonViews != null ? lessonViews : 0)
                 .quizAttempts(quizAttempts != null ? quizAttempts : 0)
                 .completionRate(completionRate)
                 .build();
-        
-        return ResponseEntity.ok(response);
     }
     
     /**
@@ -126,6 +170,28 @@ public class CourseStatisticsController {
         return ResponseEntity.ok(results);
     }
     
+    /**
+     * Get hourly statistics for a course
+     */
+    @GetMapping("/courses/{courseId}/hourly")
+    @PreAuthorize("hasRole('TEACHER') or hasRole('ADMIN')")
+    @Operation(summary = "Get hourly statistics", 
+               description = "Get near-real-time hourly statistics for a course")
+    public ResponseEntity<List<Map<String, Object>>> getHourlyStatistics(
+            @Parameter(description = "Course ID") @PathVariable Long courseId,
+            @Parameter(description = "Start time, defaults to 24 hours ago") @RequestParam(required = false) 
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
+            @Parameter(description = "End time, defaults to now") @RequestParam(required = false) 
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate) {
+        
+        LocalDateTime end = endDate != null ? endDate : LocalDateTime.now();
+        LocalDateTime start = startDate != null ? startDate : end.minusHours(24);
+        
+        log.debug("Getting hourly statistics for course {} from {} to {}", courseId, start, end);
+        
+        return ResponseEntity.ok(incrementalAggregationService.getHourlyStatistics(courseId, start, end));
+    }
+    
     /**
      * Get visit trend for a course
      */
@@ -164,22 +230,46 @@ public class CourseStatisticsController {
     @GetMapping("/courses/{courseId}/active-users")
     @PreAuthorize("hasRole('TEACHER') or hasRole('ADMIN')")
     @Operation(summary = "Get most active users", 
-               description = "Get users with most visits to the course")
+               description = "Get users with most visits to the course. Recent date ranges are served " +
+                             "from in-memory heavy hitter summaries, where visitCount may overestimate " +
+                             "by up to maxOverestimate")
     public ResponseEntity<List<Map<String, Object>>> getMostActiveUsers(
             @Parameter(description = "Course ID") @PathVariable Long courseId,
             @Parameter(description = "Limit", example = "10") 
-            @RequestParam(defaultValue = "10") Integer limit) {
+            @RequestParam(defaultValue = "10") Integer limit,
+            @Parameter(description = "Start date") @RequestParam(required = false) 
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @Parameter(description = "End date") @RequestParam(required = false) 
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
         
         log.debug("Getting most active users for course {}", courseId);
         
-        List<Object[]> users = courseVisitRepository.getMostActiveUsersByCourseId(courseId);
+        Optional<List<SpaceSaving.Entry>> fromMemory = activeUserTracker.top(courseId, startDate, endDate, limit);
+        if (fromMemory.isPresent()) {
+            List<Map<String, Object>> results = fromMemory.get().stream()
+                .map(entry -> {
+                    Map<String, Object> map = new HashMap<>();
+                    map.put("userId", entry.id());
+                    map.put("visitCount", entry.count());
+                    map.put("maxOverestimate", entry.error());
+                    return map;
+                })
+                .toList();
+            return ResponseEntity.ok(results);
+        }
+        
+        Pageable top = PageRequest.of(0, limit);
+        List<Object[]> users = startDate != null && endDate != null
+            ? courseVisitRepository.getMostActiveUsersByCourseIdAndDateRange(
+                courseId, startDate.atStartOfDay(), endDate.atTime(LocalTime.MAX), top)
+            : courseVisitRepository.getMostActiveUsersByCourseId(courseId, top);
         
         List<Map<String, Object>> results = users.stream()
-            .limit(limit)
             .map(row -> {
                 Map<String, Object> map = new HashMap<>();
                 map.put("userId", row[0]);
                 map.put("visitCount", row[1]);
+                map.put("maxOverestimate", 0);
                 return map;
             })
             .toList();
@@ -193,7 +283,7 @@ public class CourseStatisticsController {
     @GetMapping("/courses/{courseId}/range")
     @PreAuthorize("hasRole('TEACHER') or hasRole('ADMIN')")
     @Operation(summary = "Get statistics for date range", 
-               description = "Get detailed statistics for a specific date range")
+               description = "Get statistics for a date range from daily aggregates; unique visitors are a HyperLogLog estimate")
     public ResponseEntity<Map<String, Object>> getStatisticsForDateRange(
             @Parameter(description = "Course ID") @PathVariable Long courseId,
             @Parameter(description = "Start date") @RequestParam 
@@ -204,30 +294,32 @@ public class CourseStatisticsController {
         log.debug("Getting statistics for course {} from {} to {}", 
                  courseId, startDate, endDate);
         
-        LocalDateTime startDateTime = startDate.atStartOfDay();
-        LocalDateTime endDateTime = endDate.atTime(LocalTime.MAX);
+        String sql = "SELECT " +
+                    "COALESCE(SUM(total_visits), 0) as total_visits, " +
+                    "COALESCE(SUM(total_duration_seconds), 0) as total_duration, " +
+                    "COALESCE(SUM(duration_samples), 0) as duration_samples " +
+                    "FROM course_statistics_aggregated " +
+                    "WHERE course_id = ? " +
+                    "AND period_type = 'DAILY' " +
+                    "AND period_start BETWEEN ? AND ?";
         
-        Object[] stats = courseVisitRepository.getStatisticsByCourseIdAndDateRange(
-            courseId, startDateTime, endDateTime);
+        Map<String, Object> totals = jdbcTemplate.queryForMap(sql, courseId, startDate, endDate);
+        long totalDuration = ((Number) totals.get("total_duration")).longValue();
+        long durationSamples = ((Number) totals.get("duration_samples")).longValue();
         
-        if (stats == null || stats.length == 0) {
-            return ResponseEntity.ok(Map.of(
-                "courseId", courseId,
-                "totalVisits", 0,
-                "uniqueVisitors", 0,
-                "totalDuration", 0,
-                "avgDuration", 0
-            ));
-        }
+        // Unique visitors over the range come from merging the daily HyperLogLog sketches
+        UniqueVisitorEstimate uniqueVisitors = visitorSketchStore.estimateUniqueVisitors(
+            courseId, startDate, endDate);
         
         Map<String, Object> response = new HashMap<>();
         response.put("courseId", courseId);
         response.put("startDate", startDate);
         response.put("endDate", endDate);
-        response.put("totalVisits", stats[0]);
-        response.put("uniqueVisitors", stats[1]);
-        response.put("totalDuration", stats[2]);
-        response.put("avgDuration", stats[3]);
+        response.put("totalVisits", totals.get("total_visits"));
+        response.put("uniqueVisitors", uniqueVisitors.getEstimate());
+        response.put("uniqueVisitorsStandardError", uniqueVisitors.getStandardError());
+        response.put("totalDuration", totalDuration);
+        response.put("avgDuration", durationSamples > 0 ? (double) totalDuration / durationSamples : 0.0);
         
         return ResponseEntity.ok(response);
     }
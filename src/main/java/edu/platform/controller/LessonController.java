@@ -2,9 +2,9 @@ package edu.platform.controller;
 
 import edu.platform.dto.request.LessonRequest;
 import edu.platform.dto.response.LessonResponse;
+import edu.platform.security.CurrentUser;
 import edu.platform.service.CourseVisitService;
 import edu.platform.service.LessonService;
-import edu.platform.service.UserService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -35,7 +35,6 @@ import java.util.List;
 public class LessonController {
     
     private final LessonService lessonService;
-    private final UserService userService;
     private final CourseVisitService courseVisitService;
     
     @PostMapping
@@ -51,7 +50,7 @@ public class LessonController {
     public ResponseEntity<LessonResponse> createLesson(@Valid @RequestBody LessonRequest request) {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         String email = authentication.getName();
-        Long teacherId = userService.getCurrentUserEntity(email).getId();
+        Long teacherId = CurrentUser.id();
         
         log.info("Lesson creation request from: {} for course: {}", email, request.getCourseId());
         
@@ -100,7 +99,7 @@ public class LessonController {
     public ResponseEntity<List<LessonResponse>> getMyLessons() {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         String email = authentication.getName();
-        Long teacherId = userService.getCurrentUserEntity(email).getId();
+        Long teacherId = CurrentUser.id();
         
         log.debug("Getting lessons for teacher: {}", email);
         
@@ -125,7 +124,7 @@ public class LessonController {
         
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         String email = authentication.getName();
-        Long teacherId = userService.getCurrentUserEntity(email).getId();
+        Long teacherId = CurrentUser.id();
         
         log.info("Lesson update request for ID: {} from: {}", id, email);
         
@@ -146,7 +145,7 @@ public class LessonController {
         
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         String email = authentication.getName();
-        Long teacherId = userService.getCurrentUserEntity(email).getId();
+        Long teacherId = CurrentUser.id();
         
         log.info("Lesson deletion request for ID: {} from: {}", id, email);
         
@@ -168,7 +167,7 @@ public class LessonController {
         
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         String email = authentication.getName();
-        Long teacherId = userService.getCurrentUserEntity(email).getId();
+        Long teacherId = CurrentUser.id();
         
         log.info("Attaching media {} to lesson {} by {}", mediaAssetId, lessonId, email);
         
@@ -190,7 +189,7 @@ public class LessonController {
         
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         String email = authentication.getName();
-        Long teacherId = userService.getCurrentUserEntity(email).getId();
+        Long teacherId = CurrentUser.id();
         
         log.info("Detaching media {} from lesson {} by {}", mediaAssetId, lessonId, email);
         
@@ -202,16 +201,11 @@ public class LessonController {
         if (lesson == null) {
             return;
         }
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        if (authentication == null || !authentication.isAuthenticated()) {
-            return;
-        }
-        Object principal = authentication.getPrincipal();
-        if (principal == null || "anonymousUser".equals(principal)) {
+        Long userId = CurrentUser.idOrNull();
+        if (userId == null) {
             return;
         }
         try {
-            Long userId = userService.getCurrentUserEntity(authentication.getName()).getId();
             courseVisitService.recordLessonView(userId, lesson.getCourseId(), lesson.getId(), request);
         } catch (Exception ex) {
             log.debug("Failed to record lesson visit for lesson {}", lesson.getId(), ex);
@@ -1,8 +1,8 @@
 package edu.platform.controller;
 
 import edu.platform.dto.response.MediaAssetResponse;
+import edu.platform.security.CurrentUser;
 import edu.platform.service.MediaAssetService;
-import edu.platform.service.UserService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -35,7 +35,6 @@ import java.util.List;
 public class MediaController {
     
     private final MediaAssetService mediaAssetService;
-    private final UserService userService;
     
     @PostMapping(consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
     @Operation(summary = "Upload media file", description = "Upload an image file (PNG, JPG, WEBP, max 5MB)")
@@ -51,7 +50,7 @@ public class MediaController {
         
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         String email = authentication.getName();
-        Long userId = userService.getCurrentUserEntity(email).getId();
+        Long userId = CurrentUser.id();
         
         log.info("File upload request from user: {} (file: {})", email, file.getOriginalFilename());
         
@@ -117,7 +116,7 @@ public class MediaController {
     public ResponseEntity<List<MediaAssetResponse>> getMyFiles() {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         String email = authentication.getName();
-        Long userId = userService.getCurrentUserEntity(email).getId();
+        Long userId = CurrentUser.id();
         
         log.debug("Getting files for user: {}", email);
         
@@ -137,7 +136,7 @@ public class MediaController {
         
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         String email = authentication.getName();
-        Long userId = userService.getCurrentUserEntity(email).getId();
+        Long userId = CurrentUser.id();
         
         log.info("Delete file request for ID: {} from user: {}", id, email);
         
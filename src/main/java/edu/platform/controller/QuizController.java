@@ -1,14 +1,16 @@
 package edu.platform.controller;
 
+import edu.platform.admission.QuizStartAdmission;
+import edu.platform.delivery.QuizPayload;
+import edu.platform.delivery.QuizPayloadCache;
 import edu.platform.dto.request.QuizRequest;
 import edu.platform.dto.request.QuizSubmissionRequest;
 import edu.platform.dto.response.QuizAttemptResponse;
 import edu.platform.dto.response.QuizResponse;
-import edu.platform.entity.User;
+import edu.platform.security.CurrentUser;
 import edu.platform.service.CourseVisitService;
 import edu.platform.service.QuizAttemptService;
 import edu.platform.service.QuizService;
-import edu.platform.service.UserService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -21,7 +23,10 @@ import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
@@ -41,7 +46,8 @@ public class QuizController {
     private final QuizService quizService;
     private final QuizAttemptService quizAttemptService;
     private final CourseVisitService courseVisitService;
-    private final UserService userService;
+    private final QuizPayloadCache quizPayloadCache;
+    private final QuizStartAdmission quizStartAdmission;
     
     @PostMapping
     @PreAuthorize("hasRole('TEACHER') or hasRole('ADMIN')")
@@ -58,8 +64,8 @@ public class QuizController {
         
         log.info("Quiz creation request received from: {}", email);
         
-        User currentUser = userService.getCurrentUserEntity(email);
-        QuizResponse quiz = quizService.createQuiz(request, currentUser.getId());
+        Long currentUserId = CurrentUser.id();
+        QuizResponse quiz = quizService.createQuiz(request, currentUserId);
         
         return ResponseEntity.status(HttpStatus.CREATED).body(quiz);
     }
@@ -78,20 +84,36 @@ public class QuizController {
     }
     
     @GetMapping("/{id}")
-    @Operation(summary = "Get quiz by ID", description = "Get quiz details by ID")
+    @Operation(summary = "Get quiz by ID",
+               description = "Get quiz details by ID. Served from a cache of rendered payloads with an ETag; " +
+                       "send If-None-Match to get 304 when the quiz has not changed")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Quiz found",
                 content = @Content(schema = @Schema(implementation = QuizResponse.class))),
+        @ApiResponse(responseCode = "304", description = "Quiz not modified"),
         @ApiResponse(responseCode = "404", description = "Quiz not found")
     })
-    public ResponseEntity<QuizResponse> getQuizById(
+    public ResponseEntity<byte[]> getQuizById(
             @Parameter(description = "Quiz ID") @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
             HttpServletRequest request) {
         log.debug("Getting quiz by ID: {}", id);
         
-        QuizResponse quiz = quizService.getQuizById(id);
-        recordQuizView(quiz, request);
-        return ResponseEntity.ok(quiz);
+        QuizPayload payload = quizPayloadCache.get(id, () -> quizService.getQuizById(id));
+        recordQuizView(id, payload.courseId(), request);
+        
+        CacheControl cacheControl = CacheControl.noCache().cachePrivate();
+        if (payload.matches(ifNoneMatch)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(payload.eTag())
+                    .cacheControl(cacheControl)
+                    .build();
+        }
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .eTag(payload.eTag())
+                .cacheControl(cacheControl)
+                .body(payload.json());
     }
     
     @PutMapping("/{id}")
@@ -112,8 +134,8 @@ public class QuizController {
         
         log.info("Quiz update request received for ID: {} from: {}", id, email);
         
-        User currentUser = userService.getCurrentUserEntity(email);
-        QuizResponse quiz = quizService.updateQuiz(id, request, currentUser.getId());
+        Long currentUserId = CurrentUser.id();
+        QuizResponse quiz = quizService.updateQuiz(id, request, currentUserId);
         
         return ResponseEntity.ok(quiz);
     }
@@ -133,8 +155,8 @@ public class QuizController {
         
         log.info("Quiz deletion request received for ID: {} from: {}", id, email);
         
-        User currentUser = userService.getCurrentUserEntity(email);
-        quizService.deleteQuiz(id, currentUser.getId());
+        Long currentUserId = CurrentUser.id();
+        quizService.deleteQuiz(id, currentUserId);
         
         return ResponseEntity.noContent().build();
     }
@@ -151,8 +173,8 @@ public class QuizController {
         
         log.debug("Getting quizzes for teacher: {}", email);
         
-        User currentUser = userService.getCurrentUserEntity(email);
-        List<QuizResponse> quizzes = quizService.getQuizzesByTeacher(currentUser.getId());
+        Long currentUserId = CurrentUser.id();
+        List<QuizResponse> quizzes = quizService.getQuizzesByTeacher(currentUserId);
         
         return ResponseEntity.ok(quizzes);
     }
@@ -167,7 +189,8 @@ public class QuizController {
                 content = @Content(schema = @Schema(implementation = QuizAttemptResponse.class))),
         @ApiResponse(responseCode = "400", description = "Cannot start quiz attempt"),
         @ApiResponse(responseCode = "403", description = "Insufficient permissions"),
-        @ApiResponse(responseCode = "404", description = "Quiz not found")
+        @ApiResponse(responseCode = "404", description = "Quiz not found"),
+        @ApiResponse(responseCode = "503", description = "Too many concurrent starts for this quiz, retry after Retry-After")
     })
     public ResponseEntity<QuizAttemptResponse> startQuizAttempt(
             @Parameter(description = "Quiz ID") @PathVariable Long id) {
@@ -176,8 +199,9 @@ public class QuizController {
         
         log.info("Quiz attempt start request for quiz ID: {} from: {}", id, email);
         
-        User currentUser = userService.getCurrentUserEntity(email);
-        QuizAttemptResponse attempt = quizAttemptService.startQuizAttempt(id, currentUser.getId());
+        Long currentUserId = CurrentUser.id();
+        QuizAttemptResponse attempt = quizStartAdmission.admit(id,
+                () -> quizAttemptService.startQuizAttempt(id, currentUserId));
         
         return ResponseEntity.status(HttpStatus.CREATED).body(attempt);
     }
@@ -198,8 +222,8 @@ public class QuizController {
         
         log.info("Quiz submission request for quiz ID: {} from: {}", request.getQuizId(), email);
         
-        User currentUser = userService.getCurrentUserEntity(email);
-        QuizAttemptResponse attempt = quizAttemptService.submitQuizAttempt(request, currentUser.getId());
+        Long currentUserId = CurrentUser.id();
+        QuizAttemptResponse attempt = quizAttemptService.submitQuizAttempt(request, currentUserId);
         
         return ResponseEntity.ok(attempt);
     }
@@ -216,8 +240,8 @@ public class QuizController {
         
         log.debug("Getting quiz attempts for student: {}", email);
         
-        User currentUser = userService.getCurrentUserEntity(email);
-        List<QuizAttemptResponse> attempts = quizAttemptService.getStudentAttempts(currentUser.getId());
+        Long currentUserId = CurrentUser.id();
+        List<QuizAttemptResponse> attempts = quizAttemptService.getStudentAttempts(currentUserId);
         
         return ResponseEntity.ok(attempts);
     }
@@ -253,23 +277,18 @@ public class QuizController {
         return ResponseEntity.ok(attempt);
     }
 
-    private void recordQuizView(QuizResponse quiz, HttpServletRequest request) {
-        if (quiz == null || quiz.getCourse() == null) {
-            return;
-        }
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        if (authentication == null || !authentication.isAuthenticated()) {
+    private void recordQuizView(Long quizId, Long courseId, HttpServletRequest request) {
+        if (courseId == null) {
             return;
         }
-        Object principal = authentication.getPrincipal();
-        if (principal == null || "anonymousUser".equals(principal)) {
+        Long userId = CurrentUser.idOrNull();
+        if (userId == null) {
             return;
         }
         try {
-            Long userId = userService.getCurrentUserEntity(authentication.getName()).getId();
-            courseVisitService.recordQuizView(userId, quiz.getCourse().getId(), quiz.getId(), request);
+            courseVisitService.recordQuizView(userId, courseId, quizId, request);
         } catch (Exception ex) {
-            log.debug("Failed to record quiz view {}", quiz.getId(), ex);
+            log.debug("Failed to record quiz view {}", quizId, ex);
         }
     }
 }
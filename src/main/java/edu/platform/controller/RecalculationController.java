@@ -0,0 +1,90 @@
+package edu.platform.controller;
+
+import edu.platform.dto.request.RecalculationRequest;
+import edu.platform.dto.response.RecalculationJobResponse;
+import edu.platform.service.ResultRecalculationService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/admin")
+@RequiredArgsConstructor
+@Slf4j
+@Tag(name = "Result Recalculation", description = "Bulk recalculation of quiz results after answer key changes")
+@SecurityRequirement(name = "bearerAuth")
+@PreAuthorize("hasRole('ADMIN')")
+public class RecalculationController {
+
+    private final ResultRecalculationService recalculationService;
+
+    @PostMapping("/quizzes/{quizId}/recalculations")
+    @Operation(summary = "Start recalculation",
+               description = "Regrade all completed attempts of a quiz, or only those answering the given questions")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "202", description = "Recalculation started",
+                content = @Content(schema = @Schema(implementation = RecalculationJobResponse.class))),
+        @ApiResponse(responseCode = "400", description = "A recalculation is already running for this quiz"),
+        @ApiResponse(responseCode = "404", description = "Quiz not found")
+    })
+    public ResponseEntity<RecalculationJobResponse> startRecalculation(
+            @Parameter(description = "Quiz ID") @PathVariable Long quizId,
+            @RequestBody(required = false) RecalculationRequest request) {
+
+        log.info("Recalculation requested for quiz: {}", quizId);
+
+        RecalculationJobResponse response = recalculationService.startRecalculation(quizId, request);
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(response);
+    }
+
+    @GetMapping("/quizzes/{quizId}/recalculations")
+    @Operation(summary = "Get recalculations of quiz", description = "Get recalculation jobs of a quiz, newest first")
+    public ResponseEntity<List<RecalculationJobResponse>> getRecalculationsForQuiz(
+            @Parameter(description = "Quiz ID") @PathVariable Long quizId) {
+
+        return ResponseEntity.ok(recalculationService.getJobsForQuiz(quizId));
+    }
+
+    @GetMapping("/recalculations/{jobId}")
+    @Operation(summary = "Get recalculation", description = "Get progress and throughput of a recalculation job")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Job found"),
+        @ApiResponse(responseCode = "404", description = "Job not found")
+    })
+    public ResponseEntity<RecalculationJobResponse> getRecalculation(
+            @Parameter(description = "Job ID") @PathVariable Long jobId) {
+
+        return ResponseEntity.ok(recalculationService.getJob(jobId));
+    }
+
+    @PostMapping("/recalculations/{jobId}/resume")
+    @Operation(summary = "Resume recalculation", description = "Restart a failed or cancelled job from its checkpoint")
+    public ResponseEntity<RecalculationJobResponse> resumeRecalculation(
+            @Parameter(description = "Job ID") @PathVariable Long jobId) {
+
+        log.info("Resume requested for recalculation job: {}", jobId);
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(recalculationService.resumeRecalculation(jobId));
+    }
+
+    @PostMapping("/recalculations/{jobId}/cancel")
+    @Operation(summary = "Cancel recalculation", description = "Stop a job after the chunks in progress")
+    public ResponseEntity<RecalculationJobResponse> cancelRecalculation(
+            @Parameter(description = "Job ID") @PathVariable Long jobId) {
+
+        log.info("Cancel requested for recalculation job: {}", jobId);
+        return ResponseEntity.ok(recalculationService.cancelRecalculation(jobId));
+    }
+}
@@ -1,10 +1,13 @@
 package edu.platform.controller;
 
+import edu.platform.calculation.CalculationJob;
+import edu.platform.calculation.ResultCalculationQueue;
 import edu.platform.dto.request.TestResultCalculationRequest;
+import edu.platform.dto.response.CalculationJobResponse;
 import edu.platform.dto.response.TestResultResponse;
 import edu.platform.entity.enums.TestResultStatus;
+import edu.platform.security.CurrentUser;
 import edu.platform.service.TestResultService;
-import edu.platform.service.UserService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -18,12 +21,15 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.net.URI;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
@@ -37,7 +43,7 @@ import java.util.Map;
 public class TestResultController {
     
     private final TestResultService testResultService;
-    private final UserService userService;
+    private final ResultCalculationQueue resultCalculationQueue;
     
     @PostMapping("/calculate")
     @PreAuthorize("hasRole('TEACHER') or hasRole('ADMIN')")
@@ -58,6 +64,55 @@ public class TestResultController {
         return ResponseEntity.status(HttpStatus.CREATED).body(response);
     }
     
+    @PostMapping("/calculate/async")
+    @PreAuthorize("hasRole('TEACHER') or hasRole('ADMIN')")
+    @Operation(summary = "Calculate test result asynchronously",
+               description = "Queue a calculation and return its job; poll the job or subscribe to its events for the result")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "202", description = "Calculation queued",
+                content = @Content(schema = @Schema(implementation = CalculationJobResponse.class))),
+        @ApiResponse(responseCode = "400", description = "Invalid request"),
+        @ApiResponse(responseCode = "503", description = "Calculation queue is full")
+    })
+    public ResponseEntity<CalculationJobResponse> calculateResultAsync(
+            @Valid @RequestBody TestResultCalculationRequest request) {
+        
+        log.info("Async calculate test result request for attempt: {}", request.getQuizAttemptId());
+        
+        CalculationJob job = resultCalculationQueue.submit(request);
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/test-results/jobs/" + job.getId()))
+                .body(job.toResponse());
+    }
+    
+    @GetMapping("/jobs/{jobId}")
+    @PreAuthorize("hasRole('TEACHER') or hasRole('ADMIN')")
+    @Operation(summary = "Get calculation job", description = "Get the status of an asynchronous calculation and its result once completed")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Job found",
+                content = @Content(schema = @Schema(implementation = CalculationJobResponse.class))),
+        @ApiResponse(responseCode = "404", description = "Job not found or expired")
+    })
+    public ResponseEntity<CalculationJobResponse> getCalculationJob(
+            @Parameter(description = "Job ID") @PathVariable String jobId) {
+        
+        return ResponseEntity.ok(resultCalculationQueue.getJob(jobId).toResponse());
+    }
+    
+    @GetMapping(value = "/jobs/{jobId}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @PreAuthorize("hasRole('TEACHER') or hasRole('ADMIN')")
+    @Operation(summary = "Subscribe to calculation job",
+               description = "Server-sent event stream that emits one 'completed' or 'failed' event when the job finishes")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Event stream opened"),
+        @ApiResponse(responseCode = "404", description = "Job not found or expired")
+    })
+    public SseEmitter subscribeToCalculationJob(
+            @Parameter(description = "Job ID") @PathVariable String jobId) {
+        
+        return resultCalculationQueue.subscribe(jobId);
+    }
+    
     @GetMapping("/{id}")
     @Operation(summary = "Get test result by ID", description = "Get test result details by ID")
     @ApiResponses(value = {
@@ -98,7 +153,7 @@ public class TestResultController {
     public ResponseEntity<List<TestResultResponse>> getMyResults() {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         String email = authentication.getName();
-        Long studentId = userService.getCurrentUserEntity(email).getId();
+        Long studentId = CurrentUser.id();
         
         log.debug("Get test results for student: {}", email);
         
@@ -1,6 +1,13 @@
 package edu.platform.controller;
 
+import edu.platform.dto.request.PasswordChangeRequest;
+import edu.platform.dto.request.RoleChangeRequest;
+import edu.platform.dto.response.AuthResponse;
+import edu.platform.dto.response.UserImportResponse;
 import edu.platform.dto.response.UserResponse;
+import edu.platform.security.CurrentUser;
+import edu.platform.security.TokenRevocationList;
+import edu.platform.service.UserImportService;
 import edu.platform.service.UserService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -9,13 +16,19 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+
 @RestController
 @RequestMapping("/api/users")
 @RequiredArgsConstructor
@@ -25,6 +38,8 @@ import org.springframework.web.bind.annotation.*;
 public class UserController {
     
     private final UserService userService;
+    private final TokenRevocationList tokenRevocationList;
+    private final UserImportService userImportService;
     
     @GetMapping("/me")
     @Operation(summary = "Get current user info", description = "Get information about the currently authenticated user")
@@ -43,6 +58,25 @@ public class UserController {
         return ResponseEntity.ok(user);
     }
     
+    @PutMapping("/me/password")
+    @Operation(summary = "Change password", description = "Change the password of the currently authenticated user")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Password changed, earlier tokens revoked",
+                content = @Content(schema = @Schema(implementation = AuthResponse.class))),
+        @ApiResponse(responseCode = "400", description = "Invalid input data"),
+        @ApiResponse(responseCode = "401", description = "Current password is incorrect"),
+        @ApiResponse(responseCode = "429", description = "Too many attempts")
+    })
+    public ResponseEntity<AuthResponse> changePassword(@Valid @RequestBody PasswordChangeRequest request,
+                                                       HttpServletRequest httpRequest) {
+        Long userId = CurrentUser.id();
+        log.info("Password change requested by user ID: {}", userId);
+        
+        AuthResponse response = userService.changePassword(userId, httpRequest.getRemoteAddr(),
+                request.getCurrentPassword(), request.getNewPassword());
+        return ResponseEntity.ok(response);
+    }
+    
     @GetMapping("/{id}")
     @Operation(summary = "Get user by ID", description = "Get user information by ID")
     @ApiResponses(value = {
@@ -57,4 +91,58 @@ public class UserController {
         UserResponse user = userService.findById(id);
         return ResponseEntity.ok(user);
     }
+    
+    @PutMapping("/{id}/role")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Change user role",
+               description = "Change the role of a user; the user's tokens are revoked (ADMIN only)")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Role changed",
+                content = @Content(schema = @Schema(implementation = UserResponse.class))),
+        @ApiResponse(responseCode = "403", description = "Insufficient permissions"),
+        @ApiResponse(responseCode = "404", description = "User not found")
+    })
+    public ResponseEntity<UserResponse> changeRole(@PathVariable Long id,
+                                                   @Valid @RequestBody RoleChangeRequest request) {
+        log.info("Role change to {} requested for user ID: {}", request.getRole(), id);
+        
+        UserResponse user = userService.changeRole(id, request.getRole());
+        return ResponseEntity.ok(user);
+    }
+    
+    @PostMapping(path = "/import", consumes = {"text/csv", "application/x-ndjson"})
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Import users",
+               description = "Register users from a streamed CSV (header: email,password,full_name,role) " +
+                       "or NDJSON upload; rows that fail are reported with their line numbers (ADMIN only)")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Import finished, see the report for failed rows",
+                content = @Content(schema = @Schema(implementation = UserImportResponse.class))),
+        @ApiResponse(responseCode = "400", description = "Unsupported format or invalid CSV header"),
+        @ApiResponse(responseCode = "403", description = "Insufficient permissions")
+    })
+    public ResponseEntity<UserImportResponse> importUsers(HttpServletRequest request) throws IOException {
+        log.info("User import requested ({})", request.getContentType());
+        
+        UserImportResponse report = userImportService.importUsers(request.getInputStream(),
+                MediaType.parseMediaType(request.getContentType()));
+        return ResponseEntity.ok(report);
+    }
+    
+    @PostMapping("/{id}/revoke-tokens")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Revoke user tokens",
+               description = "Reject all tokens issued to the user so far, e.g. after a role change (ADMIN only)")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "204", description = "Tokens revoked"),
+        @ApiResponse(responseCode = "403", description = "Insufficient permissions"),
+        @ApiResponse(responseCode = "404", description = "User not found")
+    })
+    public ResponseEntity<Void> revokeTokens(@PathVariable Long id) {
+        log.info("Token revocation requested for user ID: {}", id);
+        
+        userService.findById(id);
+        tokenRevocationList.revokeTokens(id);
+        return ResponseEntity.noContent().build();
+    }
 }
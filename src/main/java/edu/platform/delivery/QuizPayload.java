@@ -0,0 +1,28 @@
+package edu.platform.delivery;
+
+/**
+ * Rendered JSON of a quiz as served by GET /api/quizzes/{id}.
+ *
+ * @param json     UTF-8 JSON bytes of the QuizResponse
+ * @param eTag     strong entity tag derived from the bytes, quoted
+ * @param courseId course of the quiz, for view tracking and course-wide invalidation
+ * @param loadedAt System.nanoTime() when the payload was rendered
+ */
+public record QuizPayload(byte[] json, String eTag, Long courseId, long loadedAt) {
+    
+    /**
+     * @return whether an If-None-Match header value matches this payload
+     */
+    public boolean matches(String ifNoneMatch) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String tag : ifNoneMatch.split(",")) {
+            String candidate = tag.trim();
+            if (candidate.equals("*") || candidate.equals(eTag) || candidate.equals("W/" + eTag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,150 @@
+package edu.platform.delivery;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import edu.platform.dto.response.QuizResponse;
+import edu.platform.util.ClusterNotifications;
+import edu.platform.util.TransactionCallbacks;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Cache of quiz delivery payloads by quiz id.
+ * Each entry holds the quiz already serialized to JSON, so a hit costs no query, mapping
+ * or serialization. Concurrent misses for the same quiz share one load. QuizService and
+ * CourseService invalidate entries on every node through {@link ClusterNotifications} after
+ * their transactions commit; ttl-seconds bounds staleness of the embedded teacher details,
+ * which have no invalidation hook.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class QuizPayloadCache {
+
+    private static final String CHANNEL = "quiz_payload_invalidation";
+    private static final String QUIZ_PREFIX = "quiz:";
+    private static final String COURSE_PREFIX = "course:";
+
+    private final ObjectMapper objectMapper;
+    private final ClusterNotifications notifications;
+
+    private final Map<Long, CompletableFuture<QuizPayload>> payloads = new ConcurrentHashMap<>();
+
+    @Value("${quiz.payload-cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${quiz.payload-cache.ttl-seconds:600}")
+    private long ttlSeconds;
+
+    @PostConstruct
+    void subscribe() {
+        if (enabled) {
+            notifications.subscribe(CHANNEL, this::handle, payloads::clear);
+        }
+    }
+
+    /**
+     * Return the cached payload of a quiz, rendering it with the loader on a miss.
+     * Exceptions of the loader (e.g. quiz not found) are rethrown to every waiting caller.
+     */
+    public QuizPayload get(Long quizId, Supplier<QuizResponse> loader) {
+        if (!enabled) {
+            return render(loader.get());
+        }
+        CompletableFuture<QuizPayload> payload = payloads.get(quizId);
+        if (payload != null && payload.isDone() && !payload.isCompletedExceptionally() && isExpired(payload.join())) {
+            payloads.remove(quizId, payload);
+            payload = null;
+        }
+        if (payload == null) {
+            CompletableFuture<QuizPayload> loading = new CompletableFuture<>();
+            payload = payloads.putIfAbsent(quizId, loading);
+            if (payload == null) {
+                payload = loading;
+                load(quizId, loader, loading);
+            }
+        }
+        try {
+            return payload.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Drop the payload of a quiz on all nodes once the current transaction commits.
+     */
+    public void invalidate(Long quizId) {
+        if (enabled) {
+            notifications.publish(CHANNEL, QUIZ_PREFIX + quizId);
+        }
+        TransactionCallbacks.afterCommit(() -> payloads.remove(quizId));
+    }
+
+    /**
+     * Drop the payloads of all quizzes of a course on all nodes once the current transaction commits.
+     */
+    public void invalidateCourse(Long courseId) {
+        if (enabled) {
+            notifications.publish(CHANNEL, COURSE_PREFIX + courseId);
+        }
+        TransactionCallbacks.afterCommit(() -> removeCourse(courseId));
+    }
+
+    private void removeCourse(Long courseId) {
+        payloads.values().removeIf(payload ->
+                payload.isDone() && !payload.isCompletedExceptionally()
+                        && courseId.equals(payload.join().courseId()));
+    }
+
+    private void handle(String payload) {
+        if (payload.startsWith(QUIZ_PREFIX)) {
+            payloads.remove(Long.valueOf(payload.substring(QUIZ_PREFIX.length())));
+        } else if (payload.startsWith(COURSE_PREFIX)) {
+            removeCourse(Long.valueOf(payload.substring(COURSE_PREFIX.length())));
+        } else {
+            log.warn("Ignoring malformed quiz payload invalidation: {}", payload);
+        }
+    }
+
+    private void load(Long quizId, Supplier<QuizResponse> loader, CompletableFuture<QuizPayload> loading) {
+        try {
+            QuizPayload payload = render(loader.get());
+            loading.complete(payload);
+            log.debug("Rendered payload of quiz {}: {} bytes", quizId, payload.json().length);
+        } catch (RuntimeException e) {
+            // Failed loads are not cached; the next request tries again
+            payloads.remove(quizId, loading);
+            loading.completeExceptionally(e);
+        }
+    }
+
+    private QuizPayload render(QuizResponse quiz) {
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(quiz);
+            String eTag = "\"" + DigestUtils.md5DigestAsHex(json) + "\"";
+            Long courseId = quiz.getCourse() != null ? quiz.getCourse().getId() : null;
+            return new QuizPayload(json, eTag, courseId, System.nanoTime());
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize quiz " + quiz.getId(), e);
+        }
+    }
+
+    private boolean isExpired(QuizPayload payload) {
+        return System.nanoTime() - payload.loadedAt() > TimeUnit.SECONDS.toNanos(ttlSeconds);
+    }
+}
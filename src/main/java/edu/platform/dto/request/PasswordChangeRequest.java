@@ -0,0 +1,20 @@
+package edu.platform.dto.request;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+@Data
+@Schema(description = "Password change request")
+public class PasswordChangeRequest {
+    
+    @NotBlank(message = "Current password is required")
+    @Schema(description = "Current password", example = "password123")
+    private String currentPassword;
+    
+    @NotBlank(message = "New password is required")
+    @Size(min = 6, max = 100, message = "Password must be between 6 and 100 characters")
+    @Schema(description = "New password", example = "newPassword456")
+    private String newPassword;
+}
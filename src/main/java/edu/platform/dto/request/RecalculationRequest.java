@@ -0,0 +1,21 @@
+package edu.platform.dto.request;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Bulk test result recalculation request")
+public class RecalculationRequest {
+    
+    @Schema(description = "Only recalculate attempts that answered one of these questions; all attempts when empty",
+            example = "[12, 15]")
+    private List<Long> questionIds;
+}
@@ -0,0 +1,15 @@
+package edu.platform.dto.request;
+
+import edu.platform.entity.enums.UserRole;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+@Data
+@Schema(description = "Role change request")
+public class RoleChangeRequest {
+    
+    @NotNull(message = "Role is required")
+    @Schema(description = "New role of the user", example = "TEACHER")
+    private UserRole role;
+}
@@ -0,0 +1,42 @@
+package edu.platform.dto.response;
+
+import edu.platform.calculation.CalculationJobStatus;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Asynchronous test result calculation job")
+public class CalculationJobResponse {
+    
+    @Schema(description = "Job ID", example = "3f2b8c1e-7d4a-4f0e-9a61-2c5d8e9b0a17")
+    private String jobId;
+    
+    @Schema(description = "Quiz attempt ID", example = "1")
+    private Long quizAttemptId;
+    
+    @Schema(description = "Job status", example = "COMPLETED")
+    private CalculationJobStatus status;
+    
+    @Schema(description = "When the job was submitted")
+    private LocalDateTime submittedAt;
+    
+    @Schema(description = "When a worker started the calculation")
+    private LocalDateTime startedAt;
+    
+    @Schema(description = "When the job completed or failed")
+    private LocalDateTime completedAt;
+    
+    @Schema(description = "Calculated result, once the job has completed")
+    private TestResultResponse result;
+    
+    @Schema(description = "Failure reason, if the job failed")
+    private String errorMessage;
+}
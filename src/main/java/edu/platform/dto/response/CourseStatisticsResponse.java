@@ -25,6 +25,9 @@ public class CourseStatisticsResponse {
     @Schema(description = "Unique visitors for the period", example = "320")
     private Long uniqueVisitors;
 
+    @Schema(description = "Relative standard error of the unique visitor estimate", example = "0.01625")
+    private Double uniqueVisitorsStandardError;
+
     @Schema(description = "Total time spent in seconds", example = "45000")
     private Long totalDurationSeconds;
 
@@ -0,0 +1,58 @@
+package edu.platform.dto.response;
+
+import edu.platform.entity.enums.RecalculationJobStatus;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.Set;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Bulk test result recalculation job")
+public class RecalculationJobResponse {
+    
+    @Schema(description = "Job ID", example = "1")
+    private Long id;
+    
+    @Schema(description = "Quiz ID", example = "3")
+    private Long quizId;
+    
+    @Schema(description = "Questions the recalculation is restricted to; empty for all attempts")
+    private Set<Long> questionIds;
+    
+    @Schema(description = "Job status", example = "RUNNING")
+    private RecalculationJobStatus status;
+    
+    @Schema(description = "Attempts to recalculate, counted when the job was created", example = "5000")
+    private Integer totalAttempts;
+    
+    @Schema(description = "Attempts recalculated so far", example = "1200")
+    private Integer processedAttempts;
+    
+    @Schema(description = "Progress in percent", example = "24.0")
+    private Double progressPercent;
+    
+    @Schema(description = "Recalculated attempts per second of processing time", example = "850.5")
+    private Double attemptsPerSecond;
+    
+    @Schema(description = "Last attempt ID processed; a resumed job continues after it", example = "48211")
+    private Long lastAttemptId;
+    
+    @Schema(description = "Failure reason, if the job failed")
+    private String errorMessage;
+    
+    @Schema(description = "When processing first started")
+    private LocalDateTime startedAt;
+    
+    @Schema(description = "When the job completed, failed or was cancelled")
+    private LocalDateTime finishedAt;
+    
+    @Schema(description = "Creation timestamp")
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,46 @@
+package edu.platform.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Bulk user import report")
+public class UserImportResponse {
+    
+    @Schema(description = "Data rows read from the upload", example = "25000")
+    private int totalRows;
+    
+    @Schema(description = "Users created", example = "24980")
+    private int imported;
+    
+    @Schema(description = "Rows that were not imported", example = "20")
+    private int failed;
+    
+    @Schema(description = "Why each failed row was not imported")
+    private List<RowError> errors;
+    
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Schema(description = "Import error of a single row")
+    public static class RowError {
+        
+        @Schema(description = "Line number in the upload", example = "42")
+        private long line;
+        
+        @Schema(description = "Email of the row, if it could be read", example = "student@example.com")
+        private String email;
+        
+        @Schema(description = "Error message", example = "User with email student@example.com already exists")
+        private String message;
+    }
+}
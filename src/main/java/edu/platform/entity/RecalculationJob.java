@@ -0,0 +1,83 @@
+package edu.platform.entity;
+
+import edu.platform.entity.enums.RecalculationJobStatus;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Bulk recalculation of the test results of one quiz.
+ * Attempts are processed in id order; {@code lastAttemptId} is the checkpoint.
+ */
+@Entity
+@Table(name = "result_recalculation_jobs")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RecalculationJob {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(name = "quiz_id", nullable = false)
+    private Long quizId;
+    
+    /** When not empty, only attempts that answered one of these questions are recalculated */
+    @ElementCollection(fetch = FetchType.EAGER)
+    @CollectionTable(name = "result_recalculation_job_questions", joinColumns = @JoinColumn(name = "job_id"))
+    @Column(name = "question_id")
+    @Builder.Default
+    private Set<Long> questionIds = new HashSet<>();
+    
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    @Builder.Default
+    private RecalculationJobStatus status = RecalculationJobStatus.PENDING;
+    
+    @Column(name = "last_attempt_id", nullable = false)
+    @Builder.Default
+    private Long lastAttemptId = 0L;
+    
+    @Column(name = "total_attempts", nullable = false)
+    @Builder.Default
+    private Integer totalAttempts = 0;
+    
+    @Column(name = "processed_attempts", nullable = false)
+    @Builder.Default
+    private Integer processedAttempts = 0;
+    
+    @Column(name = "processing_millis", nullable = false)
+    @Builder.Default
+    private Long processingMillis = 0L;
+    
+    @Column(name = "error_message", length = 500)
+    private String errorMessage;
+    
+    /** Instance whose coordinator runs the job */
+    @Column(length = 64)
+    private String owner;
+    
+    @Column(name = "started_at")
+    private LocalDateTime startedAt;
+    
+    @Column(name = "finished_at")
+    private LocalDateTime finishedAt;
+    
+    @CreationTimestamp
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+    
+    @UpdateTimestamp
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,9 @@
+package edu.platform.entity.enums;
+
+public enum RecalculationJobStatus {
+    PENDING,
+    RUNNING,
+    COMPLETED,
+    FAILED,
+    CANCELLED
+}
@@ -0,0 +1,23 @@
+package edu.platform.exception;
+
+/**
+ * Thrown when work is rejected because a bounded queue or pool is full.
+ * Mapped to 503 so clients back off and retry.
+ */
+public class ServiceOverloadedException extends RuntimeException {
+    
+    private final long retryAfterSeconds;
+    
+    public ServiceOverloadedException(String message) {
+        this(message, 1);
+    }
+    
+    public ServiceOverloadedException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+    
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -0,0 +1,19 @@
+package edu.platform.exception;
+
+/**
+ * Thrown when a client exceeds its attempt rate, e.g. for sign-in.
+ * Mapped to 429 with a Retry-After hint.
+ */
+public class TooManyAttemptsException extends RuntimeException {
+    
+    private final long retryAfterSeconds;
+    
+    public TooManyAttemptsException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+    
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -0,0 +1,186 @@
+package edu.platform.grading;
+
+import edu.platform.entity.AnswerOption;
+import edu.platform.entity.Question;
+import edu.platform.entity.enums.QuestionType;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable answer key of one quiz: for each question its type, points and correct options.
+ * Compiled once from the quiz's questions and shared by all graders.
+ */
+public final class AnswerKey {
+    
+    private final Long quizId;
+    private final Map<Long, QuestionKey> questions;
+    private final int maxPoints;
+    
+    private AnswerKey(Long quizId, Map<Long, QuestionKey> questions) {
+        this.quizId = quizId;
+        this.questions = Collections.unmodifiableMap(questions);
+        this.maxPoints = questions.values().stream().mapToInt(QuestionKey::getPoints).sum();
+    }
+    
+    /**
+     * Compile the key from questions loaded with their answer options, in question order.
+     * Options are numbered by their position within the question; correct options
+     * become a bitset over those ordinals.
+     */
+    public static AnswerKey compile(Long quizId, List<Question> questions) {
+        Map<Long, QuestionKey> keys = new LinkedHashMap<>();
+        for (Question question : questions) {
+            if (keys.containsKey(question.getId())) {
+                continue;
+            }
+            List<AnswerOption> options = question.getAnswerOptions();
+            long[] optionIds = new long[options.size()];
+            long[] correctMask = new long[words(options.size())];
+            for (int ordinal = 0; ordinal < optionIds.length; ordinal++) {
+                AnswerOption option = options.get(ordinal);
+                optionIds[ordinal] = option.getId();
+                if (Boolean.TRUE.equals(option.getIsCorrect())) {
+                    correctMask[ordinal >>> 6] |= 1L << ordinal;
+                }
+            }
+            keys.put(question.getId(), new QuestionKey(keys.size(), question.getId(),
+                    question.getQuestionType(), question.getPoints(), optionIds, correctMask));
+        }
+        return new AnswerKey(quizId, keys);
+    }
+    
+    public Long getQuizId() {
+        return quizId;
+    }
+    
+    public QuestionKey getQuestion(Long questionId) {
+        return questions.get(questionId);
+    }
+    
+    /**
+     * Questions in quiz order
+     */
+    public Collection<QuestionKey> getQuestions() {
+        return questions.values();
+    }
+    
+    public int getQuestionCount() {
+        return questions.size();
+    }
+    
+    public int getMaxPoints() {
+        return maxPoints;
+    }
+    
+    private static int words(int bits) {
+        return Math.max(1, (bits + 63) >>> 6);
+    }
+    
+    /**
+     * Key of a single question.
+     */
+    public static final class QuestionKey {
+        
+        private final int index;
+        private final Long questionId;
+        private final QuestionType type;
+        private final int points;
+        /** Option ids by ordinal */
+        private final long[] optionIds;
+        /** Bit i is set when the option with ordinal i is correct */
+        private final long[] correctMask;
+        
+        private QuestionKey(int index, Long questionId, QuestionType type, int points,
+                            long[] optionIds, long[] correctMask) {
+            this.index = index;
+            this.questionId = questionId;
+            this.type = type;
+            this.points = points;
+            this.optionIds = optionIds;
+            this.correctMask = correctMask;
+        }
+        
+        /**
+         * Position of the question within the quiz
+         */
+        public int getIndex() {
+            return index;
+        }
+        
+        public Long getQuestionId() {
+            return questionId;
+        }
+        
+        public QuestionType getType() {
+            return type;
+        }
+        
+        public int getPoints() {
+            return points;
+        }
+        
+        /**
+         * Whether the selected options answer this question correctly.
+         * Text questions are not auto-graded and always count as correct.
+         * A single choice question needs exactly one correct option; a multiple
+         * choice question needs exactly the set of correct options. An option that
+         * does not belong to the question makes the answer incorrect.
+         */
+        public boolean isCorrect(List<Long> selectedOptionIds) {
+            if (type == QuestionType.TEXT) {
+                return true;
+            }
+            if (selectedOptionIds == null || selectedOptionIds.isEmpty()) {
+                return false;
+            }
+            if (type == QuestionType.SINGLE_CHOICE) {
+                if (selectedOptionIds.size() != 1) {
+                    return false;
+                }
+                int ordinal = ordinalOf(selectedOptionIds.get(0));
+                return ordinal >= 0 && (correctMask[ordinal >>> 6] & (1L << ordinal)) != 0;
+            }
+            if (correctMask.length == 1) {
+                long selected = 0L;
+                for (int i = 0; i < selectedOptionIds.size(); i++) {
+                    int ordinal = ordinalOf(selectedOptionIds.get(i));
+                    if (ordinal < 0) {
+                        return false;
+                    }
+                    selected |= 1L << ordinal;
+                }
+                return selected == correctMask[0];
+            }
+            long[] selected = new long[correctMask.length];
+            for (int i = 0; i < selectedOptionIds.size(); i++) {
+                int ordinal = ordinalOf(selectedOptionIds.get(i));
+                if (ordinal < 0) {
+                    return false;
+                }
+                selected[ordinal >>> 6] |= 1L << ordinal;
+            }
+            return Arrays.equals(selected, correctMask);
+        }
+        
+        /**
+         * Questions have a handful of options, so a linear scan beats hashing boxed ids.
+         */
+        private int ordinalOf(Long optionId) {
+            if (optionId == null) {
+                return -1;
+            }
+            long id = optionId;
+            for (int ordinal = 0; ordinal < optionIds.length; ordinal++) {
+                if (optionIds[ordinal] == id) {
+                    return ordinal;
+                }
+            }
+            return -1;
+        }
+    }
+}
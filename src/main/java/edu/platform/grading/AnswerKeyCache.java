@@ -0,0 +1,67 @@
+package edu.platform.grading;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import edu.platform.repository.QuestionRepository;
+import edu.platform.util.ClusterNotifications;
+import edu.platform.util.TransactionCallbacks;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Cache of compiled answer keys by quiz id, bounded to maximum-size quizzes.
+ * A key is compiled from a single questions-with-options query on first use;
+ * QuizService invalidates it on every node through {@link ClusterNotifications}
+ * after a quiz update or deactivation commits.
+ * Compilation runs atomically per quiz, so an invalidation that arrives while a
+ * key is being compiled waits for it and then removes it.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class AnswerKeyCache {
+    
+    private final QuestionRepository questionRepository;
+    private final MeterRegistry meterRegistry;
+    private final ClusterNotifications notifications;
+    
+    @Value("${test-result.answer-key-cache.maximum-size:1000}")
+    private long maximumSize;
+    
+    private static final String CHANNEL = "answer_key_invalidation";
+    
+    private Cache<Long, AnswerKey> keys;
+    
+    @PostConstruct
+    void init() {
+        keys = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, keys, "answerKeys");
+        notifications.subscribe(CHANNEL, quizId -> keys.invalidate(Long.valueOf(quizId)), keys::invalidateAll);
+    }
+    
+    public AnswerKey get(Long quizId) {
+        return keys.get(quizId, this::compile);
+    }
+    
+    /**
+     * Drop the key of a quiz on all nodes once the current transaction commits.
+     */
+    public void invalidate(Long quizId) {
+        notifications.publish(CHANNEL, quizId.toString());
+        TransactionCallbacks.afterCommit(() -> keys.invalidate(quizId));
+    }
+    
+    private AnswerKey compile(Long quizId) {
+        AnswerKey key = AnswerKey.compile(quizId, questionRepository.findByQuizIdWithAnswerOptions(quizId));
+        log.debug("Compiled answer key for quiz {}: {} questions", quizId, key.getQuestionCount());
+        return key;
+    }
+}
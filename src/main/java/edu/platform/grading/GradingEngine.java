@@ -0,0 +1,59 @@
+package edu.platform.grading;
+
+import edu.platform.grading.AnswerKey.QuestionKey;
+import edu.platform.grading.GradingResult.GradedAnswer;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Grades answers against a compiled {@link AnswerKey}.
+ * Answers are indexed by question position in a single pass, so grading is
+ * linear in the number of questions and answers. When a question is answered
+ * more than once, the first answer counts; answers to unknown questions are ignored.
+ */
+@Component
+public class GradingEngine {
+    
+    /**
+     * @param questionId        extracts the question id of an answer
+     * @param selectedOptionIds extracts the selected option ids of an answer
+     */
+    public <A> GradingResult<A> grade(AnswerKey key, List<A> answers,
+                                      Function<A, Long> questionId,
+                                      Function<A, List<Long>> selectedOptionIds) {
+        QuestionKey[] questions = new QuestionKey[key.getQuestionCount()];
+        Object[] byQuestion = new Object[questions.length];
+        int answered = 0;
+        for (int i = 0; i < answers.size(); i++) {
+            A answer = answers.get(i);
+            QuestionKey question = key.getQuestion(questionId.apply(answer));
+            if (question != null && byQuestion[question.getIndex()] == null) {
+                questions[question.getIndex()] = question;
+                byQuestion[question.getIndex()] = answer;
+                answered++;
+            }
+        }
+        
+        List<GradedAnswer<A>> graded = new ArrayList<>(answered);
+        int earnedPoints = 0;
+        int correctAnswers = 0;
+        for (int index = 0; index < byQuestion.length; index++) {
+            if (byQuestion[index] == null) {
+                continue;
+            }
+            @SuppressWarnings("unchecked")
+            A answer = (A) byQuestion[index];
+            QuestionKey question = questions[index];
+            boolean correct = question.isCorrect(selectedOptionIds.apply(answer));
+            if (correct) {
+                earnedPoints += question.getPoints();
+                correctAnswers++;
+            }
+            graded.add(new GradedAnswer<>(question, answer, correct));
+        }
+        return new GradingResult<>(graded, earnedPoints, key.getMaxPoints(), correctAnswers, key.getQuestionCount());
+    }
+}
@@ -0,0 +1,88 @@
+package edu.platform.grading;
+
+import edu.platform.grading.AnswerKey.QuestionKey;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.List;
+
+/**
+ * Outcome of grading one submission against an answer key.
+ * Points are accumulated as integers and converted to {@link BigDecimal} on access.
+ *
+ * @param <A> type of the graded answers
+ */
+public final class GradingResult<A> {
+    
+    private final List<GradedAnswer<A>> answers;
+    private final int earnedPoints;
+    private final int maxPoints;
+    private final int correctAnswers;
+    private final int totalQuestions;
+    
+    GradingResult(List<GradedAnswer<A>> answers, int earnedPoints, int maxPoints,
+                  int correctAnswers, int totalQuestions) {
+        this.answers = answers;
+        this.earnedPoints = earnedPoints;
+        this.maxPoints = maxPoints;
+        this.correctAnswers = correctAnswers;
+        this.totalQuestions = totalQuestions;
+    }
+    
+    /**
+     * Answers that matched a question of the key, in question order
+     */
+    public List<GradedAnswer<A>> getAnswers() {
+        return answers;
+    }
+    
+    public int getEarnedPoints() {
+        return earnedPoints;
+    }
+    
+    public int getMaxPoints() {
+        return maxPoints;
+    }
+    
+    public BigDecimal getScore() {
+        return BigDecimal.valueOf(earnedPoints);
+    }
+    
+    public BigDecimal getMaxScore() {
+        return BigDecimal.valueOf(maxPoints);
+    }
+    
+    /**
+     * Score as a percentage of the maximum, with two decimals
+     */
+    public BigDecimal getPercentage() {
+        return percentage(earnedPoints, maxPoints);
+    }
+    
+    public static BigDecimal percentage(int earnedPoints, int maxPoints) {
+        if (maxPoints <= 0) {
+            return BigDecimal.ZERO;
+        }
+        return BigDecimal.valueOf(earnedPoints)
+                .multiply(BigDecimal.valueOf(100))
+                .divide(BigDecimal.valueOf(maxPoints), 2, RoundingMode.HALF_UP);
+    }
+    
+    public int getCorrectAnswers() {
+        return correctAnswers;
+    }
+    
+    public int getTotalQuestions() {
+        return totalQuestions;
+    }
+    
+    /**
+     * A submitted answer with the question it answers and its grade.
+     */
+    public record GradedAnswer<A>(QuestionKey question, A answer, boolean correct) {
+        
+        public int pointsEarned() {
+            return correct ? question.getPoints() : 0;
+        }
+    }
+}
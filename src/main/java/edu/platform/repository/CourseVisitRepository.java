@@ -2,6 +2,7 @@ package edu.platform.repository;
 
 import edu.platform.entity.CourseVisit;
 import edu.platform.entity.enums.VisitType;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
@@ -107,14 +108,28 @@ public interface CourseVisitRepository extends JpaRepository<CourseVisit, Long>
                                                   @Param("endDate") LocalDateTime endDate);
     
     /**
-     * Get most active users for course
+     * Get most active users for course; the page size limits the rows returned
      */
     @Query("SELECT cv.user.id, COUNT(cv) as visitCount " +
            "FROM CourseVisit cv " +
            "WHERE cv.course.id = :courseId " +
            "GROUP BY cv.user.id " +
            "ORDER BY visitCount DESC")
-    List<Object[]> getMostActiveUsersByCourseId(@Param("courseId") Long courseId);
+    List<Object[]> getMostActiveUsersByCourseId(@Param("courseId") Long courseId, Pageable pageable);
+    
+    /**
+     * Get most active users for course in date range; the page size limits the rows returned
+     */
+    @Query("SELECT cv.user.id, COUNT(cv) as visitCount " +
+           "FROM CourseVisit cv " +
+           "WHERE cv.course.id = :courseId " +
+           "AND cv.visitedAt BETWEEN :startDate AND :endDate " +
+           "GROUP BY cv.user.id " +
+           "ORDER BY visitCount DESC")
+    List<Object[]> getMostActiveUsersByCourseIdAndDateRange(@Param("courseId") Long courseId,
+                                                            @Param("startDate") LocalDateTime startDate,
+                                                            @Param("endDate") LocalDateTime endDate,
+                                                            Pageable pageable);
     
     /**
      * Get visit trend (daily counts) for course
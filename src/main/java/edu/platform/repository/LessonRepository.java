@@ -19,6 +19,9 @@ public interface LessonRepository extends JpaRepository<Lesson, Long> {
     @Query("SELECT l FROM Lesson l WHERE l.course.id = :courseId ORDER BY l.orderIndex ASC")
     List<Lesson> findByCourseId(@Param("courseId") Long courseId);
     
+    @Query("SELECT l.course.id FROM Lesson l WHERE l.id = :id")
+    Optional<Long> findCourseIdById(@Param("id") Long id);
+    
     @Query("SELECT l FROM Lesson l JOIN FETCH l.course WHERE l.id = :id")
     Optional<Lesson> findByIdWithCourse(@Param("id") Long id);
     
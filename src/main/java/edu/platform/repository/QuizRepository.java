@@ -16,6 +16,9 @@ public interface QuizRepository extends JpaRepository<Quiz, Long> {
     
     List<Quiz> findByCourseIdAndIsActiveTrue(Long courseId);
     
+    @Query("SELECT q.course.id FROM Quiz q WHERE q.id = :id")
+    Optional<Long> findCourseIdById(@Param("id") Long id);
+    
     @Query("SELECT q FROM Quiz q JOIN FETCH q.course WHERE q.id = :id")
     Optional<Quiz> findByIdWithCourse(@Param("id") Long id);
     
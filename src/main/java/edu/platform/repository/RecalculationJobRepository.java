@@ -0,0 +1,103 @@
+package edu.platform.repository;
+
+import edu.platform.entity.RecalculationJob;
+import edu.platform.entity.enums.RecalculationJobStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface RecalculationJobRepository extends JpaRepository<RecalculationJob, Long> {
+    
+    List<RecalculationJob> findByQuizIdOrderByCreatedAtDesc(Long quizId);
+    
+    List<RecalculationJob> findByStatusIn(Collection<RecalculationJobStatus> statuses);
+    
+    boolean existsByQuizIdAndStatusIn(Long quizId, Collection<RecalculationJobStatus> statuses);
+    
+    @Query("SELECT j.status FROM RecalculationJob j WHERE j.id = :id")
+    RecalculationJobStatus findStatusById(@Param("id") Long id);
+    
+    /**
+     * Move a job between states; no-op when it is no longer in the expected state,
+     * e.g. because it was cancelled meanwhile.
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE RecalculationJob j SET j.status = :status, j.errorMessage = :errorMessage, " +
+           "j.startedAt = COALESCE(j.startedAt, :now), " +
+           "j.finishedAt = :finishedAt, " +
+           "j.updatedAt = :now " +
+           "WHERE j.id = :id AND j.status IN :expected")
+    int transition(@Param("id") Long id,
+                   @Param("expected") Collection<RecalculationJobStatus> expected,
+                   @Param("status") RecalculationJobStatus status,
+                   @Param("errorMessage") String errorMessage,
+                   @Param("finishedAt") LocalDateTime finishedAt,
+                   @Param("now") LocalDateTime now);
+    
+    /**
+     * Start a pending job on the given instance; no-op when another instance claimed it first.
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE RecalculationJob j SET j.status = edu.platform.entity.enums.RecalculationJobStatus.RUNNING, " +
+           "j.owner = :owner, " +
+           "j.startedAt = COALESCE(j.startedAt, :now), " +
+           "j.updatedAt = :now " +
+           "WHERE j.id = :id AND j.status = edu.platform.entity.enums.RecalculationJobStatus.PENDING")
+    int claim(@Param("id") Long id,
+              @Param("owner") String owner,
+              @Param("now") LocalDateTime now);
+    
+    /**
+     * Mark running jobs of an instance as alive.
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE RecalculationJob j SET j.updatedAt = :now " +
+           "WHERE j.id IN :ids AND j.owner = :owner " +
+           "AND j.status = edu.platform.entity.enums.RecalculationJobStatus.RUNNING")
+    int heartbeat(@Param("ids") Collection<Long> ids,
+                  @Param("owner") String owner,
+                  @Param("now") LocalDateTime now);
+    
+    /**
+     * Put an active job whose owner stopped sending heartbeats back to pending.
+     *
+     * @return 1 if the job was released to the caller, 0 if it is alive or already taken
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE RecalculationJob j SET j.status = edu.platform.entity.enums.RecalculationJobStatus.PENDING, " +
+           "j.owner = NULL, " +
+           "j.updatedAt = :now " +
+           "WHERE j.id = :id AND j.status IN :active AND j.updatedAt < :staleBefore")
+    int releaseStale(@Param("id") Long id,
+                     @Param("active") Collection<RecalculationJobStatus> active,
+                     @Param("staleBefore") LocalDateTime staleBefore,
+                     @Param("now") LocalDateTime now);
+    
+    /**
+     * Record a finished wave; no-op when the job was taken over by another instance.
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE RecalculationJob j SET j.lastAttemptId = :lastAttemptId, " +
+           "j.processedAttempts = j.processedAttempts + :processed, " +
+           "j.processingMillis = j.processingMillis + :millis, " +
+           "j.updatedAt = CURRENT_TIMESTAMP " +
+           "WHERE j.id = :id AND j.owner = :owner")
+    int checkpoint(@Param("id") Long id,
+                   @Param("owner") String owner,
+                   @Param("lastAttemptId") Long lastAttemptId,
+                   @Param("processed") int processed,
+                   @Param("millis") long millis);
+}
@@ -22,6 +22,11 @@ public interface StudentAnswerRepository extends JpaRepository<StudentAnswer, Lo
            "ORDER BY q.orderIndex ASC")
     List<StudentAnswer> findByAttemptIdWithQuestions(@Param("attemptId") Long attemptId);
     
+    @Query("SELECT DISTINCT sa FROM StudentAnswer sa " +
+           "LEFT JOIN FETCH sa.selectedOptionIds " +
+           "WHERE sa.attempt.id = :attemptId")
+    List<StudentAnswer> findByAttemptIdWithSelectedOptions(@Param("attemptId") Long attemptId);
+    
     @Query("SELECT COUNT(sa) FROM StudentAnswer sa WHERE sa.attempt.id = :attemptId AND sa.isCorrect = true")
     Long countCorrectAnswersByAttemptId(@Param("attemptId") Long attemptId);
 }
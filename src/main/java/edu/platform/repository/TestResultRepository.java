@@ -64,10 +64,5 @@ public interface TestResultRepository extends JpaRepository<TestResult, Long> {
     List<TestResult> findCompletedBetween(@Param("startDate") LocalDateTime startDate, 
                                            @Param("endDate") LocalDateTime endDate);
     
-    @Query("SELECT tr FROM TestResult tr " +
-           "WHERE tr.status = 'IN_PROGRESS' " +
-           "AND tr.createdAt < :timeout")
-    List<TestResult> findTimedOutAttempts(@Param("timeout") LocalDateTime timeout);
-    
     boolean existsByQuizAttemptId(Long quizAttemptId);
 }
\ No newline at end of file
@@ -0,0 +1,278 @@
+package edu.platform.scheduler;
+
+import edu.platform.calculation.ExpiredAttemptFinalizer;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Submits timed attempts automatically when their time limit elapses.
+ * Deadlines of open attempts live in a {@link TimingWheel}: attempts are added when they
+ * start and removed when they are submitted, and the wheel is rebuilt from the database
+ * at startup. A single ticker thread advances the wheel and finalizes expired attempts
+ * in batches; a batch that fails is retried after retry-delay-ms. Attempts that turn out not
+ * to be due, because their quiz's time limit was raised, go back into the wheel at their
+ * current deadline, and changing a quiz's time limit reschedules its open attempts.
+ * Attempts that expired while the application was down are finalized before the rebuild
+ * with chunked bulk updates, so an outage does not turn into one large transaction. The same
+ * sweep runs every sweep-interval-ms, for attempts whose deadline lived only in the wheel of
+ * an instance that stopped.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class AttemptExpiryScheduler {
+
+    private static final String OPEN_TIMED_ATTEMPTS_SQL = "SELECT qa.id, qa.started_at, q.time_limit_minutes " +
+            "FROM quiz_attempts qa JOIN quizzes q ON q.id = qa.quiz_id " +
+            "WHERE qa.is_completed = FALSE AND q.time_limit_minutes IS NOT NULL";
+
+    private static final String OPEN_ATTEMPTS_OF_QUIZ_SQL = "SELECT qa.id, qa.started_at, q.time_limit_minutes " +
+            "FROM quiz_attempts qa JOIN quizzes q ON q.id = qa.quiz_id " +
+            "WHERE qa.quiz_id = ? AND qa.is_completed = FALSE";
+
+    private static final String OPEN_ATTEMPTS_SQL = "SELECT qa.id, qa.started_at, q.time_limit_minutes " +
+            "FROM quiz_attempts qa JOIN quizzes q ON q.id = qa.quiz_id " +
+            "WHERE qa.id = ANY (?) AND qa.is_completed = FALSE";
+
+    private final ExpiredAttemptFinalizer finalizer;
+    private final JdbcTemplate jdbcTemplate;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${test-result.auto-submit.enabled:true}")
+    private boolean enabled;
+
+    @Value("${test-result.auto-submit.tick-ms:1000}")
+    private long tickMs;
+
+    @Value("${test-result.auto-submit.wheel-size:64}")
+    private int wheelSize;
+
+    @Value("${test-result.auto-submit.levels:4}")
+    private int levels;
+
+    @Value("${test-result.auto-submit.max-batch-size:200}")
+    private int maxBatchSize;
+
+    @Value("${test-result.auto-submit.retry-delay-ms:5000}")
+    private long retryDelayMs;
+
+    @Value("${test-result.auto-submit.catch-up-chunk-size:1000}")
+    private int catchUpChunkSize;
+
+    private TimingWheel wheel;
+    private Thread ticker;
+    private volatile boolean running;
+
+    private Counter finalized;
+
+    @PostConstruct
+    void init() {
+        if (!enabled) {
+            log.info("Automatic submission of expired attempts is disabled");
+            return;
+        }
+        wheel = new TimingWheel(tickMs, wheelSize, levels, System.currentTimeMillis());
+        finalized = Counter.builder("quiz.attempt.auto.submitted")
+                .description("Timed attempts finalized when their time limit elapsed")
+                .register(meterRegistry);
+        Gauge.builder("quiz.attempt.auto.pending", this, scheduler -> scheduler.pendingCount())
+                .description("Open timed attempts waiting for their deadline")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Finalize attempts that are already overdue, load the deadlines of the remaining
+     * open timed attempts, then start ticking.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            finalizeOverdueAttempts();
+        } catch (Exception e) {
+            log.error("Error finalizing overdue attempts, leaving them to the timing wheel", e);
+        }
+
+        int[] loaded = {0};
+        jdbcTemplate.query(OPEN_TIMED_ATTEMPTS_SQL, rs -> {
+            LocalDateTime startedAt = rs.getTimestamp(2).toLocalDateTime();
+            schedule(rs.getLong(1), startedAt.plusMinutes(rs.getInt(3)));
+            loaded[0]++;
+        });
+
+        running = true;
+        ticker = new Thread(this::runTickLoop, "attempt-expiry-ticker");
+        ticker.setDaemon(true);
+        ticker.start();
+
+        log.info("Attempt expiry scheduler started with {} open timed attempts: tick={}ms, wheel={}x{}",
+                loaded[0], tickMs, levels, wheelSize);
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        if (ticker == null) {
+            return;
+        }
+        running = false;
+        ticker.interrupt();
+        ticker.join(TimeUnit.SECONDS.toMillis(30));
+    }
+
+    /**
+     * Finalize the attempt once the deadline passes, unless it is cancelled first.
+     */
+    public void schedule(Long attemptId, LocalDateTime deadline) {
+        if (!enabled) {
+            return;
+        }
+        long deadlineMillis = deadline.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        synchronized (wheel) {
+            wheel.schedule(attemptId, deadlineMillis);
+        }
+    }
+
+    /**
+     * Forget an attempt that was submitted before its deadline.
+     */
+    public void cancel(Long attemptId) {
+        if (!enabled) {
+            return;
+        }
+        synchronized (wheel) {
+            wheel.cancel(attemptId);
+        }
+    }
+
+    /**
+     * Reload the deadlines of a quiz's open attempts after its time limit changed.
+     * Attempts of a quiz that no longer has a time limit are forgotten.
+     */
+    public void rescheduleQuiz(Long quizId) {
+        if (!enabled) {
+            return;
+        }
+        jdbcTemplate.query(OPEN_ATTEMPTS_OF_QUIZ_SQL, this::reschedule, quizId);
+    }
+
+    private void reschedule(ResultSet rs) throws SQLException {
+        Long attemptId = rs.getLong(1);
+        int timeLimitMinutes = rs.getInt(3);
+        if (rs.wasNull()) {
+            cancel(attemptId);
+        } else {
+            schedule(attemptId, rs.getTimestamp(2).toLocalDateTime().plusMinutes(timeLimitMinutes));
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${test-result.auto-submit.sweep-interval-ms:300000}",
+               initialDelayString = "${test-result.auto-submit.sweep-interval-ms:300000}")
+    public void sweepOverdueAttempts() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            finalizeOverdueAttempts();
+        } catch (Exception e) {
+            log.warn("Error sweeping overdue attempts: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Finalize overdue attempts chunk by chunk, each chunk in its own short transaction.
+     */
+    private void finalizeOverdueAttempts() {
+        LocalDateTime now = LocalDateTime.now();
+        long start = System.currentTimeMillis();
+        int total = 0;
+        int chunks = 0;
+        while (true) {
+            long chunkStart = System.currentTimeMillis();
+            int count = finalizer.finalizeOverdue(now, catchUpChunkSize).size();
+            if (count == 0) {
+                break;
+            }
+            total += count;
+            chunks++;
+            finalized.increment(count);
+            log.info("Finalized overdue attempts chunk {}: {} attempts in {}ms",
+                    chunks, count, System.currentTimeMillis() - chunkStart);
+            if (count < catchUpChunkSize) {
+                break;
+            }
+        }
+        if (total > 0) {
+            log.info("Finalized {} overdue attempts in {} chunks in {}ms",
+                    total, chunks, System.currentTimeMillis() - start);
+        }
+    }
+
+    private int pendingCount() {
+        synchronized (wheel) {
+            return wheel.size();
+        }
+    }
+
+    private void runTickLoop() {
+        while (running) {
+            try {
+                Thread.sleep(tickMs);
+            } catch (InterruptedException e) {
+                // Woken up for shutdown
+                continue;
+            }
+            List<Long> expired;
+            synchronized (wheel) {
+                expired = wheel.advance(System.currentTimeMillis());
+            }
+            for (int from = 0; from < expired.size(); from += maxBatchSize) {
+                finalizeBatch(expired.subList(from, Math.min(from + maxBatchSize, expired.size())));
+            }
+        }
+    }
+
+    private void finalizeBatch(List<Long> attemptIds) {
+        try {
+            List<Long> done = finalizer.finalizeAttempts(attemptIds);
+            finalized.increment(done.size());
+            if (!done.isEmpty()) {
+                log.info("Automatically submitted {} expired attempts", done.size());
+            }
+            if (done.size() < attemptIds.size()) {
+                Object[] notDue = attemptIds.stream().filter(id -> !done.contains(id)).toArray();
+                jdbcTemplate.query(OPEN_ATTEMPTS_SQL,
+                        ps -> ps.setArray(1, ps.getConnection().createArrayOf("bigint", notDue)),
+                        this::reschedule);
+            }
+        } catch (Exception e) {
+            log.warn("Could not finalize {} expired attempts, retrying in {}ms: {}",
+                    attemptIds.size(), retryDelayMs, e.getMessage());
+            long retryAt = System.currentTimeMillis() + retryDelayMs;
+            synchronized (wheel) {
+                for (Long attemptId : attemptIds) {
+                    wheel.schedule(attemptId, retryAt);
+                }
+            }
+        }
+    }
+}
@@ -1,8 +1,11 @@
 package edu.platform.scheduler;
 
 import edu.platform.service.CourseStatisticsAggregationService;
+import edu.platform.service.IncrementalStatisticsAggregationService;
+import edu.platform.tracking.CourseVisitPartitionManager;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
@@ -19,9 +22,36 @@ import java.util.concurrent.CompletableFuture;
 public class StatisticsAggregationScheduler {
     
     private final CourseStatisticsAggregationService aggregationService;
+    private final CourseVisitPartitionManager partitionManager;
+    private final IncrementalStatisticsAggregationService incrementalAggregationService;
+    
+    @Value("${statistics.incremental.enabled:true}")
+    private boolean incrementalEnabled;
+    
+    /**
+     * Fold newly recorded visits into hourly and daily statistics every few minutes.
+     * Configurable via: statistics.incremental.fold-interval-ms
+     */
+    @Scheduled(fixedDelayString = "${statistics.incremental.fold-interval-ms:120000}",
+               initialDelayString = "${statistics.incremental.fold-interval-ms:120000}")
+    public void foldNewVisits() {
+        if (!incrementalEnabled) {
+            return;
+        }
+        
+        try {
+            long folded = incrementalAggregationService.foldNewVisits();
+            if (folded > 0) {
+                log.debug("Incremental statistics aggregation advanced watermark by {}", folded);
+            }
+        } catch (Exception e) {
+            log.error("Error during incremental statistics aggregation", e);
+        }
+    }
     
     /**
      * Aggregate daily statistics every day at 2:00 AM.
+     * Recomputes yesterday from raw visits, reconciling the incrementally derived rows.
      * Configurable via: statistics.aggregation.daily-cron
      */
     @Scheduled(cron = "${statistics.aggregation.daily-cron:0 0 2 * * *}")
@@ -44,7 +74,7 @@ public class StatisticsAggregationScheduler {
     }
     
     /**
-     * Aggregate weekly statistics every Monday at 3:00 AM.
+     * Roll daily statistics of last week up into weekly rows every Monday at 3:00 AM.
      * Configurable via: statistics.aggregation.weekly-cron
      */
     @Scheduled(cron = "${statistics.aggregation.weekly-cron:0 0 3 * * MON}")
@@ -56,9 +86,8 @@ public class StatisticsAggregationScheduler {
             // Get Monday of last week
             weekStart = weekStart.minusDays(weekStart.getDayOfWeek().getValue() - 1);
             
-            // Note: This would need to be implemented to iterate over all courses
-            // For now, logging the intent
-            log.info("Weekly aggregation would process week starting: {}", weekStart);
+            int count = aggregationService.rollUpWeeklyStatistics(weekStart);
+            log.info("Weekly statistics roll-up completed for week starting {}: {} courses", weekStart, count);
             
         } catch (Exception e) {
             log.error("Error during weekly statistics aggregation", e);
@@ -66,7 +95,7 @@ public class StatisticsAggregationScheduler {
     }
     
     /**
-     * Aggregate monthly statistics on the 1st of each month at 4:00 AM.
+     * Roll daily statistics of last month up into monthly rows on the 1st of each month at 4:00 AM.
      * Configurable via: statistics.aggregation.monthly-cron
      */
     @Scheduled(cron = "${statistics.aggregation.monthly-cron:0 0 4 1 * *}")
@@ -76,9 +105,8 @@ public class StatisticsAggregationScheduler {
         try {
             LocalDate monthStart = LocalDate.now().minusMonths(1).withDayOfMonth(1);
             
-            // Note: This would need to be implemented to iterate over all courses
-            // For now, logging the intent
-            log.info("Monthly aggregation would process month starting: {}", monthStart);
+            int count = aggregationService.rollUpMonthlyStatistics(monthStart);
+            log.info("Monthly statistics roll-up completed for month starting {}: {} courses", monthStart, count);
             
         } catch (Exception e) {
             log.error("Error during monthly statistics aggregation", e);
@@ -86,8 +114,9 @@ public class StatisticsAggregationScheduler {
     }
     
     /**
-     * Clean up old visit records every week on Sunday at 1:00 AM.
-     * Keeps only last 90 days of raw visit data.
+     * Maintain course_visits partitions every week on Sunday at 1:00 AM.
+     * Creates upcoming monthly partitions and drops those past
+     * visit-tracking.partitions.retention-days (90 days by default).
      * Configurable via: statistics.aggregation.cleanup-cron
      */
     @Scheduled(cron = "${statistics.aggregation.cleanup-cron:0 0 1 * * SUN}")
@@ -95,9 +124,11 @@ public class StatisticsAggregationScheduler {
         log.info("Starting cleanup of old visit records");
         
         try {
-            // Cleanup logic would go here
-            // For now, just logging
-            log.info("Old visit cleanup would execute here");
+            partitionManager.ensureFuturePartitions();
+            int dropped = partitionManager.dropExpiredPartitions();
+            int purged = incrementalAggregationService.purgeExpired();
+            log.info("Old visit cleanup completed: {} partitions dropped, {} hourly/visitor rows purged",
+                    dropped, purged);
             
         } catch (Exception e) {
             log.error("Error during visit cleanup", e);
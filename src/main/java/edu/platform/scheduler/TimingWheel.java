@@ -0,0 +1,140 @@
+package edu.platform.scheduler;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Hierarchical timing wheel of ids with deadlines.
+ * Level 0 has one slot per tick; each level above covers wheel-size slots of the level below,
+ * and its entries are cascaded down when the wheel reaches their slot. Scheduling and
+ * cancelling are O(1); a tick costs the entries that fire or cascade on it.
+ * Cancelled or rescheduled entries are dropped lazily when their slot is reached.
+ * Not thread-safe.
+ */
+public final class TimingWheel {
+
+    private final long tickMillis;
+    private final int wheelSize;
+    private final long[] levelSpans;
+    private final List<List<Entry>> slots;
+    private final Map<Long, Long> deadlines = new HashMap<>();
+    private List<Entry> overdue = new ArrayList<>();
+    private long currentTick;
+
+    public TimingWheel(long tickMillis, int wheelSize, int levels, long startMillis) {
+        this.tickMillis = tickMillis;
+        this.wheelSize = wheelSize;
+        this.levelSpans = new long[levels];
+        this.slots = new ArrayList<>(levels * wheelSize);
+        long span = 1;
+        for (int level = 0; level < levels; level++) {
+            levelSpans[level] = span;
+            span *= wheelSize;
+            for (int slot = 0; slot < wheelSize; slot++) {
+                slots.add(new ArrayList<>());
+            }
+        }
+        this.currentTick = startMillis / tickMillis;
+    }
+
+    /**
+     * Schedule an id, replacing its previous deadline. A deadline in the past fires on the next advance.
+     */
+    public void schedule(long id, long deadlineMillis) {
+        long deadlineTick = (deadlineMillis + tickMillis - 1) / tickMillis;
+        deadlines.put(id, deadlineTick);
+        place(new Entry(id, deadlineTick));
+    }
+
+    public void cancel(long id) {
+        deadlines.remove(id);
+    }
+
+    public int size() {
+        return deadlines.size();
+    }
+
+    /**
+     * Move the wheel to the given time.
+     *
+     * @return ids whose deadline has passed
+     */
+    public List<Long> advance(long nowMillis) {
+        List<Long> expired = new ArrayList<>();
+        fireOverdue(expired);
+
+        long nowTick = nowMillis / tickMillis;
+        while (currentTick < nowTick) {
+            currentTick++;
+            for (int level = levelSpans.length - 1; level > 0; level--) {
+                if (currentTick % levelSpans[level] == 0) {
+                    for (Entry entry : takeSlot(level, currentTick)) {
+                        if (isLive(entry)) {
+                            place(entry);
+                        }
+                    }
+                }
+            }
+            fire(takeSlot(0, currentTick), expired);
+            // Entries cascaded down exactly on their deadline tick
+            fireOverdue(expired);
+        }
+        return expired;
+    }
+
+    private void fireOverdue(List<Long> expired) {
+        if (overdue.isEmpty()) {
+            return;
+        }
+        List<Entry> late = overdue;
+        overdue = new ArrayList<>();
+        fire(late, expired);
+    }
+
+    private void place(Entry entry) {
+        long delta = entry.deadlineTick() - currentTick;
+        if (delta <= 0) {
+            overdue.add(entry);
+            return;
+        }
+        int level = 0;
+        while (level < levelSpans.length - 1 && delta >= levelSpans[level] * wheelSize) {
+            level++;
+        }
+        slotOf(level, entry.deadlineTick()).add(entry);
+    }
+
+    private void fire(List<Entry> entries, List<Long> expired) {
+        for (Entry entry : entries) {
+            if (isLive(entry)) {
+                deadlines.remove(entry.id());
+                expired.add(entry.id());
+            }
+        }
+    }
+
+    private boolean isLive(Entry entry) {
+        Long deadlineTick = deadlines.get(entry.id());
+        return deadlineTick != null && deadlineTick == entry.deadlineTick();
+    }
+
+    private List<Entry> takeSlot(int level, long tick) {
+        int index = slotIndex(level, tick);
+        List<Entry> entries = slots.get(index);
+        slots.set(index, new ArrayList<>());
+        return entries;
+    }
+
+    private List<Entry> slotOf(int level, long tick) {
+        return slots.get(slotIndex(level, tick));
+    }
+
+    private int slotIndex(int level, long tick) {
+        return level * wheelSize + (int) ((tick / levelSpans[level]) % wheelSize);
+    }
+
+    private record Entry(long id, long deadlineTick) {
+    }
+}
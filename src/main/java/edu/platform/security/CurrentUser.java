@@ -0,0 +1,36 @@
+package edu.platform.security;
+
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+/**
+ * Access to the authenticated user of the current request without a user lookup.
+ */
+public final class CurrentUser {
+    
+    private CurrentUser() {
+    }
+    
+    /**
+     * @return id of the authenticated user
+     * @throws IllegalStateException if the request is not authenticated with a {@link UserPrincipal}
+     */
+    public static Long id() {
+        Long id = idOrNull();
+        if (id == null) {
+            throw new IllegalStateException("No authenticated user in the security context");
+        }
+        return id;
+    }
+    
+    /**
+     * @return id of the authenticated user, or null for anonymous requests
+     */
+    public static Long idOrNull() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof UserPrincipal principal) {
+            return principal.getId();
+        }
+        return null;
+    }
+}
@@ -1,12 +1,13 @@
 package edu.platform.security;
 
-import edu.platform.util.JwtUtil;
+import edu.platform.util.VerifiedToken;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -22,8 +23,16 @@ import java.io.IOException;
 @Slf4j
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
     
-    private final JwtUtil jwtUtil;
+    private final JwtTokenVerifier tokenVerifier;
     private final CustomUserDetailsService userDetailsService;
+    private final TokenRevocationList revocationList;
+    
+    /**
+     * When true, tokens with id and role claims authenticate without a user lookup;
+     * when false, the user is loaded on every request so changes apply immediately.
+     */
+    @Value("${spring.security.jwt.trust-token-claims:true}")
+    private boolean trustTokenClaims;
     
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, 
@@ -32,17 +41,21 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             String jwt = getJwtFromRequest(request);
             
             if (StringUtils.hasText(jwt)) {
-                String email = jwtUtil.extractEmail(jwt);
+                // Signature and expiry are checked here, once per token
+                VerifiedToken token = tokenVerifier.verify(jwt);
+                String email = token.subject();
                 
-                if (email != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-                    UserDetails userDetails = userDetailsService.loadUserByUsername(email);
+                if (revocationList.isRevoked(token)) {
+                    log.debug("Rejected revoked token of user {}", token.userId());
+                } else if (email != null && SecurityContextHolder.getContext().getAuthentication() == null) {
+                    UserDetails userDetails = trustTokenClaims && token.hasIdentityClaims()
+                            ? UserPrincipal.fromToken(token)
+                            : userDetailsService.loadUserByUsername(email);
                     
-                    if (jwtUtil.validateToken(jwt, email)) {
-                        UsernamePasswordAuthenticationToken authentication = 
-                            new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
-                        authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-                        SecurityContextHolder.getContext().setAuthentication(authentication);
-                    }
+                    UsernamePasswordAuthenticationToken authentication = 
+                        new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
+                    authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+                    SecurityContextHolder.getContext().setAuthentication(authentication);
                 }
             }
         } catch (Exception ex) {
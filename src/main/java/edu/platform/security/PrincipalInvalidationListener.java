@@ -0,0 +1,48 @@
+package edu.platform.security;
+
+import edu.platform.util.ClusterNotifications;
+import edu.platform.util.TransactionCallbacks;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+/**
+ * Propagates principal cache evictions to every node through {@link ClusterNotifications}.
+ * A notification is sent in the transaction that changes the user, so it is delivered
+ * only if that transaction commits; after a reconnect the whole cache is dropped.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class PrincipalInvalidationListener {
+
+    static final String CHANNEL = "user_principal_invalidation";
+
+    private final UserPrincipalCache principalCache;
+    private final ClusterNotifications notifications;
+
+    @PostConstruct
+    void subscribe() {
+        if (principalCache.isEnabled()) {
+            notifications.subscribe(CHANNEL, this::handle, principalCache::evictAll);
+        }
+    }
+
+    /**
+     * Evict a user on all nodes once the current transaction commits.
+     */
+    public void publish(Long userId, String email) {
+        notifications.publish(CHANNEL, userId + ":" + email);
+        TransactionCallbacks.afterCommit(() -> principalCache.evict(userId, email));
+    }
+
+    private void handle(String payload) {
+        int separator = payload.indexOf(':');
+        if (separator < 0) {
+            log.warn("Ignoring malformed principal invalidation: {}", payload);
+            return;
+        }
+        principalCache.evict(Long.valueOf(payload.substring(0, separator)), payload.substring(separator + 1));
+    }
+}
@@ -0,0 +1,112 @@
+package edu.platform.security;
+
+import edu.platform.util.TransactionCallbacks;
+import edu.platform.util.VerifiedToken;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-user token cut-offs, for tokens whose claims are trusted without a user lookup.
+ * Revocations are stored in user_token_revocations and mirrored in memory; every node
+ * reloads them every refresh-interval-ms on its own thread, so the bound on how long a revoked
+ * token keeps working elsewhere does not depend on other scheduled work. Token issue times have
+ * second precision, so tokens issued within the second of a revocation are revoked too.
+ * Revocations older than the token lifetime no longer matter and are purged.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class TokenRevocationList {
+
+    private static final String UPSERT_SQL = "INSERT INTO user_token_revocations (user_id, revoked_before) " +
+            "VALUES (?, ?) ON CONFLICT (user_id) DO UPDATE SET revoked_before = EXCLUDED.revoked_before";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${spring.security.jwt.expiration}")
+    private long expirationMs;
+
+    @Value("${spring.security.jwt.revocation-refresh-interval-ms:5000}")
+    private long refreshIntervalMs;
+
+    private ScheduledExecutorService refresher;
+
+    private volatile Map<Long, Instant> revokedBefore = Map.of();
+
+    /**
+     * @return whether the token was issued no later than its user's tokens were revoked
+     */
+    public boolean isRevoked(VerifiedToken token) {
+        if (token.userId() == null || token.issuedAt() == null) {
+            return false;
+        }
+        Instant cutOff = revokedBefore.get(token.userId());
+        return cutOff != null && !token.issuedAt().isAfter(cutOff);
+    }
+
+    /**
+     * Reject all tokens of a user issued so far. Takes effect on this node after commit
+     * and on other nodes at their next refresh.
+     *
+     * @return the cut-off; only tokens issued after it are accepted
+     */
+    @Transactional
+    public Instant revokeTokens(Long userId) {
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        jdbcTemplate.update(UPSERT_SQL, userId, Timestamp.valueOf(now));
+        TransactionCallbacks.afterCommit(this::refresh);
+        log.info("Revoked tokens of user {} issued up to {}", userId, now);
+        return now.atZone(ZoneId.systemDefault()).toInstant();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        refresh();
+        refresher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "token-revocation-refresh");
+            thread.setDaemon(true);
+            return thread;
+        });
+        refresher.scheduleWithFixedDelay(this::refresh, refreshIntervalMs, refreshIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void stop() {
+        if (refresher != null) {
+            refresher.shutdownNow();
+        }
+    }
+
+    public void refresh() {
+        Timestamp relevantAfter = Timestamp.valueOf(LocalDateTime.now().minus(expirationMs, ChronoUnit.MILLIS));
+        try {
+            jdbcTemplate.update("DELETE FROM user_token_revocations WHERE revoked_before < ?", relevantAfter);
+            Map<Long, Instant> loaded = new HashMap<>();
+            jdbcTemplate.query("SELECT user_id, revoked_before FROM user_token_revocations", rs -> {
+                loaded.put(rs.getLong(1),
+                        rs.getTimestamp(2).toLocalDateTime().atZone(ZoneId.systemDefault()).toInstant());
+            });
+            revokedBefore = Map.copyOf(loaded);
+        } catch (Exception e) {
+            log.warn("Could not refresh token revocations, keeping {} known: {}", revokedBefore.size(), e.getMessage());
+        }
+    }
+}
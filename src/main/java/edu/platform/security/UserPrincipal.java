@@ -1,6 +1,7 @@
 package edu.platform.security;
 
 import edu.platform.entity.User;
+import edu.platform.util.VerifiedToken;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import org.springframework.security.core.GrantedAuthority;
@@ -34,6 +35,23 @@ public class UserPrincipal implements UserDetails {
         );
     }
     
+    /**
+     * Principal built from verified token claims, without loading the user.
+     */
+    public static UserPrincipal fromToken(VerifiedToken token) {
+        Collection<GrantedAuthority> authorities = Collections.singletonList(
+            new SimpleGrantedAuthority("ROLE_" + token.role())
+        );
+        
+        return new UserPrincipal(
+            token.userId(),
+            token.subject(),
+            null,
+            null,
+            authorities
+        );
+    }
+    
     @Override
     public String getUsername() {
         return email;
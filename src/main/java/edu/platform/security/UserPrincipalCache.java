@@ -0,0 +1,88 @@
+package edu.platform.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.function.Function;
+
+/**
+ * Bounded local cache of user principals for per-request account checks,
+ * by email and by id. Entries expire after ttl-seconds and are evicted on
+ * role or password changes through {@link PrincipalInvalidationListener}.
+ * Hit rate and load latency are published as cache.* metrics.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class UserPrincipalCache {
+
+    private final MeterRegistry meterRegistry;
+
+    @Value("${spring.security.principal-cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${spring.security.principal-cache.maximum-size:10000}")
+    private long maximumSize;
+
+    @Value("${spring.security.principal-cache.ttl-seconds:60}")
+    private long ttlSeconds;
+
+    private Cache<String, UserPrincipal> byEmail;
+    private Cache<Long, UserPrincipal> byId;
+
+    @PostConstruct
+    void init() {
+        byEmail = build();
+        byId = build();
+        CaffeineCacheMetrics.monitor(meterRegistry, byEmail, "userPrincipalsByEmail");
+        CaffeineCacheMetrics.monitor(meterRegistry, byId, "userPrincipalsById");
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public UserPrincipal getByEmail(String email, Function<String, UserPrincipal> loader) {
+        if (!enabled) {
+            return loader.apply(email);
+        }
+        return byEmail.get(email, loader);
+    }
+
+    public UserPrincipal getById(Long id, Function<Long, UserPrincipal> loader) {
+        if (!enabled) {
+            return loader.apply(id);
+        }
+        return byId.get(id, loader);
+    }
+
+    /**
+     * Evict a user on this node only.
+     */
+    public void evict(Long userId, String email) {
+        byId.invalidate(userId);
+        byEmail.invalidate(email);
+        log.debug("Evicted principal of user {}", userId);
+    }
+
+    public void evictAll() {
+        byId.invalidateAll();
+        byEmail.invalidateAll();
+    }
+
+    private <K> Cache<K, UserPrincipal> build() {
+        return Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+    }
+}
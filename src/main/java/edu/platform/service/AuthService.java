@@ -1,5 +1,6 @@
 package edu.platform.service;
 
+import edu.platform.admission.LoginThrottle;
 import edu.platform.dto.request.LoginRequest;
 import edu.platform.dto.request.UserRegistrationRequest;
 import edu.platform.dto.response.AuthResponse;
@@ -7,13 +8,12 @@ import edu.platform.dto.response.UserResponse;
 import edu.platform.entity.User;
 import edu.platform.exception.InvalidCredentialsException;
 import edu.platform.mapper.UserMapper;
+import edu.platform.security.PasswordHasher;
 import edu.platform.util.JwtUtil;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Isolation;
-import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 @Service
@@ -23,32 +23,39 @@ public class AuthService {
     
     private final UserService userService;
     private final UserMapper userMapper;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHasher passwordHasher;
+    private final LoginThrottle loginThrottle;
     private final JwtUtil jwtUtil;
     
-    @Transactional(propagation = Propagation.REQUIRED, isolation = Isolation.READ_COMMITTED)
-    public AuthResponse register(UserRegistrationRequest request) {
+    /**
+     * Not transactional, so no connection is held while the password is hashed.
+     */
+    public AuthResponse register(UserRegistrationRequest request, String clientIp) {
         log.debug("Registering new user with email: {}", request.getEmail());
         
+        loginThrottle.check(clientIp, request.getEmail());
         UserResponse user = userService.registerUser(request);
-        String token = jwtUtil.generateToken(user.getEmail());
+        String token = jwtUtil.generateToken(user.getEmail(), user.getId(), user.getRole());
         
         log.info("User registered and authenticated successfully: {}", user.getEmail());
         return new AuthResponse(token, user);
     }
     
-    @Transactional(readOnly = true, isolation = Isolation.READ_COMMITTED)
-    public AuthResponse login(LoginRequest request) {
+    /**
+     * Not transactional, so no connection is held while the password is checked.
+     */
+    public AuthResponse login(LoginRequest request, String clientIp) {
         log.debug("Authenticating user with email: {}", request.getEmail());
         
+        loginThrottle.check(clientIp, request.getEmail());
         User user = userService.findUserEntityByEmail(request.getEmail());
         
-        if (!passwordEncoder.matches(request.getPassword(), user.getPassword())) {
+        if (!passwordHasher.matches(request.getPassword(), user.getPassword())) {
             log.warn("Invalid password for user: {}", request.getEmail());
             throw new InvalidCredentialsException("Invalid email or password");
         }
         
-        String token = jwtUtil.generateToken(user.getEmail());
+        String token = jwtUtil.generateToken(user.getEmail(), user.getId(), user.getRole());
         UserResponse userResponse = userMapper.toResponse(user);
         
         log.info("User authenticated successfully: {}", user.getEmail());
@@ -1,5 +1,6 @@
 package edu.platform.service;
 
+import edu.platform.delivery.QuizPayloadCache;
 import edu.platform.dto.request.CourseRequest;
 import edu.platform.dto.response.CourseResponse;
 import edu.platform.entity.Course;
@@ -8,6 +9,7 @@ import edu.platform.exception.ResourceNotFoundException;
 import edu.platform.mapper.CourseMapper;
 import edu.platform.repository.CourseRepository;
 import edu.platform.repository.UserRepository;
+import edu.platform.tracking.CourseMembershipIndex;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -25,6 +27,8 @@ public class CourseService {
     private final CourseRepository courseRepository;
     private final UserRepository userRepository;
     private final CourseMapper courseMapper;
+    private final CourseMembershipIndex membershipIndex;
+    private final QuizPayloadCache quizPayloadCache;
     
     @Transactional(propagation = Propagation.REQUIRED, isolation = Isolation.READ_COMMITTED)
     public CourseResponse createCourse(CourseRequest request, Long teacherId) {
@@ -37,6 +41,7 @@ public class CourseService {
         course.setTeacher(teacher);
         
         Course savedCourse = courseRepository.save(course);
+        membershipIndex.courseCreated(savedCourse.getId());
         log.info("Course created successfully with ID: {}", savedCourse.getId());
         
         return courseMapper.toResponse(savedCourse);
@@ -84,6 +89,7 @@ public class CourseService {
         course.setDescription(request.getDescription());
         
         Course savedCourse = courseRepository.save(course);
+        quizPayloadCache.invalidateCourse(id);
         log.info("Course updated successfully with ID: {}", savedCourse.getId());
         
         return courseMapper.toResponse(savedCourse);
@@ -102,6 +108,8 @@ public class CourseService {
         }
         
         courseRepository.delete(course);
+        membershipIndex.courseDeleted(id);
+        quizPayloadCache.invalidateCourse(id);
         log.info("Course deleted successfully with ID: {}", id);
     }
     
@@ -3,10 +3,12 @@ package edu.platform.service;
 import edu.platform.entity.Course;
 import edu.platform.repository.CourseRepository;
 import edu.platform.repository.CourseVisitRepository;
+import edu.platform.statistics.VisitorSketchStore;
 import io.github.resilience4j.bulkhead.annotation.Bulkhead;
 import io.github.resilience4j.retry.annotation.Retry;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Isolation;
@@ -29,9 +31,126 @@ import java.util.concurrent.CompletableFuture;
 @Slf4j
 public class CourseStatisticsAggregationService {
     
+    /**
+     * How the nightly job computes daily rows.
+     */
+    public enum AggregationMode {
+        /** One grouped INSERT ... SELECT over the day's visits for all courses */
+        SET_BASED,
+        /** Separate queries and upsert per course */
+        PER_COURSE
+    }
+    
+    private static final String UPSERT_DAILY_FOR_ALL_COURSES_SQL = "INSERT INTO course_statistics_aggregated " +
+            "(course_id, period_type, period_start, period_end, total_visits, " +
+            "unique_visitors, total_duration_seconds, avg_duration_seconds, duration_samples, " +
+            "lesson_views, quiz_attempts, quiz_views, quiz_completions, completion_rate, last_aggregated_at) " +
+            "SELECT cv.course_id, 'DAILY', ?, ?, " +
+            "COUNT(*), " +
+            "COUNT(DISTINCT cv.user_id), " +
+            "COALESCE(SUM(cv.duration_seconds), 0), " +
+            "COALESCE(FLOOR(AVG(cv.duration_seconds)), 0), " +
+            "COUNT(cv.duration_seconds), " +
+            "COUNT(*) FILTER (WHERE cv.visit_type = 'LESSON_VIEW'), " +
+            "COUNT(*) FILTER (WHERE cv.visit_type = 'QUIZ_START'), " +
+            "COUNT(*) FILTER (WHERE cv.visit_type = 'QUIZ_VIEW'), " +
+            "COUNT(*) FILTER (WHERE cv.visit_type = 'QUIZ_COMPLETE'), " +
+            "COUNT(DISTINCT cv.user_id) FILTER (WHERE cv.visit_type = 'QUIZ_COMPLETE')::DECIMAL " +
+            "/ COUNT(DISTINCT cv.user_id) * 100, " +
+            "NOW() " +
+            "FROM course_visits cv " +
+            "WHERE cv.visited_at >= ? AND cv.visited_at < ? " +
+            "GROUP BY cv.course_id " +
+            "ON CONFLICT (course_id, period_type, period_start) " +
+            "DO UPDATE SET " +
+            "total_visits = EXCLUDED.total_visits, " +
+            "unique_visitors = EXCLUDED.unique_visitors, " +
+            "total_duration_seconds = EXCLUDED.total_duration_seconds, " +
+            "avg_duration_seconds = EXCLUDED.avg_duration_seconds, " +
+            "duration_samples = EXCLUDED.duration_samples, " +
+            "lesson_views = EXCLUDED.lesson_views, " +
+            "quiz_attempts = EXCLUDED.quiz_attempts, " +
+            "quiz_views = EXCLUDED.quiz_views, " +
+            "quiz_completions = EXCLUDED.quiz_completions, " +
+            "completion_rate = EXCLUDED.completion_rate, " +
+            "last_aggregated_at = NOW(), " +
+            "updated_at = NOW()";
+    
+    private static final String UPSERT_DAILY_VISITORS_SQL = "INSERT INTO course_daily_visitors AS v " +
+            "(course_id, visit_date, user_id, completed_quiz) " +
+            "SELECT cv.course_id, ?, cv.user_id, BOOL_OR(cv.visit_type = 'QUIZ_COMPLETE') " +
+            "FROM course_visits cv " +
+            "WHERE cv.visited_at >= ? AND cv.visited_at < ? " +
+            "GROUP BY cv.course_id, cv.user_id " +
+            "ON CONFLICT (course_id, visit_date, user_id) " +
+            "DO UPDATE SET completed_quiz = v.completed_quiz OR EXCLUDED.completed_quiz";
+    
+    /**
+     * Rolls DAILY rows of a date range up into one row per course.
+     * Additive metrics are summed, the average duration is re-weighted by duration_samples,
+     * and unique visitors / completion rate come from the union of the daily visitor sets
+     * (falling back to the busiest day when those sets were already purged).
+     */
+    private static final String ROLL_UP_FROM_DAILY_SQL = "WITH daily AS (" +
+            "SELECT s.course_id, " +
+            "SUM(s.total_visits) AS total_visits, " +
+            "MAX(s.unique_visitors) AS max_daily_visitors, " +
+            "SUM(s.total_duration_seconds) AS total_duration_seconds, " +
+            "SUM(s.duration_samples) AS duration_samples, " +
+            "SUM(s.lesson_views) AS lesson_views, " +
+            "SUM(s.quiz_attempts) AS quiz_attempts, " +
+            "SUM(s.quiz_views) AS quiz_views, " +
+            "SUM(s.quiz_completions) AS quiz_completions, " +
+            "MAX(s.completion_rate) AS max_daily_completion " +
+            "FROM course_statistics_aggregated s " +
+            "WHERE s.period_type = 'DAILY' AND s.period_start BETWEEN ? AND ? " +
+            "GROUP BY s.course_id" +
+            "), visitors AS (" +
+            "SELECT v.course_id, " +
+            "COUNT(DISTINCT v.user_id) AS unique_visitors, " +
+            "COUNT(DISTINCT v.user_id) FILTER (WHERE v.completed_quiz) AS completed " +
+            "FROM course_daily_visitors v " +
+            "WHERE v.visit_date BETWEEN ? AND ? " +
+            "GROUP BY v.course_id" +
+            ") " +
+            "INSERT INTO course_statistics_aggregated " +
+            "(course_id, period_type, period_start, period_end, total_visits, " +
+            "unique_visitors, total_duration_seconds, avg_duration_seconds, duration_samples, " +
+            "lesson_views, quiz_attempts, quiz_views, quiz_completions, completion_rate, last_aggregated_at) " +
+            "SELECT d.course_id, ?, ?, ?, d.total_visits, " +
+            "COALESCE(vs.unique_visitors, d.max_daily_visitors), " +
+            "d.total_duration_seconds, " +
+            "CASE WHEN d.duration_samples = 0 THEN 0 " +
+            "ELSE d.total_duration_seconds / d.duration_samples END, " +
+            "d.duration_samples, d.lesson_views, d.quiz_attempts, d.quiz_views, d.quiz_completions, " +
+            "CASE WHEN vs.unique_visitors IS NULL THEN COALESCE(d.max_daily_completion, 0) " +
+            "ELSE vs.completed::DECIMAL / vs.unique_visitors * 100 END, " +
+            "NOW() " +
+            "FROM daily d " +
+            "LEFT JOIN visitors vs ON vs.course_id = d.course_id " +
+            "ON CONFLICT (course_id, period_type, period_start) " +
+            "DO UPDATE SET " +
+            "period_end = EXCLUDED.period_end, " +
+            "total_visits = EXCLUDED.total_visits, " +
+            "unique_visitors = EXCLUDED.unique_visitors, " +
+            "total_duration_seconds = EXCLUDED.total_duration_seconds, " +
+            "avg_duration_seconds = EXCLUDED.avg_duration_seconds, " +
+            "duration_samples = EXCLUDED.duration_samples, " +
+            "lesson_views = EXCLUDED.lesson_views, " +
+            "quiz_attempts = EXCLUDED.quiz_attempts, " +
+            "quiz_views = EXCLUDED.quiz_views, " +
+            "quiz_completions = EXCLUDED.quiz_completions, " +
+            "completion_rate = EXCLUDED.completion_rate, " +
+            "last_aggregated_at = NOW(), " +
+            "updated_at = NOW()";
+    
     private final CourseVisitRepository courseVisitRepository;
     private final CourseRepository courseRepository;
     private final JdbcTemplate jdbcTemplate;
+    private final VisitorSketchStore visitorSketchStore;
+    
+    @Value("${statistics.aggregation.mode:SET_BASED}")
+    private AggregationMode aggregationMode;
     
     /**
      * Aggregate statistics for all courses (daily).
@@ -42,35 +161,99 @@ public class CourseStatisticsAggregationService {
     @Retry(name = "statisticsAggregation")
     @Transactional(propagation = Propagation.REQUIRES_NEW, isolation = Isolation.READ_COMMITTED)
     public CompletableFuture<Integer> aggregateDailyStatistics() {
-        log.info("Starting daily statistics aggregation for all courses");
+        log.info("Starting daily statistics aggregation for all courses (mode={})", aggregationMode);
         long startTime = System.currentTimeMillis();
         
         LocalDate today = LocalDate.now();
         LocalDate yesterday = today.minusDays(1);
         
+        int aggregatedCount = aggregationMode == AggregationMode.PER_COURSE
+                ? aggregateDailyStatisticsPerCourse(yesterday)
+                : aggregateDailyStatisticsForAllCourses(yesterday);
+        
+        long duration = System.currentTimeMillis() - startTime;
+        log.info("Completed daily statistics aggregation: {} courses processed in {}ms", 
+                aggregatedCount, duration);
+        
+        return CompletableFuture.completedFuture(aggregatedCount);
+    }
+    
+    /**
+     * Aggregate one day for every course with a single grouped scan of that day's visits.
+     * Courses without visits on that day get no row.
+     *
+     * @return number of courses whose daily row was written
+     */
+    @Retry(name = "statisticsAggregation")
+    @Transactional(propagation = Propagation.REQUIRES_NEW, isolation = Isolation.READ_COMMITTED)
+    public int aggregateDailyStatisticsForAllCourses(LocalDate date) {
+        log.debug("Aggregating daily statistics for all courses on {}", date);
+        
+        LocalDateTime dayStart = date.atStartOfDay();
+        LocalDateTime nextDayStart = date.plusDays(1).atStartOfDay();
+        
+        // Keep the visitor sets complete even when incremental aggregation is disabled
+        jdbcTemplate.update(UPSERT_DAILY_VISITORS_SQL, date, dayStart, nextDayStart);
+        int courses = jdbcTemplate.update(UPSERT_DAILY_FOR_ALL_COURSES_SQL, date, date, dayStart, nextDayStart);
+        visitorSketchStore.rebuildDailySketches(date);
+        return courses;
+    }
+    
+    /**
+     * Roll the DAILY rows of a week (Monday to Sunday) up into WEEKLY rows for all courses.
+     *
+     * @return number of courses whose weekly row was written
+     */
+    @Retry(name = "statisticsAggregation")
+    @Transactional(propagation = Propagation.REQUIRES_NEW, isolation = Isolation.READ_COMMITTED)
+    public int rollUpWeeklyStatistics(LocalDate weekStart) {
+        LocalDate weekEnd = weekStart.plusDays(6);
+        log.debug("Rolling up weekly statistics for all courses: {} - {}", weekStart, weekEnd);
+        return rollUpFromDaily("WEEKLY", weekStart, weekEnd);
+    }
+    
+    /**
+     * Roll the DAILY rows of a calendar month up into MONTHLY rows for all courses.
+     *
+     * @return number of courses whose monthly row was written
+     */
+    @Retry(name = "statisticsAggregation")
+    @Transactional(propagation = Propagation.REQUIRES_NEW, isolation = Isolation.READ_COMMITTED)
+    public int rollUpMonthlyStatistics(LocalDate monthStart) {
+        LocalDate monthEnd = monthStart.plusMonths(1).minusDays(1);
+        log.debug("Rolling up monthly statistics for all courses: {} - {}", monthStart, monthEnd);
+        return rollUpFromDaily("MONTHLY", monthStart, monthEnd);
+    }
+    
+    private int rollUpFromDaily(String periodType, LocalDate start, LocalDate end) {
+        int courses = jdbcTemplate.update(ROLL_UP_FROM_DAILY_SQL,
+                start, end, start, end, periodType, start, end);
+        visitorSketchStore.rollUp(periodType, start, end);
+        return courses;
+    }
+    
+    /**
+     * Original per-course loop: five statements per course.
+     */
+    private int aggregateDailyStatisticsPerCourse(LocalDate date) {
         List<Course> courses = courseRepository.findAll();
         int aggregatedCount = 0;
         
         for (Course course : courses) {
             try {
-                aggregateDailyStatisticsForCourse(course.getId(), yesterday);
+                aggregateDailyStatisticsForCourse(course.getId(), date);
                 aggregatedCount++;
             } catch (Exception e) {
                 log.error("Failed to aggregate statistics for course: {}", course.getId(), e);
                 // Continue with other courses
             }
         }
-        
-        long duration = System.currentTimeMillis() - startTime;
-        log.info("Completed daily statistics aggregation: {} courses processed in {}ms", 
-                aggregatedCount, duration);
-        
-        return CompletableFuture.completedFuture(aggregatedCount);
+        return aggregatedCount;
     }
     
     /**
      * Aggregate statistics for a specific course and date.
-     * Uses batch operations for performance.
+     * Used for targeted re-aggregation and by the PER_COURSE mode.
      */
     @Retry(name = "statisticsAggregation")
     @Transactional(propagation = Propagation.REQUIRES_NEW, isolation = Isolation.READ_COMMITTED)
@@ -97,20 +280,24 @@ public class CourseStatisticsAggregationService {
         // Count lesson and quiz activity
         Long lessonViews = countVisitsByType(courseId, startOfDay, endOfDay, "LESSON_VIEW");
         Long quizAttempts = countVisitsByType(courseId, startOfDay, endOfDay, "QUIZ_START");
+        Long quizViews = countVisitsByType(courseId, startOfDay, endOfDay, "QUIZ_VIEW");
+        Long quizCompletions = countVisitsByType(courseId, startOfDay, endOfDay, "QUIZ_COMPLETE");
         
         // Calculate completion rate
         Double completionRate = calculateCompletionRate(courseId, startOfDay, endOfDay);
         
         // Upsert aggregated statistics
         upsertDailyStatistics(courseId, date, totalVisits, uniqueVisitors, totalDuration,
-                            avgDuration.intValue(), lessonViews, quizAttempts, completionRate);
+                            avgDuration, lessonViews, quizAttempts, quizViews, quizCompletions,
+                            completionRate);
         
         log.debug("Aggregated statistics for course {}: visits={}, unique={}, duration={}s", 
                  courseId, totalVisits, uniqueVisitors, totalDuration);
     }
     
     /**
-     * Aggregate weekly statistics for a course
+     * Aggregate weekly statistics for a course from raw visits.
+     * Prefer {@link #rollUpWeeklyStatistics(LocalDate)} for scheduled runs.
      */
     @Retry(name = "statisticsAggregation")
     @Transactional(propagation = Propagation.REQUIRES_NEW, isolation = Isolation.READ_COMMITTED)
@@ -135,15 +322,18 @@ public class CourseStatisticsAggregationService {
         
         Long lessonViews = countVisitsByType(courseId, startDateTime, endDateTime, "LESSON_VIEW");
         Long quizAttempts = countVisitsByType(courseId, startDateTime, endDateTime, "QUIZ_START");
+        Long quizViews = countVisitsByType(courseId, startDateTime, endDateTime, "QUIZ_VIEW");
+        Long quizCompletions = countVisitsByType(courseId, startDateTime, endDateTime, "QUIZ_COMPLETE");
         Double completionRate = calculateCompletionRate(courseId, startDateTime, endDateTime);
         
         upsertWeeklyStatistics(courseId, weekStart, weekEnd, totalVisits, uniqueVisitors,
-                             totalDuration, avgDuration.intValue(), lessonViews, quizAttempts, 
+                             totalDuration, avgDuration, lessonViews, quizAttempts, quizViews, quizCompletions,
                              completionRate);
     }
     
     /**
-     * Aggregate monthly statistics for a course
+     * Aggregate monthly statistics for a course from raw visits.
+     * Prefer {@link #rollUpMonthlyStatistics(LocalDate)} for scheduled runs.
      */
     @Retry(name = "statisticsAggregation")
     @Transactional(propagation = Propagation.REQUIRES_NEW, isolation = Isolation.READ_COMMITTED)
@@ -168,10 +358,12 @@ public class CourseStatisticsAggregationService {
         
         Long lessonViews = countVisitsByType(courseId, startDateTime, endDateTime, "LESSON_VIEW");
         Long quizAttempts = countVisitsByType(courseId, startDateTime, endDateTime, "QUIZ_START");
+        Long quizViews = countVisitsByType(courseId, startDateTime, endDateTime, "QUIZ_VIEW");
+        Long quizCompletions = countVisitsByType(courseId, startDateTime, endDateTime, "QUIZ_COMPLETE");
         Double completionRate = calculateCompletionRate(courseId, startDateTime, endDateTime);
         
         upsertMonthlyStatistics(courseId, monthStart, monthEnd, totalVisits, uniqueVisitors,
-                              totalDuration, avgDuration.intValue(), lessonViews, quizAttempts, 
+                              totalDuration, avgDuration, lessonViews, quizAttempts, quizViews, quizCompletions,
                               completionRate);
     }
     
@@ -206,27 +398,32 @@ public class CourseStatisticsAggregationService {
      * Upsert daily statistics
      */
     private void upsertDailyStatistics(Long courseId, LocalDate date, Long totalVisits,
-                                      Long uniqueVisitors, Long totalDuration, Integer avgDuration,
-                                      Long lessonViews, Long quizAttempts, Double completionRate) {
+                                      Long uniqueVisitors, Long totalDuration, Double avgDuration,
+                                      Long lessonViews, Long quizAttempts, Long quizViews,
+                                      Long quizCompletions, Double completionRate) {
         String sql = "INSERT INTO course_statistics_aggregated " +
                     "(course_id, period_type, period_start, period_end, total_visits, " +
-                    "unique_visitors, total_duration_seconds, avg_duration_seconds, " +
-                    "lesson_views, quiz_attempts, completion_rate, last_aggregated_at) " +
-                    "VALUES (?, 'DAILY', ?, ?, ?, ?, ?, ?, ?, ?, ?, NOW()) " +
+                    "unique_visitors, total_duration_seconds, avg_duration_seconds, duration_samples, " +
+                    "lesson_views, quiz_attempts, quiz_views, quiz_completions, completion_rate, last_aggregated_at) " +
+                    "VALUES (?, 'DAILY', ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, NOW()) " +
                     "ON CONFLICT (course_id, period_type, period_start) " +
                     "DO UPDATE SET " +
                     "total_visits = EXCLUDED.total_visits, " +
                     "unique_visitors = EXCLUDED.unique_visitors, " +
                     "total_duration_seconds = EXCLUDED.total_duration_seconds, " +
                     "avg_duration_seconds = EXCLUDED.avg_duration_seconds, " +
+                    "duration_samples = EXCLUDED.duration_samples, " +
                     "lesson_views = EXCLUDED.lesson_views, " +
                     "quiz_attempts = EXCLUDED.quiz_attempts, " +
+                    "quiz_views = EXCLUDED.quiz_views, " +
+                    "quiz_completions = EXCLUDED.quiz_completions, " +
                     "completion_rate = EXCLUDED.completion_rate, " +
                     "last_aggregated_at = NOW(), " +
                     "updated_at = NOW()";
         
         jdbcTemplate.update(sql, courseId, date, date, totalVisits, uniqueVisitors,
-                          totalDuration, avgDuration, lessonViews, quizAttempts, completionRate);
+                          totalDuration, avgDuration.intValue(), durationSamples(totalDuration, avgDuration),
+                          lessonViews, quizAttempts, quizViews, quizCompletions, completionRate);
     }
     
     /**
@@ -234,13 +431,14 @@ public class CourseStatisticsAggregationService {
      */
     private void upsertWeeklyStatistics(Long courseId, LocalDate weekStart, LocalDate weekEnd,
                                        Long totalVisits, Long uniqueVisitors, Long totalDuration,
-                                       Integer avgDuration, Long lessonViews, Long quizAttempts,
+                                       Double avgDuration, Long lessonViews, Long quizAttempts,
+                                       Long quizViews, Long quizCompletions,
                                        Double completionRate) {
         String sql = "INSERT INTO course_statistics_aggregated " +
                     "(course_id, period_type, period_start, period_end, total_visits, " +
-                    "unique_visitors, total_duration_seconds, avg_duration_seconds, " +
-                    "lesson_views, quiz_attempts, completion_rate, last_aggregated_at) " +
-                    "VALUES (?, 'WEEKLY', ?, ?, ?, ?, ?, ?, ?, ?, ?, NOW()) " +
+                    "unique_visitors, total_duration_seconds, avg_duration_seconds, duration_samples, " +
+                    "lesson_views, quiz_attempts, quiz_views, quiz_completions, completion_rate, last_aggregated_at) " +
+                    "VALUES (?, 'WEEKLY', ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, NOW()) " +
                     "ON CONFLICT (course_id, period_type, period_start) " +
                     "DO UPDATE SET " +
                     "period_end = EXCLUDED.period_end, " +
@@ -248,14 +446,18 @@ public class CourseStatisticsAggregationService {
                     "unique_visitors = EXCLUDED.unique_visitors, " +
                     "total_duration_seconds = EXCLUDED.total_duration_seconds, " +
                     "avg_duration_seconds = EXCLUDED.avg_duration_seconds, " +
+                    "duration_samples = EXCLUDED.duration_samples, " +
                     "lesson_views = EXCLUDED.lesson_views, " +
                     "quiz_attempts = EXCLUDED.quiz_attempts, " +
+                    "quiz_views = EXCLUDED.quiz_views, " +
+                    "quiz_completions = EXCLUDED.quiz_completions, " +
                     "completion_rate = EXCLUDED.completion_rate, " +
                     "last_aggregated_at = NOW(), " +
                     "updated_at = NOW()";
         
         jdbcTemplate.update(sql, courseId, weekStart, weekEnd, totalVisits, uniqueVisitors,
-                          totalDuration, avgDuration, lessonViews, quizAttempts, completionRate);
+                          totalDuration, avgDuration.intValue(), durationSamples(totalDuration, avgDuration),
+                          lessonViews, quizAttempts, quizViews, quizCompletions, completionRate);
     }
     
     /**
@@ -263,13 +465,14 @@ public class CourseStatisticsAggregationService {
      */
     private void upsertMonthlyStatistics(Long courseId, LocalDate monthStart, LocalDate monthEnd,
                                         Long totalVisits, Long uniqueVisitors, Long totalDuration,
-                                        Integer avgDuration, Long lessonViews, Long quizAttempts,
+                                        Double avgDuration, Long lessonViews, Long quizAttempts,
+                                        Long quizViews, Long quizCompletions,
                                         Double completionRate) {
         String sql = "INSERT INTO course_statistics_aggregated " +
                     "(course_id, period_type, period_start, period_end, total_visits, " +
-                    "unique_visitors, total_duration_seconds, avg_duration_seconds, " +
-                    "lesson_views, quiz_attempts, completion_rate, last_aggregated_at) " +
-                    "VALUES (?, 'MONTHLY', ?, ?, ?, ?, ?, ?, ?, ?, ?, NOW()) " +
+                    "unique_visitors, total_duration_seconds, avg_duration_seconds, duration_samples, " +
+                    "lesson_views, quiz_attempts, quiz_views, quiz_completions, completion_rate, last_aggregated_at) " +
+                    "VALUES (?, 'MONTHLY', ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, NOW()) " +
                     "ON CONFLICT (course_id, period_type, period_start) " +
                     "DO UPDATE SET " +
                     "period_end = EXCLUDED.period_end, " +
@@ -277,14 +480,25 @@ public class CourseStatisticsAggregationService {
                     "unique_visitors = EXCLUDED.unique_visitors, " +
                     "total_duration_seconds = EXCLUDED.total_duration_seconds, " +
                     "avg_duration_seconds = EXCLUDED.avg_duration_seconds, " +
+                    "duration_samples = EXCLUDED.duration_samples, " +
                     "lesson_views = EXCLUDED.lesson_views, " +
                     "quiz_attempts = EXCLUDED.quiz_attempts, " +
+                    "quiz_views = EXCLUDED.quiz_views, " +
+                    "quiz_completions = EXCLUDED.quiz_completions, " +
                     "completion_rate = EXCLUDED.completion_rate, " +
                     "last_aggregated_at = NOW(), " +
                     "updated_at = NOW()";
         
         jdbcTemplate.update(sql, courseId, monthStart, monthEnd, totalVisits, uniqueVisitors,
-                          totalDuration, avgDuration, lessonViews, quizAttempts, completionRate);
+                          totalDuration, avgDuration.intValue(), durationSamples(totalDuration, avgDuration),
+                          lessonViews, quizAttempts, quizViews, quizCompletions, completionRate);
+    }
+    
+    /**
+     * Number of visits with a duration, recovered from the total and the average
+     */
+    private long durationSamples(Long totalDuration, Double avgDuration) {
+        return avgDuration > 0 ? Math.round(totalDuration / avgDuration) : 0;
     }
     
     /**
@@ -1,10 +1,16 @@
 package edu.platform.service;
 
+import edu.platform.config.AsyncConfig;
 import edu.platform.dto.request.CourseVisitRequest;
 import edu.platform.entity.*;
 import edu.platform.entity.enums.VisitType;
 import edu.platform.exception.ResourceNotFoundException;
 import edu.platform.repository.*;
+import edu.platform.tracking.CourseMembershipIndex;
+import edu.platform.tracking.CourseVisitIngestionQueue;
+import edu.platform.tracking.PendingVisit;
+import edu.platform.tracking.VisitWriteBarrier;
+import edu.platform.util.ClientRequestInfo;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -19,6 +25,7 @@ import java.util.Objects;
 /**
  * Service for tracking user visits to course content.
  * Provides asynchronous visit recording to avoid blocking main operations.
+ * Tracked visits are handed to {@link CourseVisitIngestionQueue} and written in batches.
  */
 @Service
 @RequiredArgsConstructor
@@ -30,19 +37,20 @@ public class CourseVisitService {
     private final CourseRepository courseRepository;
     private final LessonRepository lessonRepository;
     private final QuizRepository quizRepository;
+    private final CourseVisitIngestionQueue ingestionQueue;
+    private final CourseMembershipIndex membershipIndex;
+    private final VisitWriteBarrier writeBarrier;
     
     /**
      * Record a course view asynchronously
      */
-    @Async
-    @Transactional
+    @Async(AsyncConfig.VISIT_TRACKING_EXECUTOR)
     public void recordCourseView(Long userId, Long courseId, HttpServletRequest request) {
         try {
             log.debug("Recording course view: user={}, course={}", userId, courseId);
             
-            CourseVisit visit = buildVisit(userId, courseId, null, null, 
-                                          VisitType.COURSE_VIEW, request);
-            courseVisitRepository.save(visit);
+            ingestionQueue.enqueue(buildPendingVisit(userId, courseId, null, null,
+                                                     VisitType.COURSE_VIEW, null, request));
         } catch (Exception e) {
             log.error("Failed to record course view: user={}, course={}", userId, courseId, e);
             // Don't throw - visit tracking should not break main flow
@@ -52,17 +60,15 @@ public class CourseVisitService {
     /**
      * Record a lesson view asynchronously
      */
-    @Async
-    @Transactional
+    @Async(AsyncConfig.VISIT_TRACKING_EXECUTOR)
     public void recordLessonView(Long userId, Long courseId, Long lessonId, 
                                   HttpServletRequest request) {
         try {
             log.debug("Recording lesson view: user={}, course={}, lesson={}", 
                      userId, courseId, lessonId);
             
-            CourseVisit visit = buildVisit(userId, courseId, lessonId, null, 
-                                          VisitType.LESSON_VIEW, request);
-            courseVisitRepository.save(visit);
+            ingestionQueue.enqueue(buildPendingVisit(userId, courseId, lessonId, null,
+                                                     VisitType.LESSON_VIEW, null, request));
         } catch (Exception e) {
             log.error("Failed to record lesson view: user={}, lesson={}", userId, lessonId, e);
         }
@@ -71,17 +77,15 @@ public class CourseVisitService {
     /**
      * Record a quiz view asynchronously
      */
-    @Async
-    @Transactional
+    @Async(AsyncConfig.VISIT_TRACKING_EXECUTOR)
     public void recordQuizView(Long userId, Long courseId, Long quizId, 
                                 HttpServletRequest request) {
         try {
             log.debug("Recording quiz view: user={}, course={}, quiz={}", 
                      userId, courseId, quizId);
             
-            CourseVisit visit = buildVisit(userId, courseId, null, quizId, 
-                                          VisitType.QUIZ_VIEW, request);
-            courseVisitRepository.save(visit);
+            ingestionQueue.enqueue(buildPendingVisit(userId, courseId, null, quizId,
+                                                     VisitType.QUIZ_VIEW, null, request));
         } catch (Exception e) {
             log.error("Failed to record quiz view: user={}, quiz={}", userId, quizId, e);
         }
@@ -90,16 +94,14 @@ public class CourseVisitService {
     /**
      * Record quiz start
      */
-    @Async
-    @Transactional
+    @Async(AsyncConfig.VISIT_TRACKING_EXECUTOR)
     public void recordQuizStart(Long userId, Long courseId, Long quizId, 
                                  HttpServletRequest request) {
         try {
             log.debug("Recording quiz start: user={}, quiz={}", userId, quizId);
             
-            CourseVisit visit = buildVisit(userId, courseId, null, quizId, 
-                                          VisitType.QUIZ_START, request);
-            courseVisitRepository.save(visit);
+            ingestionQueue.enqueue(buildPendingVisit(userId, courseId, null, quizId,
+                                                     VisitType.QUIZ_START, null, request));
         } catch (Exception e) {
             log.error("Failed to record quiz start: user={}, quiz={}", userId, quizId, e);
         }
@@ -108,18 +110,15 @@ public class CourseVisitService {
     /**
      * Record quiz completion
      */
-    @Async
-    @Transactional
+    @Async(AsyncConfig.VISIT_TRACKING_EXECUTOR)
     public void recordQuizCompletion(Long userId, Long courseId, Long quizId, 
                                      Integer durationSeconds, HttpServletRequest request) {
         try {
             log.debug("Recording quiz completion: user={}, quiz={}, duration={}", 
                      userId, quizId, durationSeconds);
             
-            CourseVisit visit = buildVisit(userId, courseId, null, quizId, 
-                                          VisitType.QUIZ_COMPLETE, request);
-            visit.setDurationSeconds(durationSeconds);
-            courseVisitRepository.save(visit);
+            ingestionQueue.enqueue(buildPendingVisit(userId, courseId, null, quizId,
+                                                     VisitType.QUIZ_COMPLETE, durationSeconds, request));
         } catch (Exception e) {
             log.error("Failed to record quiz completion: user={}, quiz={}", userId, quizId, e);
         }
@@ -128,15 +127,13 @@ public class CourseVisitService {
     /**
      * Record course enrollment
      */
-    @Async
-    @Transactional
+    @Async(AsyncConfig.VISIT_TRACKING_EXECUTOR)
     public void recordCourseEnrollment(Long userId, Long courseId, HttpServletRequest request) {
         try {
             log.debug("Recording course enrollment: user={}, course={}", userId, courseId);
             
-            CourseVisit visit = buildVisit(userId, courseId, null, null, 
-                                          VisitType.COURSE_ENROLLMENT, request);
-            courseVisitRepository.save(visit);
+            ingestionQueue.enqueue(buildPendingVisit(userId, courseId, null, null,
+                                                     VisitType.COURSE_ENROLLMENT, null, request));
         } catch (Exception e) {
             log.error("Failed to record enrollment: user={}, course={}", userId, courseId, e);
         }
@@ -145,18 +142,15 @@ public class CourseVisitService {
     /**
      * Record lesson completion
      */
-    @Async
-    @Transactional
+    @Async(AsyncConfig.VISIT_TRACKING_EXECUTOR)
     public void recordLessonCompletion(Long userId, Long courseId, Long lessonId, 
                                        Integer durationSeconds, HttpServletRequest request) {
         try {
             log.debug("Recording lesson completion: user={}, lesson={}, duration={}", 
                      userId, lessonId, durationSeconds);
             
-            CourseVisit visit = buildVisit(userId, courseId, lessonId, null, 
-                                          VisitType.LESSON_COMPLETE, request);
-            visit.setDurationSeconds(durationSeconds);
-            courseVisitRepository.save(visit);
+            ingestionQueue.enqueue(buildPendingVisit(userId, courseId, lessonId, null,
+                                                     VisitType.LESSON_COMPLETE, durationSeconds, request));
         } catch (Exception e) {
             log.error("Failed to record lesson completion: user={}, lesson={}", 
                      userId, lessonId, e);
@@ -188,6 +182,7 @@ public class CourseVisitService {
         visit.setIpAddress(request.getIpAddress());
         visit.setUserAgent(request.getUserAgent());
 
+        writeBarrier.enterWrite();
         return courseVisitRepository.save(visit);
     }
 
@@ -213,6 +208,41 @@ public class CourseVisitService {
         return courseVisitRepository.findByUserIdOrderByVisitedAtDesc(userId);
     }
     
+    /**
+     * Build a queued visit from raw ids.
+     * Ids are validated against the membership index instead of loading entities.
+     * A visit whose row still fails at flush time is dropped on its own by the batch writer.
+     */
+    private PendingVisit buildPendingVisit(Long userId, Long courseId, Long lessonId, Long quizId,
+                                           VisitType visitType, Integer durationSeconds,
+                                           HttpServletRequest request) {
+        membershipIndex.requireUser(userId);
+        membershipIndex.requireCourse(courseId);
+        if (lessonId != null) {
+            membershipIndex.requireLessonInCourse(lessonId, courseId);
+        }
+        if (quizId != null) {
+            membershipIndex.requireQuizInCourse(quizId, courseId);
+        }
+
+        PendingVisit.PendingVisitBuilder builder = PendingVisit.builder()
+                .userId(userId)
+                .courseId(courseId)
+                .lessonId(lessonId)
+                .quizId(quizId)
+                .visitType(visitType)
+                .durationSeconds(durationSeconds)
+                .visitedAt(LocalDateTime.now());
+
+        if (request != null) {
+            builder.ipAddress(ClientRequestInfo.getClientIpAddress(request));
+            builder.userAgent(request.getHeader("User-Agent"));
+            builder.deviceType(ClientRequestInfo.detectDeviceType(request.getHeader("User-Agent")));
+        }
+
+        return builder.build();
+    }
+    
     /**
      * Build a CourseVisit entity
      */
@@ -247,9 +277,9 @@ public class CourseVisitService {
                 .visitedAt(LocalDateTime.now());
 
         if (request != null) {
-            builder.ipAddress(getClientIpAddress(request));
+            builder.ipAddress(ClientRequestInfo.getClientIpAddress(request));
             builder.userAgent(request.getHeader("User-Agent"));
-            builder.deviceType(detectDeviceType(request.getHeader("User-Agent")));
+            builder.deviceType(ClientRequestInfo.detectDeviceType(request.getHeader("User-Agent")));
         }
 
         return builder.build();
@@ -270,51 +300,4 @@ public class CourseVisitService {
             );
         }
     }
-    
-    /**
-     * Extract client IP address from request
-     */
-    private String getClientIpAddress(HttpServletRequest request) {
-        String[] headers = {
-            "X-Forwarded-For",
-            "Proxy-Client-IP",
-            "WL-Proxy-Client-IP",
-            "HTTP_X_FORWARDED_FOR",
-            "HTTP_X_FORWARDED",
-            "HTTP_X_CLUSTER_CLIENT_IP",
-            "HTTP_CLIENT_IP",
-            "HTTP_FORWARDED_FOR",
-            "HTTP_FORWARDED",
-            "HTTP_VIA",
-            "REMOTE_ADDR"
-        };
-        
-        for (String header : headers) {
-            String ip = request.getHeader(header);
-            if (ip != null && !ip.isEmpty() && !"unknown".equalsIgnoreCase(ip)) {
-                return ip.split(",")[0].trim();
-            }
-        }
-        
-        return request.getRemoteAddr();
-    }
-    
-    /**
-     * Detect device type from user agent
-     */
-    private String detectDeviceType(String userAgent) {
-        if (userAgent == null) {
-            return "UNKNOWN";
-        }
-        
-        String ua = userAgent.toLowerCase();
-        
-        if (ua.contains("mobile") || ua.contains("android") || ua.contains("iphone")) {
-            return "MOBILE";
-        } else if (ua.contains("tablet") || ua.contains("ipad")) {
-            return "TABLET";
-        } else {
-            return "DESKTOP";
-        }
-    }
 }
@@ -0,0 +1,203 @@
+package edu.platform.service;
+
+import edu.platform.statistics.VisitorSketchStore;
+import edu.platform.tracking.VisitWriteBarrier;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Folds new course visits into hourly statistics.
+ * A global watermark on course_visits.id marks the last folded visit; each run folds
+ * the visits above it into course_statistics_hourly and course_daily_visitors and
+ * re-derives the DAILY rows of the days it touched. The fold stops below the lowest
+ * visit whose insert is still in flight (see {@link VisitWriteBarrier}), so a slow insert
+ * with a lower id is never skipped.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class IncrementalStatisticsAggregationService {
+    
+    private static final String WATERMARK = "course_visits";
+    
+    private static final String LOCK_WATERMARK_SQL =
+            "SELECT last_visit_id FROM statistics_watermarks WHERE name = ? FOR UPDATE";
+    
+    private static final String FOLD_HOURLY_SQL = "INSERT INTO course_statistics_hourly AS h " +
+            "(course_id, hour_start, total_visits, total_duration_seconds, duration_samples, " +
+            "lesson_views, quiz_attempts, quiz_views, quiz_completions, updated_at) " +
+            "SELECT cv.course_id, date_trunc('hour', cv.visited_at), " +
+            "COUNT(*), " +
+            "COALESCE(SUM(cv.duration_seconds), 0), " +
+            "COUNT(cv.duration_seconds), " +
+            "COUNT(*) FILTER (WHERE cv.visit_type = 'LESSON_VIEW'), " +
+            "COUNT(*) FILTER (WHERE cv.visit_type = 'QUIZ_START'), " +
+            "COUNT(*) FILTER (WHERE cv.visit_type = 'QUIZ_VIEW'), " +
+            "COUNT(*) FILTER (WHERE cv.visit_type = 'QUIZ_COMPLETE'), " +
+            "NOW() " +
+            "FROM course_visits cv " +
+            "WHERE cv.id > ? AND cv.id <= ? " +
+            "GROUP BY cv.course_id, date_trunc('hour', cv.visited_at) " +
+            "ON CONFLICT (course_id, hour_start) " +
+            "DO UPDATE SET " +
+            "total_visits = h.total_visits + EXCLUDED.total_visits, " +
+            "total_duration_seconds = h.total_duration_seconds + EXCLUDED.total_duration_seconds, " +
+            "duration_samples = h.duration_samples + EXCLUDED.duration_samples, " +
+            "lesson_views = h.lesson_views + EXCLUDED.lesson_views, " +
+            "quiz_attempts = h.quiz_attempts + EXCLUDED.quiz_attempts, " +
+            "quiz_views = h.quiz_views + EXCLUDED.quiz_views, " +
+            "quiz_completions = h.quiz_completions + EXCLUDED.quiz_completions, " +
+            "updated_at = NOW()";
+    
+    private static final String FOLD_DAILY_VISITORS_SQL = "INSERT INTO course_daily_visitors AS v " +
+            "(course_id, visit_date, user_id, completed_quiz) " +
+            "SELECT cv.course_id, CAST(cv.visited_at AS DATE), cv.user_id, " +
+            "BOOL_OR(cv.visit_type = 'QUIZ_COMPLETE') " +
+            "FROM course_visits cv " +
+            "WHERE cv.id > ? AND cv.id <= ? " +
+            "GROUP BY cv.course_id, CAST(cv.visited_at AS DATE), cv.user_id " +
+            "ON CONFLICT (course_id, visit_date, user_id) " +
+            "DO UPDATE SET completed_quiz = v.completed_quiz OR EXCLUDED.completed_quiz";
+    
+    private static final String DERIVE_DAILY_SQL = "WITH touched AS (" +
+            "SELECT DISTINCT cv.course_id, CAST(cv.visited_at AS DATE) AS visit_date " +
+            "FROM course_visits cv WHERE cv.id > ? AND cv.id <= ?" +
+            "), hourly AS (" +
+            "SELECT h.course_id, t.visit_date, " +
+            "SUM(h.total_visits) AS total_visits, " +
+            "SUM(h.total_duration_seconds) AS total_duration_seconds, " +
+            "SUM(h.duration_samples) AS duration_samples, " +
+            "SUM(h.lesson_views) AS lesson_views, " +
+            "SUM(h.quiz_attempts) AS quiz_attempts, " +
+            "SUM(h.quiz_views) AS quiz_views, " +
+            "SUM(h.quiz_completions) AS quiz_completions " +
+            "FROM course_statistics_hourly h " +
+            "JOIN touched t ON t.course_id = h.course_id " +
+            "AND h.hour_start >= t.visit_date AND h.hour_start < t.visit_date + 1 " +
+            "GROUP BY h.course_id, t.visit_date" +
+            "), visitors AS (" +
+            "SELECT v.course_id, v.visit_date, " +
+            "COUNT(*) AS unique_visitors, " +
+            "COUNT(*) FILTER (WHERE v.completed_quiz) AS completed " +
+            "FROM course_daily_visitors v " +
+            "JOIN touched t ON t.course_id = v.course_id AND t.visit_date = v.visit_date " +
+            "GROUP BY v.course_id, v.visit_date" +
+            ") " +
+            "INSERT INTO course_statistics_aggregated " +
+            "(course_id, period_type, period_start, period_end, total_visits, " +
+            "unique_visitors, total_duration_seconds, avg_duration_seconds, duration_samples, " +
+            "lesson_views, quiz_attempts, quiz_views, quiz_completions, completion_rate, last_aggregated_at) " +
+            "SELECT h.course_id, 'DAILY', h.visit_date, h.visit_date, h.total_visits, " +
+            "vs.unique_visitors, h.total_duration_seconds, " +
+            "CASE WHEN h.duration_samples = 0 THEN 0 " +
+            "ELSE h.total_duration_seconds / h.duration_samples END, " +
+            "h.duration_samples, h.lesson_views, h.quiz_attempts, h.quiz_views, h.quiz_completions, " +
+            "vs.completed::DECIMAL / vs.unique_visitors * 100, " +
+            "NOW() " +
+            "FROM hourly h " +
+            "JOIN visitors vs ON vs.course_id = h.course_id AND vs.visit_date = h.visit_date " +
+            "ON CONFLICT (course_id, period_type, period_start) " +
+            "DO UPDATE SET " +
+            "total_visits = EXCLUDED.total_visits, " +
+            "unique_visitors = EXCLUDED.unique_visitors, " +
+            "total_duration_seconds = EXCLUDED.total_duration_seconds, " +
+            "avg_duration_seconds = EXCLUDED.avg_duration_seconds, " +
+            "duration_samples = EXCLUDED.duration_samples, " +
+            "lesson_views = EXCLUDED.lesson_views, " +
+            "quiz_attempts = EXCLUDED.quiz_attempts, " +
+            "quiz_views = EXCLUDED.quiz_views, " +
+            "quiz_completions = EXCLUDED.quiz_completions, " +
+            "completion_rate = EXCLUDED.completion_rate, " +
+            "last_aggregated_at = NOW(), " +
+            "updated_at = NOW()";
+    
+    private final JdbcTemplate jdbcTemplate;
+    private final VisitorSketchStore visitorSketchStore;
+    private final VisitWriteBarrier writeBarrier;
+    
+    @Value("${statistics.incremental.max-visits-per-fold:200000}")
+    private long maxVisitsPerFold;
+    
+    @Value("${statistics.incremental.retention-days:90}")
+    private int retentionDays;
+    
+    /**
+     * Fold visits above the watermark into hourly and daily statistics.
+     * The watermark row is locked for the whole fold, so concurrent runs
+     * (e.g. on several instances) serialize instead of double counting.
+     *
+     * @return number of visit ids the watermark advanced by
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW, isolation = Isolation.READ_COMMITTED)
+    public long foldNewVisits() {
+        Long watermark = jdbcTemplate.queryForObject(LOCK_WATERMARK_SQL, Long.class, WATERMARK);
+        if (watermark == null) {
+            throw new IllegalStateException("Missing statistics watermark: " + WATERMARK);
+        }
+        
+        long upperBound = writeBarrier.settledUpperBound(watermark, maxVisitsPerFold);
+        if (upperBound <= watermark) {
+            return 0;
+        }
+        
+        int hourlyRows = jdbcTemplate.update(FOLD_HOURLY_SQL, watermark, upperBound);
+        jdbcTemplate.update(FOLD_DAILY_VISITORS_SQL, watermark, upperBound);
+        int dailyRows = jdbcTemplate.update(DERIVE_DAILY_SQL, watermark, upperBound);
+        visitorSketchStore.addVisitsInIdRange(watermark, upperBound);
+        
+        jdbcTemplate.update("UPDATE statistics_watermarks SET last_visit_id = ?, updated_at = NOW() WHERE name = ?",
+                upperBound, WATERMARK);
+        
+        log.debug("Folded visits ({}, {}] into {} hourly and {} daily rows",
+                watermark, upperBound, hourlyRows, dailyRows);
+        return upperBound - watermark;
+    }
+    
+    /**
+     * Hourly statistics for a course, oldest first.
+     */
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> getHourlyStatistics(Long courseId, LocalDateTime from, LocalDateTime to) {
+        String sql = "SELECT " +
+                    "hour_start, " +
+                    "total_visits, " +
+                    "total_duration_seconds, " +
+                    "CASE WHEN duration_samples = 0 THEN 0 " +
+                    "ELSE total_duration_seconds / duration_samples END AS avg_duration_seconds, " +
+                    "lesson_views, " +
+                    "quiz_attempts, " +
+                    "quiz_views, " +
+                    "quiz_completions " +
+                    "FROM course_statistics_hourly " +
+                    "WHERE course_id = ? " +
+                    "AND hour_start >= ? AND hour_start < ? " +
+                    "ORDER BY hour_start";
+        
+        return jdbcTemplate.queryForList(sql, courseId, from, to);
+    }
+    
+    /**
+     * Delete hourly rows and daily visitor sets older than the retention period.
+     *
+     * @return number of rows deleted
+     */
+    @Transactional
+    public int purgeExpired() {
+        LocalDate cutoff = LocalDate.now().minusDays(retentionDays);
+        int deleted = jdbcTemplate.update("DELETE FROM course_statistics_hourly WHERE hour_start < ?",
+                cutoff.atStartOfDay());
+        deleted += jdbcTemplate.update("DELETE FROM course_daily_visitors WHERE visit_date < ?", cutoff);
+        return deleted;
+    }
+}
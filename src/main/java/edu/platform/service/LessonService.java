@@ -8,6 +8,7 @@ import edu.platform.entity.MediaAsset;
 import edu.platform.exception.ResourceNotFoundException;
 import edu.platform.mapper.LessonMapper;
 import edu.platform.repository.LessonRepository;
+import edu.platform.tracking.CourseMembershipIndex;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.orm.ObjectOptimisticLockingFailureException;
@@ -27,6 +28,7 @@ public class LessonService {
     private final LessonMapper lessonMapper;
     private final CourseService courseService;
     private final MediaAssetService mediaAssetService;
+    private final CourseMembershipIndex membershipIndex;
     
     @Transactional(propagation = Propagation.REQUIRED, isolation = Isolation.READ_COMMITTED)
     public LessonResponse createLesson(LessonRequest request, Long teacherId) {
@@ -49,6 +51,7 @@ public class LessonService {
         }
         
         Lesson savedLesson = lessonRepository.save(lesson);
+        membershipIndex.lessonCreated(savedLesson.getId(), course.getId());
         log.info("Lesson created successfully with ID: {}", savedLesson.getId());
         
         return lessonMapper.toResponse(savedLesson);
@@ -128,6 +131,7 @@ public class LessonService {
         }
         
         lessonRepository.delete(lesson);
+        membershipIndex.lessonDeleted(id);
         log.info("Lesson deleted successfully: {}", id);
     }
     
@@ -1,5 +1,7 @@
 package edu.platform.service;
 
+import edu.platform.calculation.QuizSubmittedEvent;
+import edu.platform.calculation.QuizSubmittedEvent.QuestionOutcome;
 import edu.platform.dto.request.QuizSubmissionRequest;
 import edu.platform.dto.request.StudentAnswerRequest;
 import edu.platform.dto.response.QuizAttemptResponse;
@@ -7,10 +9,19 @@ import edu.platform.entity.*;
 import edu.platform.entity.enums.QuestionType;
 import edu.platform.exception.BusinessException;
 import edu.platform.exception.ResourceNotFoundException;
+import edu.platform.grading.AnswerKey;
+import edu.platform.grading.AnswerKey.QuestionKey;
+import edu.platform.grading.AnswerKeyCache;
+import edu.platform.grading.GradingEngine;
+import edu.platform.grading.GradingResult;
+import edu.platform.grading.GradingResult.GradedAnswer;
 import edu.platform.mapper.QuizAttemptMapper;
 import edu.platform.repository.*;
+import edu.platform.scheduler.AttemptExpiryScheduler;
+import edu.platform.util.TransactionCallbacks;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Isolation;
 import org.springframework.transaction.annotation.Propagation;
@@ -32,10 +43,13 @@ public class QuizAttemptService {
     private final QuizRepository quizRepository;
     private final UserRepository userRepository;
     private final QuestionRepository questionRepository;
-    private final AnswerOptionRepository answerOptionRepository;
     private final StudentAnswerRepository studentAnswerRepository;
     private final QuizAttemptMapper quizAttemptMapper;
     private final CourseVisitService courseVisitService;
+    private final AnswerKeyCache answerKeyCache;
+    private final GradingEngine gradingEngine;
+    private final ApplicationEventPublisher eventPublisher;
+    private final AttemptExpiryScheduler attemptExpiryScheduler;
     
     @Transactional(propagation = Propagation.REQUIRED, isolation = Isolation.READ_COMMITTED)
     public QuizAttemptResponse startQuizAttempt(Long quizId, Long studentId) {
@@ -74,6 +88,10 @@ public class QuizAttemptService {
                 .build();
         
         QuizAttempt savedAttempt = quizAttemptRepository.save(attempt);
+        if (quiz.getTimeLimitMinutes() != null) {
+            LocalDateTime deadline = savedAttempt.getStartedAt().plusMinutes(quiz.getTimeLimitMinutes());
+            TransactionCallbacks.afterCommit(() -> attemptExpiryScheduler.schedule(savedAttempt.getId(), deadline));
+        }
         courseVisitService.recordQuizStart(studentId, quiz.getCourse().getId(), quizId, null);
         log.info("Quiz attempt started successfully with ID: {}", savedAttempt.getId());
         
@@ -96,30 +114,18 @@ public class QuizAttemptService {
             }
         }
         
-        // Get all questions for the quiz
-        List<Question> questions = questionRepository.findByQuizIdWithAnswerOptions(request.getQuizId());
+        // Grade against the cached answer key of the quiz
+        long gradingStart = System.currentTimeMillis();
+        AnswerKey answerKey = answerKeyCache.get(request.getQuizId());
+        GradingResult<StudentAnswerRequest> grading = gradingEngine.grade(answerKey, request.getAnswers(),
+                StudentAnswerRequest::getQuestionId, StudentAnswerRequest::getSelectedOptionIds);
+        BigDecimal totalScore = grading.getScore();
+        BigDecimal maxPossibleScore = grading.getMaxScore();
         
         // Process student answers
-        List<StudentAnswer> studentAnswers = new ArrayList<>();
-        BigDecimal totalScore = BigDecimal.ZERO;
-        BigDecimal maxPossibleScore = BigDecimal.ZERO;
-        
-        for (Question question : questions) {
-            maxPossibleScore = maxPossibleScore.add(BigDecimal.valueOf(question.getPoints()));
-            
-            // Find student's answer for this question
-            Optional<StudentAnswerRequest> answerRequest = request.getAnswers().stream()
-                    .filter(ans -> ans.getQuestionId().equals(question.getId()))
-                    .findFirst();
-            
-            if (answerRequest.isPresent()) {
-                StudentAnswer studentAnswer = processStudentAnswer(attempt, question, answerRequest.get());
-                studentAnswers.add(studentAnswer);
-                
-                if (Boolean.TRUE.equals(studentAnswer.getIsCorrect())) {
-                    totalScore = totalScore.add(studentAnswer.getPointsEarned());
-                }
-            }
+        List<StudentAnswer> studentAnswers = new ArrayList<>(grading.getAnswers().size());
+        for (GradedAnswer<StudentAnswerRequest> gradedAnswer : grading.getAnswers()) {
+            studentAnswers.add(processStudentAnswer(attempt, gradedAnswer));
         }
         
         // Save all student answers
@@ -132,6 +138,12 @@ public class QuizAttemptService {
         attempt.setIsCompleted(true);
         
         QuizAttempt savedAttempt = quizAttemptRepository.save(attempt);
+        if (quiz.getTimeLimitMinutes() != null) {
+            TransactionCallbacks.afterCommit(() -> attemptExpiryScheduler.cancel(savedAttempt.getId()));
+        }
+        eventPublisher.publishEvent(toSubmittedEvent(savedAttempt, studentId, grading,
+                System.currentTimeMillis() - gradingStart));
+        
         Integer durationSeconds = null;
         if (attempt.getStartedAt() != null && attempt.getCompletedAt() != null) {
             durationSeconds = Math.toIntExact(Duration.between(
@@ -153,58 +165,51 @@ public class QuizAttemptService {
         return quizAttemptMapper.toResponse(savedAttempt);
     }
     
-    private StudentAnswer processStudentAnswer(QuizAttempt attempt, Question question, StudentAnswerRequest answerRequest) {
+    /**
+     * Event consumed after commit to write the test result from the grading outcome.
+     */
+    private QuizSubmittedEvent toSubmittedEvent(QuizAttempt attempt, Long studentId,
+                                                GradingResult<StudentAnswerRequest> grading, long gradingTimeMs) {
+        List<QuestionOutcome> outcomes = new ArrayList<>(grading.getAnswers().size());
+        for (GradedAnswer<StudentAnswerRequest> gradedAnswer : grading.getAnswers()) {
+            outcomes.add(new QuestionOutcome(gradedAnswer.question().getQuestionId(),
+                    gradedAnswer.correct(), gradedAnswer.pointsEarned()));
+        }
+        return QuizSubmittedEvent.builder()
+                .attemptId(attempt.getId())
+                .studentId(studentId)
+                .quizId(attempt.getQuiz().getId())
+                .startedAt(attempt.getStartedAt())
+                .completedAt(attempt.getCompletedAt())
+                .earnedPoints(grading.getEarnedPoints())
+                .maxPoints(grading.getMaxPoints())
+                .correctAnswers(grading.getCorrectAnswers())
+                .totalQuestions(grading.getTotalQuestions())
+                .gradingTimeMs(gradingTimeMs)
+                .outcomes(outcomes)
+                .build();
+    }
+    
+    private StudentAnswer processStudentAnswer(QuizAttempt attempt, GradedAnswer<StudentAnswerRequest> gradedAnswer) {
+        QuestionKey questionKey = gradedAnswer.question();
+        StudentAnswerRequest answerRequest = gradedAnswer.answer();
         StudentAnswer studentAnswer = StudentAnswer.builder()
                 .attempt(attempt)
-                .question(question)
+                .question(questionRepository.getReferenceById(questionKey.getQuestionId()))
+                .isCorrect(gradedAnswer.correct())
+                .pointsEarned(BigDecimal.valueOf(gradedAnswer.pointsEarned()))
                 .build();
         
-        boolean isCorrect = false;
-        BigDecimal pointsEarned = BigDecimal.ZERO;
-        
-        if (question.getQuestionType() == QuestionType.TEXT) {
-            // For text questions, store the answer but don't auto-grade
+        if (questionKey.getType() == QuestionType.TEXT) {
+            // Text questions require manual grading; they are stored and counted as correct for now
             studentAnswer.setAnswerText(answerRequest.getAnswerText());
-            // Text questions require manual grading, so we'll mark as correct for now
-            // In a real system, this would be handled by teachers
-            isCorrect = true;
-            pointsEarned = BigDecimal.valueOf(question.getPoints());
         } else {
-            // For choice questions, check against correct answers
             List<Long> selectedOptionIds = answerRequest.getSelectedOptionIds();
             if (selectedOptionIds != null && !selectedOptionIds.isEmpty()) {
                 studentAnswer.setSelectedOptionIds(selectedOptionIds);
-                
-                List<AnswerOption> correctOptions = answerOptionRepository
-                        .findCorrectAnswersByQuestionId(question.getId());
-                
-                if (question.getQuestionType() == QuestionType.SINGLE_CHOICE) {
-                    // For single choice, check if the selected option is correct
-                    if (selectedOptionIds.size() == 1) {
-                        Long selectedId = selectedOptionIds.get(0);
-                        isCorrect = correctOptions.stream()
-                                .anyMatch(option -> option.getId().equals(selectedId));
-                    }
-                } else if (question.getQuestionType() == QuestionType.MULTIPLE_CHOICE) {
-                    // For multiple choice, check if all selected options are correct
-                    // and all correct options are selected
-                    List<Long> correctOptionIds = correctOptions.stream()
-                            .map(AnswerOption::getId)
-                            .toList();
-                    
-                    isCorrect = selectedOptionIds.size() == correctOptionIds.size() &&
-                               selectedOptionIds.containsAll(correctOptionIds);
-                }
-                
-                if (isCorrect) {
-                    pointsEarned = BigDecimal.valueOf(question.getPoints());
-                }
             }
         }
         
-        studentAnswer.setIsCorrect(isCorrect);
-        studentAnswer.setPointsEarned(pointsEarned);
-        
         return studentAnswer;
     }
     
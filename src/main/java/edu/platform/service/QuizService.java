@@ -1,11 +1,16 @@
 package edu.platform.service;
 
+import edu.platform.delivery.QuizPayloadCache;
 import edu.platform.dto.request.QuizRequest;
 import edu.platform.dto.response.QuizResponse;
 import edu.platform.entity.*;
 import edu.platform.exception.ResourceNotFoundException;
+import edu.platform.grading.AnswerKeyCache;
 import edu.platform.mapper.QuizMapper;
 import edu.platform.repository.*;
+import edu.platform.scheduler.AttemptExpiryScheduler;
+import edu.platform.tracking.CourseMembershipIndex;
+import edu.platform.util.TransactionCallbacks;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -15,6 +20,7 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
 
 @Service
 @RequiredArgsConstructor
@@ -27,6 +33,10 @@ public class QuizService {
     private final AnswerOptionRepository answerOptionRepository;
     private final QuizMapper quizMapper;
     private final CourseService courseService;
+    private final CourseMembershipIndex membershipIndex;
+    private final AnswerKeyCache answerKeyCache;
+    private final QuizPayloadCache quizPayloadCache;
+    private final AttemptExpiryScheduler attemptExpiryScheduler;
     
     @Transactional(propagation = Propagation.REQUIRED, isolation = Isolation.READ_COMMITTED)
     public QuizResponse createQuiz(QuizRequest request, Long teacherId) {
@@ -44,6 +54,7 @@ public class QuizService {
         quiz.setIsActive(true);
         
         Quiz savedQuiz = quizRepository.save(quiz);
+        membershipIndex.quizCreated(savedQuiz.getId(), course.getId());
         
         // Create questions and answer options
         if (request.getQuestions() != null && !request.getQuestions().isEmpty()) {
@@ -125,12 +136,19 @@ public class QuizService {
             throw new IllegalArgumentException("Teacher can only update quizzes for their own courses");
         }
         
+        boolean timeLimitChanged = !Objects.equals(quiz.getTimeLimitMinutes(), request.getTimeLimitMinutes());
         quiz.setTitle(request.getTitle());
         quiz.setDescription(request.getDescription());
         quiz.setMaxAttempts(request.getMaxAttempts());
         quiz.setTimeLimitMinutes(request.getTimeLimitMinutes());
         
         Quiz savedQuiz = quizRepository.save(quiz);
+        answerKeyCache.invalidate(id);
+        quizPayloadCache.invalidate(id);
+        if (timeLimitChanged) {
+            // Open attempts now expire at a different time, or not at all
+            TransactionCallbacks.afterCommit(() -> attemptExpiryScheduler.rescheduleQuiz(id));
+        }
         log.info("Quiz updated successfully with ID: {}", savedQuiz.getId());
         
         return quizMapper.toResponse(savedQuiz);
@@ -150,6 +168,8 @@ public class QuizService {
         
         quiz.setIsActive(false);
         quizRepository.save(quiz);
+        answerKeyCache.invalidate(id);
+        quizPayloadCache.invalidate(id);
         log.info("Quiz deactivated successfully with ID: {}", id);
     }
     
@@ -0,0 +1,356 @@
+package edu.platform.service;
+
+import edu.platform.calculation.RecalculationChunkProcessor;
+import edu.platform.calculation.RecalculationChunkProcessor.AttemptRow;
+import edu.platform.config.AsyncConfig;
+import edu.platform.dto.request.RecalculationRequest;
+import edu.platform.dto.response.RecalculationJobResponse;
+import edu.platform.entity.RecalculationJob;
+import edu.platform.entity.enums.RecalculationJobStatus;
+import edu.platform.exception.BusinessException;
+import edu.platform.exception.ResourceNotFoundException;
+import edu.platform.grading.AnswerKey;
+import edu.platform.grading.AnswerKeyCache;
+import edu.platform.repository.QuestionRepository;
+import edu.platform.repository.QuizRepository;
+import edu.platform.repository.RecalculationJobRepository;
+import edu.platform.util.TransactionCallbacks;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Bulk recalculation of the test results of a quiz.
+ * Completed attempts are read in id order, in waves of parallelism x chunk-size attempts;
+ * the chunks of a wave are regraded in parallel, each in its own transaction, and the
+ * job's checkpoint advances once the whole wave is done. A failed, cancelled or
+ * interrupted job resumes from its checkpoint; chunks of an unfinished wave are simply
+ * regraded again. The instance running a job sends heartbeats every heartbeat-interval-ms;
+ * a job without one for stale-after-ms, e.g. because its instance died, is taken over by
+ * the first instance to notice, and the old owner's checkpoints are ignored from then on.
+ */
+@Service
+@Slf4j
+public class ResultRecalculationService {
+
+    private static final List<RecalculationJobStatus> ACTIVE =
+            List.of(RecalculationJobStatus.PENDING, RecalculationJobStatus.RUNNING);
+
+    private static final String ATTEMPT_FILTER = "FROM quiz_attempts qa " +
+            "WHERE qa.quiz_id = ? AND qa.is_completed = TRUE AND qa.id > ? ";
+
+    private static final String QUESTION_FILTER = "AND EXISTS (SELECT 1 FROM student_answers sa " +
+            "WHERE sa.attempt_id = qa.id AND sa.question_id = ANY (?)) ";
+
+    private final RecalculationJobRepository jobRepository;
+    private final QuizRepository quizRepository;
+    private final QuestionRepository questionRepository;
+    private final AnswerKeyCache answerKeyCache;
+    private final RecalculationChunkProcessor chunkProcessor;
+    private final JdbcTemplate jdbcTemplate;
+    private final ThreadPoolTaskExecutor executor;
+    private final Counter recalculatedAttempts;
+
+    /** Jobs with a coordinator thread in this instance */
+    private final Set<Long> running = ConcurrentHashMap.newKeySet();
+
+    /** Identifies this instance as the owner of the jobs it runs */
+    private final String instanceId = UUID.randomUUID().toString();
+
+    @Value("${test-result.recalculation.parallelism:4}")
+    private int parallelism;
+
+    @Value("${test-result.recalculation.chunk-size:200}")
+    private int chunkSize;
+
+    @Value("${test-result.recalculation.stale-after-ms:60000}")
+    private long staleAfterMs;
+
+    public ResultRecalculationService(RecalculationJobRepository jobRepository,
+                                      QuizRepository quizRepository,
+                                      QuestionRepository questionRepository,
+                                      AnswerKeyCache answerKeyCache,
+                                      RecalculationChunkProcessor chunkProcessor,
+                                      JdbcTemplate jdbcTemplate,
+                                      @Qualifier(AsyncConfig.RESULT_RECALCULATION_EXECUTOR) ThreadPoolTaskExecutor executor,
+                                      MeterRegistry meterRegistry) {
+        this.jobRepository = jobRepository;
+        this.quizRepository = quizRepository;
+        this.questionRepository = questionRepository;
+        this.answerKeyCache = answerKeyCache;
+        this.chunkProcessor = chunkProcessor;
+        this.jdbcTemplate = jdbcTemplate;
+        this.executor = executor;
+        this.recalculatedAttempts = Counter.builder("test.result.recalculation.attempts")
+                .description("Attempts regraded by bulk recalculation jobs")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Create a job for a quiz and start it once the transaction commits.
+     * The quiz's cached answer key is dropped so the job and new submissions grade against the current key.
+     */
+    @Transactional
+    public RecalculationJobResponse startRecalculation(Long quizId, RecalculationRequest request) {
+        if (!quizRepository.existsById(quizId)) {
+            throw new ResourceNotFoundException("Quiz not found with ID: " + quizId);
+        }
+        if (jobRepository.existsByQuizIdAndStatusIn(quizId, ACTIVE)) {
+            throw new BusinessException("A recalculation is already running for quiz " + quizId);
+        }
+
+        Set<Long> questionIds = request != null && request.getQuestionIds() != null
+                ? new HashSet<>(request.getQuestionIds())
+                : new HashSet<>();
+        RecalculationJob job = jobRepository.save(RecalculationJob.builder()
+                .quizId(quizId)
+                .questionIds(questionIds)
+                .totalAttempts(countAttempts(quizId, questionIds))
+                .build());
+
+        answerKeyCache.invalidate(quizId);
+        Long jobId = job.getId();
+        TransactionCallbacks.afterCommit(() -> launch(jobId));
+
+        log.info("Created recalculation job {} for quiz {}: {} attempts, questions={}",
+                jobId, quizId, job.getTotalAttempts(), questionIds.isEmpty() ? "all" : questionIds);
+        return toResponse(job);
+    }
+
+    /**
+     * Restart a failed or cancelled job from its checkpoint.
+     */
+    @Transactional
+    public RecalculationJobResponse resumeRecalculation(Long jobId) {
+        RecalculationJob job = findJob(jobId);
+        if (jobRepository.existsByQuizIdAndStatusIn(job.getQuizId(), ACTIVE)) {
+            throw new BusinessException("A recalculation is already running for quiz " + job.getQuizId());
+        }
+        int updated = jobRepository.transition(jobId,
+                List.of(RecalculationJobStatus.FAILED, RecalculationJobStatus.CANCELLED),
+                RecalculationJobStatus.PENDING, null, null, LocalDateTime.now());
+        if (updated == 0) {
+            throw new BusinessException("Only failed or cancelled recalculation jobs can be resumed");
+        }
+        TransactionCallbacks.afterCommit(() -> launch(jobId));
+        log.info("Resuming recalculation job {} after attempt {}", jobId, job.getLastAttemptId());
+        return getJob(jobId);
+    }
+
+    /**
+     * Stop a job after the wave in progress; it can be resumed later.
+     */
+    @Transactional
+    public RecalculationJobResponse cancelRecalculation(Long jobId) {
+        findJob(jobId);
+        LocalDateTime now = LocalDateTime.now();
+        int updated = jobRepository.transition(jobId, ACTIVE, RecalculationJobStatus.CANCELLED, null, now, now);
+        if (updated == 0) {
+            throw new BusinessException("Recalculation job " + jobId + " is not running");
+        }
+        log.info("Cancelled recalculation job {}", jobId);
+        return getJob(jobId);
+    }
+
+    @Transactional(readOnly = true)
+    public RecalculationJobResponse getJob(Long jobId) {
+        return toResponse(findJob(jobId));
+    }
+
+    @Transactional(readOnly = true)
+    public List<RecalculationJobResponse> getJobsForQuiz(Long quizId) {
+        return jobRepository.findByQuizIdOrderByCreatedAtDesc(quizId).stream()
+                .map(this::toResponse)
+                .toList();
+    }
+
+    @Scheduled(fixedDelayString = "${test-result.recalculation.heartbeat-interval-ms:10000}")
+    public void sendHeartbeats() {
+        if (!running.isEmpty()) {
+            jobRepository.heartbeat(Set.copyOf(running), instanceId, LocalDateTime.now());
+        }
+    }
+
+    /**
+     * Take over jobs whose instance stopped sending heartbeats, including jobs
+     * that were pending or running when a previous instance of this node stopped.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${test-result.recalculation.stale-after-ms:60000}",
+               initialDelayString = "${test-result.recalculation.stale-after-ms:60000}")
+    public void resumeInterruptedJobs() {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime staleBefore = now.minus(staleAfterMs, ChronoUnit.MILLIS);
+        for (RecalculationJob job : jobRepository.findByStatusIn(ACTIVE)) {
+            if (running.contains(job.getId())
+                    || jobRepository.releaseStale(job.getId(), ACTIVE, staleBefore, now) == 0) {
+                continue;
+            }
+            log.info("Resuming interrupted recalculation job {} after attempt {}", job.getId(), job.getLastAttemptId());
+            launch(job.getId());
+        }
+    }
+
+    private void launch(Long jobId) {
+        if (!running.add(jobId)) {
+            return;
+        }
+        Thread coordinator = new Thread(() -> coordinate(jobId), "result-recalculation-job-" + jobId);
+        coordinator.setDaemon(true);
+        coordinator.start();
+    }
+
+    /**
+     * Run the job, and run it again if it was resumed while this coordinator was finishing
+     * a wave: such a resume finds the job still running here and does not launch it.
+     */
+    private void coordinate(Long jobId) {
+        do {
+            try {
+                run(jobId);
+            } finally {
+                running.remove(jobId);
+            }
+        } while (jobRepository.findStatusById(jobId) == RecalculationJobStatus.PENDING && running.add(jobId));
+    }
+
+    private void run(Long jobId) {
+        if (jobRepository.claim(jobId, instanceId, LocalDateTime.now()) == 0) {
+            return;
+        }
+        try {
+            RecalculationJob job = findJob(jobId);
+            AnswerKey answerKey = AnswerKey.compile(job.getQuizId(),
+                    questionRepository.findByQuizIdWithAnswerOptions(job.getQuizId()));
+            long lastAttemptId = job.getLastAttemptId();
+
+            while (jobRepository.findStatusById(jobId) == RecalculationJobStatus.RUNNING) {
+                long waveStart = System.currentTimeMillis();
+                List<AttemptRow> wave = loadAttempts(job.getQuizId(), job.getQuestionIds(), lastAttemptId,
+                        parallelism * chunkSize);
+                if (wave.isEmpty()) {
+                    LocalDateTime now = LocalDateTime.now();
+                    jobRepository.transition(jobId, List.of(RecalculationJobStatus.RUNNING),
+                            RecalculationJobStatus.COMPLETED, null, now, now);
+                    log.info("Recalculation job {} completed", jobId);
+                    return;
+                }
+
+                List<CompletableFuture<Integer>> chunks = new ArrayList<>();
+                for (int from = 0; from < wave.size(); from += chunkSize) {
+                    List<AttemptRow> chunk = wave.subList(from, Math.min(from + chunkSize, wave.size()));
+                    chunks.add(CompletableFuture.supplyAsync(() -> chunkProcessor.process(answerKey, chunk), executor));
+                }
+                CompletableFuture.allOf(chunks.toArray(CompletableFuture[]::new)).join();
+
+                lastAttemptId = wave.get(wave.size() - 1).id();
+                if (jobRepository.checkpoint(jobId, instanceId, lastAttemptId, wave.size(),
+                        System.currentTimeMillis() - waveStart) == 0) {
+                    log.info("Recalculation job {} was taken over by another instance", jobId);
+                    return;
+                }
+                recalculatedAttempts.increment(wave.size());
+                log.debug("Recalculation job {} regraded {} attempts up to attempt {}", jobId, wave.size(), lastAttemptId);
+            }
+            log.info("Recalculation job {} stopped at attempt {}", jobId, lastAttemptId);
+        } catch (Exception e) {
+            Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+            log.error("Recalculation job {} failed", jobId, cause);
+            String message = String.valueOf(cause.getMessage());
+            LocalDateTime now = LocalDateTime.now();
+            jobRepository.transition(jobId, List.of(RecalculationJobStatus.RUNNING), RecalculationJobStatus.FAILED,
+                    message.length() > 500 ? message.substring(0, 500) : message, now, now);
+        }
+    }
+
+    private List<AttemptRow> loadAttempts(Long quizId, Set<Long> questionIds, long afterAttemptId, int limit) {
+        String sql = "SELECT qa.id, qa.student_id, qa.started_at, qa.completed_at " + ATTEMPT_FILTER
+                + (questionIds.isEmpty() ? "" : QUESTION_FILTER)
+                + "ORDER BY qa.id LIMIT ?";
+        return jdbcTemplate.query(sql,
+                ps -> {
+                    int index = bindFilter(ps, quizId, questionIds, afterAttemptId);
+                    ps.setInt(index, limit);
+                },
+                (rs, rowNum) -> new AttemptRow(
+                        rs.getLong(1),
+                        rs.getLong(2),
+                        rs.getTimestamp(3).toLocalDateTime(),
+                        toLocalDateTime(rs.getTimestamp(4))));
+    }
+
+    private int countAttempts(Long quizId, Set<Long> questionIds) {
+        String sql = "SELECT COUNT(*) " + ATTEMPT_FILTER + (questionIds.isEmpty() ? "" : QUESTION_FILTER);
+        Integer count = jdbcTemplate.query(sql,
+                ps -> bindFilter(ps, quizId, questionIds, 0L),
+                rs -> rs.next() ? rs.getInt(1) : 0);
+        return count != null ? count : 0;
+    }
+
+    /**
+     * @return index of the next parameter
+     */
+    private int bindFilter(PreparedStatement ps, Long quizId, Set<Long> questionIds,
+                           long afterAttemptId) throws SQLException {
+        ps.setLong(1, quizId);
+        ps.setLong(2, afterAttemptId);
+        if (questionIds.isEmpty()) {
+            return 3;
+        }
+        ps.setArray(3, ps.getConnection().createArrayOf("bigint", questionIds.toArray()));
+        return 4;
+    }
+
+    private RecalculationJob findJob(Long jobId) {
+        return jobRepository.findById(jobId)
+                .orElseThrow(() -> new ResourceNotFoundException("Recalculation job not found with ID: " + jobId));
+    }
+
+    private RecalculationJobResponse toResponse(RecalculationJob job) {
+        int total = job.getTotalAttempts();
+        int processed = job.getProcessedAttempts();
+        long millis = job.getProcessingMillis();
+        return RecalculationJobResponse.builder()
+                .id(job.getId())
+                .quizId(job.getQuizId())
+                .questionIds(Set.copyOf(job.getQuestionIds()))
+                .status(job.getStatus())
+                .totalAttempts(total)
+                .processedAttempts(processed)
+                .progressPercent(total > 0 ? Math.min(100.0, processed * 100.0 / total) : 100.0)
+                .attemptsPerSecond(millis > 0 ? processed * 1000.0 / millis : null)
+                .lastAttemptId(job.getLastAttemptId())
+                .errorMessage(job.getErrorMessage())
+                .startedAt(job.getStartedAt())
+                .finishedAt(job.getFinishedAt())
+                .createdAt(job.getCreatedAt())
+                .build();
+    }
+
+    private static LocalDateTime toLocalDateTime(Timestamp timestamp) {
+        return timestamp != null ? timestamp.toLocalDateTime() : null;
+    }
+}
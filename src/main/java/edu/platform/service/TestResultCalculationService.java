@@ -4,18 +4,22 @@ import edu.platform.dto.request.TestResultCalculationRequest;
 import edu.platform.entity.*;
 import edu.platform.entity.enums.TestResultStatus;
 import edu.platform.exception.ResourceNotFoundException;
+import edu.platform.grading.AnswerKey;
+import edu.platform.grading.AnswerKeyCache;
+import edu.platform.grading.GradingEngine;
+import edu.platform.grading.GradingResult;
 import edu.platform.repository.*;
 import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
 import io.github.resilience4j.retry.annotation.Retry;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Isolation;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
-import java.math.RoundingMode;
 import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.List;
@@ -32,8 +36,12 @@ public class TestResultCalculationService {
     
     private final QuizAttemptRepository quizAttemptRepository;
     private final StudentAnswerRepository studentAnswerRepository;
-    private final QuestionRepository questionRepository;
     private final TestResultRepository testResultRepository;
+    private final AnswerKeyCache answerKeyCache;
+    private final GradingEngine gradingEngine;
+    
+    @Value("${test-result.processing.passing-score-default:70.0}")
+    private BigDecimal defaultPassingScore;
     
     /**
      * Calculate test result with circuit breaker and retry protection.
@@ -66,47 +74,28 @@ public class TestResultCalculationService {
             throw new IllegalStateException("Cannot calculate result for incomplete attempt");
         }
         
-        // Load all student answers
-        List<StudentAnswer> answers = studentAnswerRepository.findByAttemptIdWithQuestions(
+        // Load all student answers with their selected options
+        List<StudentAnswer> answers = studentAnswerRepository.findByAttemptIdWithSelectedOptions(
             request.getQuizAttemptId());
         
-        // Load all questions for the quiz
-        List<Question> questions = questionRepository.findByQuizIdWithAnswerOptions(
-            attempt.getQuiz().getId());
+        // Grade against the cached answer key of the quiz
+        AnswerKey answerKey = answerKeyCache.get(attempt.getQuiz().getId());
         
         // Calculate scores
-        BigDecimal totalScore = BigDecimal.ZERO;
-        BigDecimal maxPossibleScore = BigDecimal.ZERO;
-        int correctAnswersCount = 0;
-        
-        for (Question question : questions) {
-            maxPossibleScore = maxPossibleScore.add(BigDecimal.valueOf(question.getPoints()));
-            
-            // Find corresponding student answer
-            StudentAnswer studentAnswer = answers.stream()
-                    .filter(ans -> ans.getQuestion().getId().equals(question.getId()))
-                    .findFirst()
-                    .orElse(null);
-            
-            if (studentAnswer != null && Boolean.TRUE.equals(studentAnswer.getIsCorrect())) {
-                totalScore = totalScore.add(studentAnswer.getPointsEarned());
-                correctAnswersCount++;
-            }
-        }
+        GradingResult<StudentAnswer> grading = gradingEngine.grade(answerKey, answers,
+                studentAnswer -> studentAnswer.getQuestion().getId(), StudentAnswer::getSelectedOptionIds);
+        BigDecimal totalScore = grading.getScore();
+        BigDecimal maxPossibleScore = grading.getMaxScore();
+        int correctAnswersCount = grading.getCorrectAnswers();
         
         // Calculate percentage
-        BigDecimal percentage = BigDecimal.ZERO;
-        if (maxPossibleScore.compareTo(BigDecimal.ZERO) > 0) {
-            percentage = totalScore
-                    .multiply(BigDecimal.valueOf(100))
-                    .divide(maxPossibleScore, 2, RoundingMode.HALF_UP);
-        }
+        BigDecimal percentage = grading.getPercentage();
         
         // Determine status
         TestResultStatus status;
         BigDecimal passingScore = request.getPassingScore() != null 
             ? request.getPassingScore() 
-            : BigDecimal.valueOf(70); // Default 70%
+            : defaultPassingScore;
         
         if (percentage.compareTo(passingScore) >= 0) {
             status = TestResultStatus.PASSED;
@@ -135,7 +124,7 @@ public class TestResultCalculationService {
                 .startedAt(attempt.getStartedAt())
                 .completedAt(attempt.getCompletedAt())
                 .correctAnswers(correctAnswersCount)
-                .totalQuestions(questions.size())
+                .totalQuestions(grading.getTotalQuestions())
                 .calculationTimeMs(System.currentTimeMillis() - startTime)
                 .build();
         
@@ -182,24 +171,4 @@ public class TestResultCalculationService {
             throw new RuntimeException("Test result calculation completely failed", fallbackException);
         }
     }
-    
-    /**
-     * Mark timed-out attempts as TIMEOUT status
-     */
-    @Transactional(propagation = Propagation.REQUIRES_NEW)
-    public void markTimedOutAttempts(int timeoutMinutes) {
-        LocalDateTime timeout = LocalDateTime.now().minusMinutes(timeoutMinutes);
-        List<TestResult> timedOut = testResultRepository.findTimedOutAttempts(timeout);
-        
-        for (TestResult result : timedOut) {
-            result.setStatus(TestResultStatus.TIMEOUT);
-            result.setCompletedAt(LocalDateTime.now());
-            result.setErrorMessage("Test timed out after " + timeoutMinutes + " minutes");
-            testResultRepository.save(result);
-        }
-        
-        if (!timedOut.isEmpty()) {
-            log.info("Marked {} test attempts as timed out", timedOut.size());
-        }
-    }
 }
\ No newline at end of file
@@ -131,13 +131,4 @@ public class TestResultService {
     public boolean resultExistsForAttempt(Long attemptId) {
         return testResultRepository.existsByQuizAttemptId(attemptId);
     }
-    
-    /**
-     * Mark old in-progress attempts as timed out
-     */
-    @Transactional
-    public void processTimedOutAttempts(int timeoutMinutes) {
-        log.info("Processing timed out test attempts (timeout: {} minutes)", timeoutMinutes);
-        calculationService.markTimedOutAttempts(timeoutMinutes);
-    }
 }
\ No newline at end of file
@@ -0,0 +1,190 @@
+package edu.platform.service;
+
+import edu.platform.config.AsyncConfig;
+import edu.platform.dto.request.UserRegistrationRequest;
+import edu.platform.dto.response.UserImportResponse;
+import edu.platform.userimport.ImportRow;
+import edu.platform.userimport.NewUser;
+import edu.platform.userimport.UserBatchWriter;
+import edu.platform.userimport.UserImportReader;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+
+/**
+ * Bulk registration of users from a streamed CSV or NDJSON upload.
+ * Rows are validated as they are read and collected into chunks of chunk-size. For each chunk
+ * the already registered emails are looked up with one query, the remaining passwords are
+ * hashed in parallel on the import executor, and the users are inserted as one JDBC batch.
+ * A row that cannot be imported is reported with its line number and does not stop the import.
+ */
+@Service
+@Slf4j
+public class UserImportService {
+
+    private static final String EXISTING_EMAILS_SQL = "SELECT email FROM users WHERE email = ANY (?)";
+
+    private final UserImportReader reader;
+    private final UserBatchWriter writer;
+    private final JdbcTemplate jdbcTemplate;
+    private final PasswordEncoder passwordEncoder;
+    private final Validator validator;
+    private final ThreadPoolTaskExecutor executor;
+    private final Counter importedUsers;
+    private final Counter failedRows;
+
+    @Value("${user-import.chunk-size:1000}")
+    private int chunkSize;
+
+    public UserImportService(UserImportReader reader,
+                             UserBatchWriter writer,
+                             JdbcTemplate jdbcTemplate,
+                             PasswordEncoder passwordEncoder,
+                             Validator validator,
+                             @Qualifier(AsyncConfig.USER_IMPORT_EXECUTOR) ThreadPoolTaskExecutor executor,
+                             MeterRegistry meterRegistry) {
+        this.reader = reader;
+        this.writer = writer;
+        this.jdbcTemplate = jdbcTemplate;
+        this.passwordEncoder = passwordEncoder;
+        this.validator = validator;
+        this.executor = executor;
+        this.importedUsers = Counter.builder("user.import.rows")
+                .tag("outcome", "imported")
+                .description("Rows of bulk user imports by outcome")
+                .register(meterRegistry);
+        this.failedRows = Counter.builder("user.import.rows")
+                .tag("outcome", "failed")
+                .description("Rows of bulk user imports by outcome")
+                .register(meterRegistry);
+    }
+
+    /**
+     * @throws IllegalArgumentException if the upload format or CSV header is not supported
+     */
+    public UserImportResponse importUsers(InputStream body, MediaType contentType) throws IOException {
+        long startedAt = System.currentTimeMillis();
+        ImportRun run = new ImportRun();
+
+        reader.read(body, contentType, row -> {
+            run.totalRows++;
+            accept(run, row);
+            if (run.pending.size() >= chunkSize) {
+                writeChunk(run);
+            }
+        });
+        writeChunk(run);
+        run.errors.sort(Comparator.comparingLong(UserImportResponse.RowError::getLine));
+
+        importedUsers.increment(run.imported);
+        failedRows.increment(run.errors.size());
+        log.info("Imported {} of {} users in {}ms, {} rows failed",
+                run.imported, run.totalRows, System.currentTimeMillis() - startedAt, run.errors.size());
+
+        return UserImportResponse.builder()
+                .totalRows(run.totalRows)
+                .imported(run.imported)
+                .failed(run.errors.size())
+                .errors(run.errors)
+                .build();
+    }
+
+    private void accept(ImportRun run, ImportRow row) {
+        if (!row.isReadable()) {
+            run.fail(row.line(), null, row.error());
+            return;
+        }
+        UserRegistrationRequest user = row.user();
+        Set<ConstraintViolation<UserRegistrationRequest>> violations = validator.validate(user);
+        if (!violations.isEmpty()) {
+            run.fail(row.line(), user.getEmail(), violations.stream()
+                    .map(ConstraintViolation::getMessage)
+                    .sorted()
+                    .collect(Collectors.joining("; ")));
+            return;
+        }
+        if (!run.seenEmails.add(user.getEmail())) {
+            run.fail(row.line(), user.getEmail(), "Duplicate email in upload");
+            return;
+        }
+        run.pending.add(row);
+    }
+
+    private void writeChunk(ImportRun run) {
+        if (run.pending.isEmpty()) {
+            return;
+        }
+        List<ImportRow> chunk = new ArrayList<>(run.pending);
+        run.pending.clear();
+
+        Set<String> existing = findExistingEmails(chunk);
+        List<CompletableFuture<NewUser>> hashes = new ArrayList<>(chunk.size());
+        for (ImportRow row : chunk) {
+            UserRegistrationRequest user = row.user();
+            if (existing.contains(user.getEmail())) {
+                run.fail(row.line(), user.getEmail(), "User with email " + user.getEmail() + " already exists");
+                continue;
+            }
+            hashes.add(CompletableFuture.supplyAsync(() -> new NewUser(row.line(), user.getEmail(),
+                    passwordEncoder.encode(user.getPassword()), user.getFullName(), user.getRole()), executor));
+        }
+        List<NewUser> users = hashes.stream().map(CompletableFuture::join).toList();
+        if (users.isEmpty()) {
+            return;
+        }
+
+        try {
+            writer.writeBatch(users);
+            run.imported += users.size();
+        } catch (DataAccessException e) {
+            log.warn("Batch of {} imported users failed, inserting individually: {}", users.size(), e.getMessage());
+            Map<NewUser, String> failed = writer.writeIndividually(users);
+            run.imported += users.size() - failed.size();
+            failed.forEach((user, error) -> run.fail(user.line(), user.email(), error));
+        }
+    }
+
+    private Set<String> findExistingEmails(List<ImportRow> chunk) {
+        Object[] emails = chunk.stream().map(row -> row.user().getEmail()).toArray();
+        return new HashSet<>(jdbcTemplate.query(EXISTING_EMAILS_SQL,
+                ps -> ps.setArray(1, ps.getConnection().createArrayOf("varchar", emails)),
+                (rs, rowNum) -> rs.getString(1)));
+    }
+
+    private static final class ImportRun {
+        private final Set<String> seenEmails = new HashSet<>();
+        private final List<ImportRow> pending = new ArrayList<>();
+        private final List<UserImportResponse.RowError> errors = new ArrayList<>();
+        private int totalRows;
+        private int imported;
+
+        private void fail(long line, String email, String message) {
+            errors.add(UserImportResponse.RowError.builder()
+                    .line(line)
+                    .email(email)
+                    .message(message)
+                    .build());
+        }
+    }
+}
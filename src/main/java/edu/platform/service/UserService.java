@@ -1,21 +1,29 @@
 package edu.platform.service;
 
+import edu.platform.admission.LoginThrottle;
 import edu.platform.dto.request.UserRegistrationRequest;
+import edu.platform.dto.response.AuthResponse;
 import edu.platform.dto.response.UserResponse;
 import edu.platform.entity.User;
 import edu.platform.entity.enums.UserRole;
+import edu.platform.exception.InvalidCredentialsException;
 import edu.platform.exception.ResourceNotFoundException;
 import edu.platform.exception.UserAlreadyExistsException;
 import edu.platform.mapper.UserMapper;
 import edu.platform.repository.UserRepository;
+import edu.platform.security.PasswordHasher;
+import edu.platform.security.PrincipalInvalidationListener;
+import edu.platform.security.TokenRevocationList;
+import edu.platform.util.JwtUtil;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Isolation;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.Instant;
 import java.util.List;
 
 @Service
@@ -25,9 +33,17 @@ public class UserService {
     
     private final UserRepository userRepository;
     private final UserMapper userMapper;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHasher passwordHasher;
+    private final PrincipalInvalidationListener principalInvalidation;
+    private final TokenRevocationList tokenRevocationList;
+    private final JwtUtil jwtUtil;
+    private final LoginThrottle loginThrottle;
+    private final TransactionTemplate transactionTemplate;
     
-    @Transactional(propagation = Propagation.REQUIRED, isolation = Isolation.READ_COMMITTED)
+    /**
+     * Not transactional, so no connection is held while the password is hashed;
+     * a concurrent registration of the same email fails on the unique constraint.
+     */
     public UserResponse registerUser(UserRegistrationRequest request) {
         log.debug("Registering user with email: {}", request.getEmail());
         
@@ -36,7 +52,7 @@ public class UserService {
         }
         
         User user = userMapper.toEntity(request);
-        user.setPassword(passwordEncoder.encode(request.getPassword()));
+        user.setPassword(passwordHasher.encode(request.getPassword()));
         
         User savedUser = userRepository.save(user);
         log.info("User registered successfully with ID: {}", savedUser.getId());
@@ -89,6 +105,63 @@ public class UserService {
         return userRepository.existsByEmail(email);
     }
     
+    /**
+     * Change the role of a user. Cached principals are evicted on all nodes and
+     * issued tokens are revoked, since they carry the old role.
+     */
+    @Transactional(propagation = Propagation.REQUIRED, isolation = Isolation.READ_COMMITTED)
+    public UserResponse changeRole(Long id, UserRole role) {
+        log.debug("Changing role of user ID: {} to {}", id, role);
+        
+        User user = userRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("User not found with ID: " + id));
+        
+        user.setRole(role);
+        User savedUser = userRepository.save(user);
+        principalInvalidation.publish(id, user.getEmail());
+        tokenRevocationList.revokeTokens(id);
+        log.info("Role of user ID: {} changed to {}", id, role);
+        
+        return userMapper.toResponse(savedUser);
+    }
+    
+    /**
+     * Change a user's own password after checking the current one, which is throttled like a login.
+     * All tokens issued so far are revoked, so the caller gets a replacement.
+     * Not transactional, so no connection is held while passwords are hashed; the update
+     * runs in a short transaction and fails if the password was changed in the meantime.
+     */
+    public AuthResponse changePassword(Long id, String clientIp, String currentPassword, String newPassword) {
+        log.debug("Changing password of user ID: {}", id);
+        
+        User user = userRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("User not found with ID: " + id));
+        
+        loginThrottle.check(clientIp, user.getEmail());
+        if (!passwordHasher.matches(currentPassword, user.getPassword())) {
+            throw new InvalidCredentialsException("Current password is incorrect");
+        }
+        String checkedHash = user.getPassword();
+        String newHash = passwordHasher.encode(newPassword);
+        
+        AuthResponse response = transactionTemplate.execute(status -> {
+            User current = userRepository.findById(id)
+                    .orElseThrow(() -> new ResourceNotFoundException("User not found with ID: " + id));
+            if (!current.getPassword().equals(checkedHash)) {
+                throw new InvalidCredentialsException("Current password is incorrect");
+            }
+            current.setPassword(newHash);
+            userRepository.save(current);
+            principalInvalidation.publish(id, current.getEmail());
+            Instant revokedUpTo = tokenRevocationList.revokeTokens(id);
+            String token = jwtUtil.generateToken(current.getEmail(), id, current.getRole(), revokedUpTo.plusSeconds(1));
+            return new AuthResponse(token, userMapper.toResponse(current));
+        });
+        log.info("Password of user ID: {} changed", id);
+        
+        return response;
+    }
+    
     // Internal method for authentication service
     @Transactional(readOnly = true, isolation = Isolation.READ_COMMITTED)
     public User findUserEntityByEmail(String email) {
@@ -0,0 +1,94 @@
+package edu.platform.statistics;
+
+import edu.platform.tracking.PendingVisit;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-course, per-day Space-Saving summaries of the most active users.
+ * Fed with every visit {@link CommittedVisitFeed} reads from the shared table, so each
+ * instance observes the visits of all instances. A date range can be answered from
+ * memory only when every day in it has been fully observed: days after the
+ * application started and within the configured window.
+ */
+@Component
+@Slf4j
+public class ActiveUserTracker {
+
+    private final Map<Long, Map<LocalDate, SpaceSaving>> courses = new ConcurrentHashMap<>();
+    private final LocalDate firstCompleteDay = LocalDate.now().plusDays(1);
+
+    @Value("${statistics.active-users.capacity:200}")
+    private int capacity;
+
+    @Value("${statistics.active-users.window-days:7}")
+    private int windowDays;
+
+    /**
+     * Count visits that were just committed to course_visits.
+     */
+    public void recordWritten(List<PendingVisit> visits) {
+        LocalDate oldestKept = LocalDate.now().minusDays(windowDays - 1L);
+        for (PendingVisit visit : visits) {
+            LocalDate day = visit.getVisitedAt().toLocalDate();
+            if (day.isBefore(oldestKept)) {
+                continue;
+            }
+            SpaceSaving summary = courses
+                    .computeIfAbsent(visit.getCourseId(), k -> new ConcurrentHashMap<>())
+                    .computeIfAbsent(day, k -> new SpaceSaving(capacity));
+            synchronized (summary) {
+                summary.offer(visit.getUserId());
+            }
+        }
+    }
+
+    /**
+     * Most active users of a course in [from, to], if that range is covered by memory.
+     *
+     * @return empty when the range or limit cannot be answered from memory
+     */
+    public Optional<List<SpaceSaving.Entry>> top(Long courseId, LocalDate from, LocalDate to, int limit) {
+        if (!covers(from, to) || limit > capacity) {
+            return Optional.empty();
+        }
+        SpaceSaving window = new SpaceSaving(capacity);
+        Map<LocalDate, SpaceSaving> days = courses.getOrDefault(courseId, Map.of());
+        for (LocalDate day = from; !day.isAfter(to); day = day.plusDays(1)) {
+            SpaceSaving summary = days.get(day);
+            if (summary != null) {
+                synchronized (summary) {
+                    window.merge(summary);
+                }
+            }
+        }
+        return Optional.of(window.top(limit));
+    }
+
+    public boolean covers(LocalDate from, LocalDate to) {
+        LocalDate today = LocalDate.now();
+        return from != null && to != null
+                && !from.isBefore(firstCompleteDay)
+                && !from.isBefore(today.minusDays(windowDays - 1L))
+                && !from.isAfter(to);
+    }
+
+    /**
+     * Drop days that have left the window.
+     */
+    @Scheduled(cron = "${statistics.active-users.prune-cron:0 5 0 * * *}")
+    public void pruneExpiredDays() {
+        LocalDate oldestKept = LocalDate.now().minusDays(windowDays - 1L);
+        courses.values().forEach(days -> days.keySet().removeIf(day -> day.isBefore(oldestKept)));
+        courses.values().removeIf(Map::isEmpty);
+        log.debug("Pruned active user summaries older than {}", oldestKept);
+    }
+}
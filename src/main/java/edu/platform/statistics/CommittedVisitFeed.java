@@ -0,0 +1,118 @@
+package edu.platform.statistics;
+
+import edu.platform.entity.enums.VisitType;
+import edu.platform.tracking.PendingVisit;
+import edu.platform.tracking.VisitWriteBarrier;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tails course_visits and hands every committed visit to the in-memory statistics.
+ * Each instance follows the shared table rather than its own ingestion queue, so all
+ * instances see the same visits, whichever node (or manual entry) wrote them. Reads stop
+ * at the in-flight bound shared by all instances, so no visit is skipped and writers are
+ * locked out once per feed-interval-ms however many instances there are.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class CommittedVisitFeed {
+
+    private static final String READ_SQL = "SELECT id, user_id, course_id, lesson_id, quiz_id, visit_type, " +
+            "duration_seconds, visited_at FROM course_visits WHERE id > ? AND id <= ? ORDER BY id LIMIT ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final VisitWriteBarrier writeBarrier;
+    private final LiveCourseStatistics liveStatistics;
+    private final ActiveUserTracker activeUserTracker;
+
+    @Value("${statistics.live.feed-interval-ms:2000}")
+    private long intervalMs;
+
+    @Value("${statistics.live.feed-batch-size:10000}")
+    private int batchSize;
+
+    private long position;
+    private Thread poller;
+    private volatile boolean running;
+
+    /**
+     * Start after the current end of the table; visits before it are covered by seeding.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        Long last = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM course_visits", Long.class);
+        position = last != null ? last : 0;
+        running = true;
+        poller = new Thread(this::run, "committed-visit-feed");
+        poller.setDaemon(true);
+        poller.start();
+        log.info("Committed visit feed started after visit id {}", position);
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        if (poller == null) {
+            return;
+        }
+        running = false;
+        poller.interrupt();
+        poller.join(TimeUnit.SECONDS.toMillis(5));
+    }
+
+    private void run() {
+        while (running) {
+            try {
+                int read;
+                do {
+                    read = poll();
+                } while (read >= batchSize && running);
+                Thread.sleep(intervalMs);
+            } catch (InterruptedException e) {
+                return;
+            } catch (Exception e) {
+                log.warn("Committed visit feed failed at visit id {}: {}", position, e.getMessage());
+                try {
+                    Thread.sleep(intervalMs);
+                } catch (InterruptedException ie) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private int poll() {
+        long bound = writeBarrier.sharedSettledBound(intervalMs);
+        if (bound <= position) {
+            return 0;
+        }
+        List<PendingVisit> visits = new ArrayList<>();
+        long[] lastId = {position};
+        jdbcTemplate.query(READ_SQL, rs -> {
+            lastId[0] = rs.getLong(1);
+            visits.add(PendingVisit.builder()
+                    .userId(rs.getLong(2))
+                    .courseId(rs.getLong(3))
+                    .lessonId(rs.getObject(4, Long.class))
+                    .quizId(rs.getObject(5, Long.class))
+                    .visitType(VisitType.valueOf(rs.getString(6)))
+                    .durationSeconds(rs.getObject(7, Integer.class))
+                    .visitedAt(rs.getTimestamp(8).toLocalDateTime())
+                    .build());
+        }, position, bound, batchSize);
+        liveStatistics.recordWritten(visits);
+        activeUserTracker.recordWritten(visits);
+        position = visits.size() < batchSize ? bound : lastId[0];
+        return visits.size();
+    }
+}
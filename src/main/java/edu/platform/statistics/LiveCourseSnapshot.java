@@ -0,0 +1,37 @@
+package edu.platform.statistics;
+
+import edu.platform.entity.enums.VisitType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+/**
+ * Point-in-time copy of the live counters of one course.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LiveCourseSnapshot {
+
+    private Long courseId;
+
+    private long totalVisits;
+
+    private Map<VisitType, Long> visitsByType;
+
+    private long totalDurationSeconds;
+
+    private long durationSamples;
+
+    private long uniqueVisitors;
+
+    private double uniqueVisitorsStandardError;
+
+    public long count(VisitType type) {
+        return visitsByType.getOrDefault(type, 0L);
+    }
+}
@@ -0,0 +1,222 @@
+package edu.platform.statistics;
+
+import edu.platform.entity.enums.VisitType;
+import edu.platform.tracking.PendingVisit;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-memory, per-course visit counters for the course statistics overview.
+ * Each course is seeded from its DAILY aggregated rows before today plus today's raw
+ * visits, then kept current with every visit {@link CommittedVisitFeed} reads, so all
+ * instances count the same visits. Counters are {@link LongAdder}s, so concurrent
+ * updates do not contend on a single cell.
+ *
+ * <p>Visits written while a course is being seeded may be missed or counted twice;
+ * entries are re-seeded after refresh-minutes to bound that drift, and entries not
+ * read for that long are dropped. Use the exact mode of the endpoint for an
+ * authoritative recount.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class LiveCourseStatistics {
+
+    private static final String SEED_AGGREGATED_SQL = "SELECT " +
+            "COALESCE(SUM(total_visits), 0), " +
+            "COALESCE(SUM(total_duration_seconds), 0), " +
+            "COALESCE(SUM(duration_samples), 0), " +
+            "COALESCE(SUM(lesson_views), 0), " +
+            "COALESCE(SUM(quiz_attempts), 0), " +
+            "COALESCE(SUM(quiz_views), 0), " +
+            "COALESCE(SUM(quiz_completions), 0) " +
+            "FROM course_statistics_aggregated " +
+            "WHERE course_id = ? AND period_type = 'DAILY' AND period_start < ?";
+
+    private static final String SEED_TODAY_SQL = "SELECT visit_type, COUNT(*), " +
+            "COALESCE(SUM(duration_seconds), 0), COUNT(duration_seconds) " +
+            "FROM course_visits " +
+            "WHERE course_id = ? AND visited_at >= ? " +
+            "GROUP BY visit_type";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final VisitorSketchStore visitorSketchStore;
+
+    @Value("${statistics.live.refresh-minutes:60}")
+    private long refreshMinutes;
+
+    @Value("${statistics.live.warm-up-days:7}")
+    private int warmUpDays;
+
+    private final Map<Long, CourseCounters> courses = new ConcurrentHashMap<>();
+
+    /**
+     * Seed courses that had activity recently in the background, so the first
+     * requests after a restart do not pay for seeding.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        if (warmUpDays <= 0) {
+            return;
+        }
+        Thread warmUp = new Thread(() -> {
+            try {
+                List<Long> courseIds = jdbcTemplate.queryForList(
+                        "SELECT DISTINCT course_id FROM course_statistics_aggregated " +
+                        "WHERE period_type = 'DAILY' AND period_start >= ?",
+                        Long.class, LocalDate.now().minusDays(warmUpDays));
+                courseIds.forEach(this::getSnapshot);
+                log.info("Live course statistics warmed up for {} courses", courseIds.size());
+            } catch (Exception e) {
+                log.warn("Live course statistics warm-up failed: {}", e.getMessage());
+            }
+        }, "live-statistics-warmup");
+        warmUp.setDaemon(true);
+        warmUp.start();
+    }
+
+    /**
+     * Count visits that were just committed to course_visits.
+     * Courses that have not been seeded yet are skipped; their seed reads these visits from the database.
+     */
+    public void recordWritten(List<PendingVisit> visits) {
+        for (PendingVisit visit : visits) {
+            CourseCounters counters = courses.get(visit.getCourseId());
+            if (counters != null) {
+                counters.record(visit);
+            }
+        }
+    }
+
+    /**
+     * Current counters of a course, seeding them first if needed.
+     */
+    public LiveCourseSnapshot getSnapshot(Long courseId) {
+        CourseCounters counters = courses.get(courseId);
+        if (counters == null || counters.isStale()) {
+            counters = seed(courseId);
+            courses.put(courseId, counters);
+        }
+        return counters.snapshot(courseId);
+    }
+
+    /**
+     * Drop stale counters; a course read again is simply re-seeded.
+     */
+    @Scheduled(fixedDelayString = "${statistics.live.evict-interval-ms:600000}")
+    public void evictStale() {
+        int before = courses.size();
+        courses.values().removeIf(CourseCounters::isStale);
+        log.debug("Evicted {} stale live course statistics", before - courses.size());
+    }
+
+    /**
+     * Drop the counters of a course so the next request re-seeds them.
+     */
+    public void evict(Long courseId) {
+        courses.remove(courseId);
+    }
+
+    private CourseCounters seed(Long courseId) {
+        LocalDate today = LocalDate.now();
+        CourseCounters counters = new CourseCounters(
+                visitorSketchStore.mergeDailySketches(courseId, null, today.minusDays(1)),
+                System.nanoTime() + TimeUnit.MINUTES.toNanos(refreshMinutes));
+
+        jdbcTemplate.query(SEED_AGGREGATED_SQL, rs -> {
+            counters.totalVisits.add(rs.getLong(1));
+            counters.totalDuration.add(rs.getLong(2));
+            counters.durationSamples.add(rs.getLong(3));
+            counters.byType.get(VisitType.LESSON_VIEW).add(rs.getLong(4));
+            counters.byType.get(VisitType.QUIZ_START).add(rs.getLong(5));
+            counters.byType.get(VisitType.QUIZ_VIEW).add(rs.getLong(6));
+            counters.byType.get(VisitType.QUIZ_COMPLETE).add(rs.getLong(7));
+        }, courseId, today);
+
+        jdbcTemplate.query(SEED_TODAY_SQL, rs -> {
+            long visits = rs.getLong(2);
+            counters.totalVisits.add(visits);
+            counters.byType.get(VisitType.valueOf(rs.getString(1))).add(visits);
+            counters.totalDuration.add(rs.getLong(3));
+            counters.durationSamples.add(rs.getLong(4));
+        }, courseId, today.atStartOfDay());
+
+        jdbcTemplate.query("SELECT DISTINCT user_id FROM course_visits WHERE course_id = ? AND visited_at >= ?",
+                rs -> {
+                    counters.addVisitor(rs.getLong(1));
+                }, courseId, today.atStartOfDay());
+
+        log.debug("Seeded live statistics for course {}", courseId);
+        return counters;
+    }
+
+    private static final class CourseCounters {
+
+        private final LongAdder totalVisits = new LongAdder();
+        private final LongAdder totalDuration = new LongAdder();
+        private final LongAdder durationSamples = new LongAdder();
+        private final Map<VisitType, LongAdder> byType = new EnumMap<>(VisitType.class);
+        private final HyperLogLog visitors;
+        private final long expiresAtNanos;
+
+        private CourseCounters(HyperLogLog visitors, long expiresAtNanos) {
+            this.visitors = visitors;
+            this.expiresAtNanos = expiresAtNanos;
+            for (VisitType type : VisitType.values()) {
+                byType.put(type, new LongAdder());
+            }
+        }
+
+        private void record(PendingVisit visit) {
+            totalVisits.increment();
+            byType.get(visit.getVisitType()).increment();
+            if (visit.getDurationSeconds() != null) {
+                totalDuration.add(visit.getDurationSeconds());
+                durationSamples.increment();
+            }
+            addVisitor(visit.getUserId());
+        }
+
+        private void addVisitor(long userId) {
+            synchronized (visitors) {
+                visitors.add(userId);
+            }
+        }
+
+        private boolean isStale() {
+            return System.nanoTime() - expiresAtNanos > 0;
+        }
+
+        private LiveCourseSnapshot snapshot(Long courseId) {
+            long uniqueVisitors;
+            synchronized (visitors) {
+                uniqueVisitors = visitors.estimate();
+            }
+            Map<VisitType, Long> counts = new EnumMap<>(VisitType.class);
+            byType.forEach((type, adder) -> counts.put(type, adder.sum()));
+            return LiveCourseSnapshot.builder()
+                    .courseId(courseId)
+                    .totalVisits(totalVisits.sum())
+                    .visitsByType(counts)
+                    .totalDurationSeconds(totalDuration.sum())
+                    .durationSamples(durationSamples.sum())
+                    .uniqueVisitors(uniqueVisitors)
+                    .uniqueVisitorsStandardError(visitors.standardError())
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package edu.platform.statistics;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Space-Saving heavy hitters summary (Metwally et al.).
+ * Tracks at most {@code capacity} ids; when full, a new id replaces the id with
+ * the smallest count and inherits that count as its error. Any id that occurred
+ * more than N / capacity times in a stream of N items is guaranteed to be tracked,
+ * and each reported count overestimates the true count by at most its error.
+ *
+ * <p>Not thread-safe.
+ */
+public class SpaceSaving {
+
+    private final int capacity;
+    private final Map<Long, Counter> counters;
+    /** Ids grouped by count, so the minimum is found in O(log capacity) */
+    private final TreeMap<Long, LinkedHashSet<Long>> buckets = new TreeMap<>();
+
+    public SpaceSaving(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Space-Saving capacity must be positive: " + capacity);
+        }
+        this.capacity = capacity;
+        this.counters = new HashMap<>(capacity * 2);
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public void offer(long id) {
+        offer(id, 1, 0);
+    }
+
+    /**
+     * Add the entries of another summary, e.g. to combine per-day summaries into a window.
+     * Errors of merged entries add up.
+     */
+    public void merge(SpaceSaving other) {
+        other.counters.forEach((id, counter) -> offer(id, counter.count, counter.error));
+    }
+
+    /**
+     * Entries with the highest counts, highest first
+     */
+    public List<Entry> top(int limit) {
+        List<Entry> entries = new ArrayList<>(counters.size());
+        counters.forEach((id, counter) -> entries.add(new Entry(id, counter.count, counter.error)));
+        entries.sort(Comparator.comparingLong(Entry::count).reversed());
+        return entries.size() > limit ? entries.subList(0, limit) : entries;
+    }
+
+    private void offer(long id, long count, long error) {
+        Counter counter = counters.get(id);
+        if (counter != null) {
+            move(id, counter, counter.count + count);
+            counter.error += error;
+            return;
+        }
+        if (counters.size() < capacity) {
+            counter = new Counter(0, error);
+            counters.put(id, counter);
+            move(id, counter, count);
+            return;
+        }
+        // Replace the id with the smallest count
+        Map.Entry<Long, LinkedHashSet<Long>> smallest = buckets.firstEntry();
+        Long evicted = smallest.getValue().iterator().next();
+        Counter evictedCounter = counters.remove(evicted);
+        removeFromBucket(evicted, evictedCounter.count);
+
+        counter = new Counter(0, evictedCounter.count + error);
+        counters.put(id, counter);
+        move(id, counter, evictedCounter.count + count);
+    }
+
+    private void move(long id, Counter counter, long newCount) {
+        if (counter.count > 0) {
+            removeFromBucket(id, counter.count);
+        }
+        counter.count = newCount;
+        buckets.computeIfAbsent(newCount, k -> new LinkedHashSet<>()).add(id);
+    }
+
+    private void removeFromBucket(long id, long count) {
+        LinkedHashSet<Long> bucket = buckets.get(count);
+        bucket.remove(id);
+        if (bucket.isEmpty()) {
+            buckets.remove(count);
+        }
+    }
+
+    /**
+     * Tracked id with its (over)estimated count and maximum overestimation
+     */
+    public record Entry(long id, long count, long error) {
+    }
+
+    private static final class Counter {
+        private long count;
+        private long error;
+
+        private Counter(long count, long error) {
+            this.count = count;
+            this.error = error;
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package edu.platform.statistics;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Unique visitor count estimated from merged HyperLogLog sketches.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UniqueVisitorEstimate {
+
+    private long estimate;
+
+    /** Relative standard error of the estimate, e.g. 0.016 for 1.6% */
+    private double standardError;
+
+    private int precision;
+
+    /** Number of per-day sketches merged */
+    private int sketches;
+}
@@ -0,0 +1,186 @@
+package edu.platform.statistics;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Maintains HyperLogLog visitor sketches in course_statistics_aggregated.visitor_sketch.
+ * DAILY sketches are built from visits; WEEKLY/MONTHLY sketches and arbitrary
+ * ranges are obtained by merging DAILY sketches. Callers provide the transaction.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class VisitorSketchStore {
+
+    private static final String UPDATE_SKETCH_SQL = "UPDATE course_statistics_aggregated " +
+            "SET visitor_sketch = ? " +
+            "WHERE course_id = ? AND period_type = ? AND period_start = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${statistics.sketch.precision:12}")
+    private int precision;
+
+    /**
+     * Add the visitors of visits in the id range (fromId, toId] to the DAILY sketches of their days.
+     * The DAILY rows must already exist.
+     */
+    public void addVisitsInIdRange(long fromId, long toId) {
+        Map<CourseDay, HyperLogLog> added = new HashMap<>();
+        jdbcTemplate.query("SELECT DISTINCT course_id, CAST(visited_at AS DATE) AS visit_date, user_id " +
+                        "FROM course_visits WHERE id > ? AND id <= ?",
+                rs -> {
+                    CourseDay key = new CourseDay(rs.getLong(1), rs.getDate(2).toLocalDate());
+                    added.computeIfAbsent(key, k -> new HyperLogLog(precision)).add(rs.getLong(3));
+                },
+                fromId, toId);
+        if (added.isEmpty()) {
+            return;
+        }
+
+        List<Long> courseIds = added.keySet().stream().map(CourseDay::courseId).distinct().toList();
+        List<LocalDate> dates = added.keySet().stream().map(CourseDay::date).distinct().toList();
+        jdbcTemplate.query("SELECT course_id, period_start, visitor_sketch FROM course_statistics_aggregated " +
+                        "WHERE period_type = 'DAILY' " +
+                        "AND course_id = ANY (?) AND period_start = ANY (?) " +
+                        "AND visitor_sketch IS NOT NULL",
+                ps -> {
+                    ps.setArray(1, ps.getConnection().createArrayOf("bigint", courseIds.toArray()));
+                    ps.setArray(2, ps.getConnection().createArrayOf("date",
+                            dates.stream().map(Date::valueOf).toArray()));
+                },
+                rs -> {
+                    CourseDay key = new CourseDay(rs.getLong(1), rs.getDate(2).toLocalDate());
+                    HyperLogLog sketch = added.get(key);
+                    if (sketch != null) {
+                        HyperLogLog existing = HyperLogLog.fromBytes(rs.getBytes(3));
+                        added.put(key, mergeAll(List.of(sketch, existing)));
+                    }
+                });
+
+        writeSketches("DAILY", added);
+    }
+
+    /**
+     * Rebuild the DAILY sketches of one day from the exact course_daily_visitors sets.
+     */
+    public void rebuildDailySketches(LocalDate date) {
+        Map<CourseDay, HyperLogLog> sketches = new HashMap<>();
+        jdbcTemplate.query("SELECT course_id, user_id FROM course_daily_visitors WHERE visit_date = ?",
+                rs -> {
+                    CourseDay key = new CourseDay(rs.getLong(1), date);
+                    sketches.computeIfAbsent(key, k -> new HyperLogLog(precision)).add(rs.getLong(2));
+                },
+                date);
+        writeSketches("DAILY", sketches);
+    }
+
+    /**
+     * Merge the DAILY sketches of [start, end] into the sketch of the given period row for every course.
+     */
+    public void rollUp(String periodType, LocalDate start, LocalDate end) {
+        Map<Long, List<HyperLogLog>> daily = new HashMap<>();
+        jdbcTemplate.query("SELECT course_id, visitor_sketch FROM course_statistics_aggregated " +
+                        "WHERE period_type = 'DAILY' AND period_start BETWEEN ? AND ? " +
+                        "AND visitor_sketch IS NOT NULL",
+                rs -> {
+                    daily.computeIfAbsent(rs.getLong(1), k -> new ArrayList<>())
+                            .add(HyperLogLog.fromBytes(rs.getBytes(2)));
+                },
+                start, end);
+
+        Map<CourseDay, HyperLogLog> merged = new HashMap<>();
+        daily.forEach((courseId, sketches) -> merged.put(new CourseDay(courseId, start), mergeAll(sketches)));
+        writeSketches(periodType, merged);
+    }
+
+    /**
+     * Estimate unique visitors of a course by merging its DAILY sketches.
+     *
+     * @param from first day, or null for no lower bound
+     * @param to   last day, or null for no upper bound
+     */
+    public UniqueVisitorEstimate estimateUniqueVisitors(Long courseId, LocalDate from, LocalDate to) {
+        List<HyperLogLog> sketches = loadDailySketches(courseId, from, to);
+        HyperLogLog merged = sketches.isEmpty() ? newSketch() : mergeAll(sketches);
+        return UniqueVisitorEstimate.builder()
+                .estimate(merged.estimate())
+                .standardError(merged.standardError())
+                .precision(merged.getPrecision())
+                .sketches(sketches.size())
+                .build();
+    }
+
+    /**
+     * Merged DAILY sketch of a course, at the configured precision.
+     *
+     * @param from first day, or null for no lower bound
+     * @param to   last day, or null for no upper bound
+     */
+    public HyperLogLog mergeDailySketches(Long courseId, LocalDate from, LocalDate to) {
+        HyperLogLog merged = newSketch();
+        for (HyperLogLog sketch : loadDailySketches(courseId, from, to)) {
+            if (sketch.getPrecision() >= merged.getPrecision()) {
+                merged.merge(sketch);
+            } else {
+                merged = mergeAll(List.of(merged, sketch));
+            }
+        }
+        return merged;
+    }
+
+    public HyperLogLog newSketch() {
+        return new HyperLogLog(precision);
+    }
+
+    private List<HyperLogLog> loadDailySketches(Long courseId, LocalDate from, LocalDate to) {
+        List<HyperLogLog> sketches = new ArrayList<>();
+        jdbcTemplate.query("SELECT visitor_sketch FROM course_statistics_aggregated " +
+                        "WHERE course_id = ? AND period_type = 'DAILY' " +
+                        "AND period_start >= ? AND period_start <= ? " +
+                        "AND visitor_sketch IS NOT NULL",
+                rs -> {
+                    sketches.add(HyperLogLog.fromBytes(rs.getBytes(1)));
+                },
+                courseId,
+                from != null ? from : LocalDate.of(1970, 1, 1),
+                to != null ? to : LocalDate.of(9999, 12, 31));
+        return sketches;
+    }
+
+    /**
+     * Merge sketches at the lowest precision among them, so sketches written
+     * before a precision change can still be combined.
+     */
+    static HyperLogLog mergeAll(List<HyperLogLog> sketches) {
+        int lowest = sketches.stream().mapToInt(HyperLogLog::getPrecision).min().orElseThrow();
+        HyperLogLog merged = new HyperLogLog(lowest);
+        sketches.forEach(merged::merge);
+        return merged;
+    }
+
+    private void writeSketches(String periodType, Map<CourseDay, HyperLogLog> sketches) {
+        if (sketches.isEmpty()) {
+            return;
+        }
+        List<Object[]> args = new ArrayList<>(sketches.size());
+        sketches.forEach((key, sketch) ->
+                args.add(new Object[]{sketch.toBytes(), key.courseId(), periodType, key.date()}));
+        jdbcTemplate.batchUpdate(UPDATE_SKETCH_SQL, args);
+        log.debug("Wrote {} {} visitor sketches", args.size(), periodType);
+    }
+
+    private record CourseDay(Long courseId, LocalDate date) {
+    }
+}
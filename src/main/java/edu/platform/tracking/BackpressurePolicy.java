@@ -0,0 +1,13 @@
+package edu.platform.tracking;
+
+/**
+ * What the ingestion queue does with a new visit when it is full.
+ */
+public enum BackpressurePolicy {
+    /** Reject the incoming visit */
+    DROP_NEWEST,
+    /** Evict the oldest queued visit to make room */
+    DROP_OLDEST,
+    /** Wait up to the configured block timeout, then reject */
+    BLOCK
+}
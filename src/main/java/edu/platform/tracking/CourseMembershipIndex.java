@@ -0,0 +1,113 @@
+package edu.platform.tracking;
+
+import edu.platform.exception.ResourceNotFoundException;
+import edu.platform.repository.CourseRepository;
+import edu.platform.repository.LessonRepository;
+import edu.platform.repository.QuizRepository;
+import edu.platform.repository.UserRepository;
+import edu.platform.util.TransactionCallbacks;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory index of which users and courses exist and which course each lesson and quiz
+ * belongs to. Lets visit tracking validate ids without loading entities. Misses fall back
+ * to a single-column lookup; LessonService, QuizService and CourseService keep the index
+ * in sync after their transactions commit.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class CourseMembershipIndex {
+    
+    private final CourseRepository courseRepository;
+    private final LessonRepository lessonRepository;
+    private final QuizRepository quizRepository;
+    private final UserRepository userRepository;
+    
+    private final Set<Long> knownUsers = ConcurrentHashMap.newKeySet();
+    private final Set<Long> knownCourses = ConcurrentHashMap.newKeySet();
+    private final Map<Long, Long> lessonCourses = new ConcurrentHashMap<>();
+    private final Map<Long, Long> quizCourses = new ConcurrentHashMap<>();
+    
+    /**
+     * A token can outlive its user, so the principal's id is checked like any other id.
+     */
+    public void requireUser(Long userId) {
+        if (knownUsers.contains(userId)) {
+            return;
+        }
+        if (!userRepository.existsById(userId)) {
+            throw new ResourceNotFoundException("User not found with ID: " + userId);
+        }
+        knownUsers.add(userId);
+    }
+    
+    public void requireCourse(Long courseId) {
+        if (knownCourses.contains(courseId)) {
+            return;
+        }
+        if (!courseRepository.existsById(courseId)) {
+            throw new ResourceNotFoundException("Course not found with ID: " + courseId);
+        }
+        knownCourses.add(courseId);
+    }
+    
+    public void requireLessonInCourse(Long lessonId, Long courseId) {
+        Long owner = lessonCourses.get(lessonId);
+        if (owner == null) {
+            owner = lessonRepository.findCourseIdById(lessonId)
+                    .orElseThrow(() -> new ResourceNotFoundException("Lesson not found with ID: " + lessonId));
+            lessonCourses.putIfAbsent(lessonId, owner);
+        }
+        if (!owner.equals(courseId)) {
+            throw new IllegalArgumentException(
+                    String.format("Lesson %d does not belong to course %d", lessonId, courseId)
+            );
+        }
+    }
+    
+    public void requireQuizInCourse(Long quizId, Long courseId) {
+        Long owner = quizCourses.get(quizId);
+        if (owner == null) {
+            owner = quizRepository.findCourseIdById(quizId)
+                    .orElseThrow(() -> new ResourceNotFoundException("Quiz not found with ID: " + quizId));
+            quizCourses.putIfAbsent(quizId, owner);
+        }
+        if (!owner.equals(courseId)) {
+            throw new IllegalArgumentException(
+                    String.format("Quiz %d does not belong to course %d", quizId, courseId)
+            );
+        }
+    }
+    
+    public void courseCreated(Long courseId) {
+        TransactionCallbacks.afterCommit(() -> knownCourses.add(courseId));
+    }
+    
+    public void courseDeleted(Long courseId) {
+        TransactionCallbacks.afterCommit(() -> {
+            knownCourses.remove(courseId);
+            lessonCourses.values().removeIf(courseId::equals);
+            quizCourses.values().removeIf(courseId::equals);
+            log.debug("Evicted course {} from membership index", courseId);
+        });
+    }
+    
+    public void lessonCreated(Long lessonId, Long courseId) {
+        TransactionCallbacks.afterCommit(() -> lessonCourses.put(lessonId, courseId));
+    }
+    
+    public void lessonDeleted(Long lessonId) {
+        TransactionCallbacks.afterCommit(() -> lessonCourses.remove(lessonId));
+    }
+    
+    public void quizCreated(Long quizId, Long courseId) {
+        TransactionCallbacks.afterCommit(() -> quizCourses.put(quizId, courseId));
+    }
+}
@@ -0,0 +1,81 @@
+package edu.platform.tracking;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Writes queued visits to course_visits with plain JDBC.
+ * Batches are sent as a single JDBC batch, which the driver rewrites into multi-row INSERTs
+ * (reWriteBatchedInserts=true on the datasource URL).
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class CourseVisitBatchWriter {
+    
+    private static final String INSERT_SQL = "INSERT INTO course_visits " +
+            "(user_id, course_id, lesson_id, quiz_id, visit_type, duration_seconds, " +
+            "device_type, ip_address, user_agent, visited_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final VisitWriteBarrier writeBarrier;
+    
+    /**
+     * Insert the whole batch in one transaction.
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void writeBatch(List<PendingVisit> visits) {
+        writeBarrier.enterWrite();
+        jdbcTemplate.batchUpdate(INSERT_SQL, visits, visits.size(), this::bind);
+    }
+    
+    /**
+     * Insert visits one by one, each in its own transaction.
+     * Used after a failed batch so that one bad row does not lose the rest.
+     *
+     * @return the visits that were written
+     */
+    public List<PendingVisit> writeIndividually(List<PendingVisit> visits) {
+        List<PendingVisit> written = new ArrayList<>(visits.size());
+        for (PendingVisit visit : visits) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    writeBarrier.enterWrite();
+                    jdbcTemplate.update(INSERT_SQL, ps -> bind(ps, visit));
+                });
+                written.add(visit);
+            } catch (Exception e) {
+                log.warn("Dropping visit that could not be written: user={}, course={}, type={}: {}",
+                        visit.getUserId(), visit.getCourseId(), visit.getVisitType(), e.getMessage());
+            }
+        }
+        return written;
+    }
+    
+    private void bind(PreparedStatement ps, PendingVisit visit) throws SQLException {
+        ps.setLong(1, visit.getUserId());
+        ps.setLong(2, visit.getCourseId());
+        ps.setObject(3, visit.getLessonId(), Types.BIGINT);
+        ps.setObject(4, visit.getQuizId(), Types.BIGINT);
+        ps.setString(5, visit.getVisitType().name());
+        ps.setObject(6, visit.getDurationSeconds(), Types.INTEGER);
+        ps.setString(7, visit.getDeviceType());
+        ps.setString(8, visit.getIpAddress());
+        ps.setString(9, visit.getUserAgent());
+        ps.setTimestamp(10, Timestamp.valueOf(visit.getVisitedAt()));
+    }
+}
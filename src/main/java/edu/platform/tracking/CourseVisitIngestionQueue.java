@@ -0,0 +1,193 @@
+package edu.platform.tracking;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bounded write-behind queue for course visits.
+ * Visits are coalesced by a single flusher thread and written in JDBC batches,
+ * either when max-batch-size visits are collected or when flush-interval-ms
+ * has passed since the first visit of the batch arrived.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class CourseVisitIngestionQueue {
+
+    private final CourseVisitBatchWriter batchWriter;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${visit-tracking.ingestion.queue-capacity:50000}")
+    private int queueCapacity;
+
+    @Value("${visit-tracking.ingestion.max-batch-size:500}")
+    private int maxBatchSize;
+
+    @Value("${visit-tracking.ingestion.flush-interval-ms:1000}")
+    private long flushIntervalMs;
+
+    @Value("${visit-tracking.ingestion.backpressure-policy:DROP_NEWEST}")
+    private BackpressurePolicy backpressurePolicy;
+
+    @Value("${visit-tracking.ingestion.block-timeout-ms:50}")
+    private long blockTimeoutMs;
+
+    private BlockingQueue<PendingVisit> queue;
+    private Thread flusher;
+    private volatile boolean running;
+
+    private Timer flushLatency;
+    private DistributionSummary batchSize;
+    private Counter droppedQueueFull;
+    private Counter droppedWriteFailure;
+
+    @PostConstruct
+    void start() {
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+
+        flushLatency = Timer.builder("visit.ingestion.flush.latency")
+                .description("Time spent writing one batch of visits")
+                .register(meterRegistry);
+        batchSize = DistributionSummary.builder("visit.ingestion.batch.size")
+                .description("Number of visits written per flush")
+                .register(meterRegistry);
+        droppedQueueFull = Counter.builder("visit.ingestion.dropped")
+                .description("Visits dropped before reaching the database")
+                .tag("reason", "queue_full")
+                .register(meterRegistry);
+        droppedWriteFailure = Counter.builder("visit.ingestion.dropped")
+                .description("Visits dropped before reaching the database")
+                .tag("reason", "write_failure")
+                .register(meterRegistry);
+        Gauge.builder("visit.ingestion.queue.size", queue, BlockingQueue::size)
+                .description("Visits waiting to be flushed")
+                .register(meterRegistry);
+
+        running = true;
+        flusher = new Thread(this::runFlushLoop, "visit-ingestion-flusher");
+        flusher.setDaemon(true);
+        flusher.start();
+
+        log.info("Visit ingestion queue started: capacity={}, maxBatch={}, flushInterval={}ms, policy={}",
+                queueCapacity, maxBatchSize, flushIntervalMs, backpressurePolicy);
+    }
+
+    /**
+     * Stop accepting new work and flush whatever is still queued.
+     */
+    @PreDestroy
+    void stop() throws InterruptedException {
+        running = false;
+        flusher.interrupt();
+        flusher.join(TimeUnit.SECONDS.toMillis(30));
+        if (!queue.isEmpty()) {
+            log.warn("Visit ingestion queue stopped with {} unflushed visits", queue.size());
+        }
+    }
+
+    /**
+     * Queue a visit for writing, applying the configured backpressure policy when full.
+     *
+     * @return true if the visit was accepted
+     */
+    public boolean enqueue(PendingVisit visit) {
+        switch (backpressurePolicy) {
+            case DROP_OLDEST -> {
+                while (!queue.offer(visit)) {
+                    if (queue.poll() != null) {
+                        droppedQueueFull.increment();
+                    }
+                }
+                return true;
+            }
+            case BLOCK -> {
+                try {
+                    if (queue.offer(visit, blockTimeoutMs, TimeUnit.MILLISECONDS)) {
+                        return true;
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            default -> {
+                if (queue.offer(visit)) {
+                    return true;
+                }
+            }
+        }
+        droppedQueueFull.increment();
+        log.debug("Visit ingestion queue full, dropping visit: user={}, course={}",
+                visit.getUserId(), visit.getCourseId());
+        return false;
+    }
+
+    private void runFlushLoop() {
+        List<PendingVisit> batch = new ArrayList<>(maxBatchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                collectBatch(batch);
+            } catch (InterruptedException e) {
+                // Woken up for shutdown; flush what we have and keep draining
+            }
+            if (!batch.isEmpty()) {
+                flush(batch);
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * Wait for the first visit, then keep collecting until the batch is full
+     * or flush-interval-ms has passed since that first visit.
+     */
+    private void collectBatch(List<PendingVisit> batch) throws InterruptedException {
+        PendingVisit first = queue.poll(flushIntervalMs, TimeUnit.MILLISECONDS);
+        if (first == null) {
+            return;
+        }
+        batch.add(first);
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(flushIntervalMs);
+
+        while (batch.size() < maxBatchSize) {
+            queue.drainTo(batch, maxBatchSize - batch.size());
+            long remaining = deadline - System.nanoTime();
+            if (batch.size() >= maxBatchSize || remaining <= 0 || !running) {
+                return;
+            }
+            PendingVisit next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                return;
+            }
+            batch.add(next);
+        }
+    }
+
+    private void flush(List<PendingVisit> batch) {
+        long start = System.nanoTime();
+        try {
+            batchWriter.writeBatch(batch);
+        } catch (Exception e) {
+            log.warn("Batch insert of {} visits failed, retrying row by row: {}", batch.size(), e.getMessage());
+            List<PendingVisit> written = batchWriter.writeIndividually(batch);
+            droppedWriteFailure.increment(batch.size() - written.size());
+        } finally {
+            flushLatency.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            batchSize.record(batch.size());
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package edu.platform.tracking;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Maintains the monthly partitions of course_visits (see V5 migration).
+ * Creates partitions ahead of time and enforces retention by detaching and
+ * dropping whole partitions instead of deleting rows.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class CourseVisitPartitionManager {
+    
+    private static final Pattern PARTITION_NAME = Pattern.compile("course_visits_p(\\d{6})");
+    private static final DateTimeFormatter PARTITION_MONTH = DateTimeFormatter.ofPattern("yyyyMM");
+    
+    private static final String LIST_PARTITIONS_SQL = "SELECT c.relname FROM pg_inherits i " +
+            "JOIN pg_class c ON c.oid = i.inhrelid " +
+            "JOIN pg_class p ON p.oid = i.inhparent " +
+            "WHERE p.relname = 'course_visits' " +
+            "ORDER BY c.relname";
+    
+    private final JdbcTemplate jdbcTemplate;
+    
+    @Value("${visit-tracking.partitions.premake-months:3}")
+    private int premakeMonths;
+    
+    @Value("${visit-tracking.partitions.retention-days:90}")
+    private int retentionDays;
+    
+    /**
+     * Make sure partitions exist as soon as the application is up,
+     * so fresh installs never write into the default partition.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        try {
+            ensureFuturePartitions();
+        } catch (Exception e) {
+            log.error("Failed to create course_visits partitions on startup", e);
+        }
+    }
+    
+    /**
+     * Create partitions for the current month and the next premake-months months.
+     *
+     * @return number of partitions checked
+     */
+    public int ensureFuturePartitions() {
+        YearMonth current = YearMonth.now();
+        for (int i = 0; i <= premakeMonths; i++) {
+            LocalDate month = current.plusMonths(i).atDay(1);
+            jdbcTemplate.queryForObject("SELECT create_course_visits_partition(?)", String.class, Date.valueOf(month));
+        }
+        log.debug("course_visits partitions ensured through {}", current.plusMonths(premakeMonths));
+        return premakeMonths + 1;
+    }
+    
+    /**
+     * Drop partitions whose whole month lies before the retention cutoff.
+     * Stray old rows in the default partition are deleted directly.
+     *
+     * @return number of partitions dropped
+     */
+    public int dropExpiredPartitions() {
+        LocalDate cutoff = LocalDate.now().minusDays(retentionDays);
+        YearMonth cutoffMonth = YearMonth.from(cutoff);
+        int dropped = 0;
+        
+        List<String> partitions = jdbcTemplate.queryForList(LIST_PARTITIONS_SQL, String.class);
+        for (String partition : partitions) {
+            Matcher matcher = PARTITION_NAME.matcher(partition);
+            if (!matcher.matches()) {
+                continue;
+            }
+            YearMonth month = YearMonth.parse(matcher.group(1), PARTITION_MONTH);
+            if (!month.isBefore(cutoffMonth)) {
+                continue;
+            }
+            // Names come from the catalog and match PARTITION_NAME, so they are safe to inline
+            jdbcTemplate.execute("ALTER TABLE course_visits DETACH PARTITION " + partition);
+            jdbcTemplate.execute("DROP TABLE " + partition);
+            dropped++;
+            log.info("Dropped course_visits partition {} (retention cutoff {})", partition, cutoff);
+        }
+        
+        int strayRows = jdbcTemplate.update("DELETE FROM course_visits_default WHERE visited_at < ?",
+                Timestamp.valueOf(cutoffMonth.atDay(1).atStartOfDay()));
+        if (strayRows > 0) {
+            log.info("Deleted {} expired visits from course_visits_default", strayRows);
+        }
+        
+        return dropped;
+    }
+}
@@ -0,0 +1,13 @@
+package edu.platform.tracking;
+
+/**
+ * What the visit tracking executor does with a task when its queue is full.
+ */
+public enum ExecutorRejectionPolicy {
+    /** Evict the oldest queued task and retry the new one */
+    DROP_OLDEST,
+    /** Run the task on the submitting (request) thread */
+    CALLER_RUNS,
+    /** Run one of every sample-rate rejected tasks on the caller, drop the rest */
+    SAMPLE
+}
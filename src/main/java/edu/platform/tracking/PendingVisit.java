@@ -0,0 +1,40 @@
+package edu.platform.tracking;
+
+import edu.platform.entity.enums.VisitType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Visit waiting in the ingestion queue to be written to course_visits.
+ * Holds raw foreign keys only, so it can be inserted without touching the persistence context.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PendingVisit {
+    
+    private Long userId;
+    
+    private Long courseId;
+    
+    private Long lessonId;
+    
+    private Long quizId;
+    
+    private VisitType visitType;
+    
+    private Integer durationSeconds;
+    
+    private String deviceType;
+    
+    private String ipAddress;
+    
+    private String userAgent;
+    
+    private LocalDateTime visitedAt;
+}
@@ -0,0 +1,83 @@
+package edu.platform.tracking;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Lets readers of course_visits find an id below which no insert is still in flight.
+ * Every transaction inserting visits holds a shared advisory lock until it ends; a reader
+ * briefly takes the lock exclusively, so once it has it, every id allocated so far is either
+ * committed or rolled back. Ids are allocated in order, so nothing can appear below the
+ * highest id it then sees. Readers take the lock in a short transaction of their own, so it
+ * is released however that transaction ends, and writers wait at most for one bounded query.
+ */
+@Component
+public class VisitWriteBarrier {
+    
+    private static final long LOCK_KEY = 0x636f757273655f76L; // "course_v"
+    
+    private static final String SHARED_BOUND = "settled_visits";
+    
+    private static final String SETTLED_UPPER_BOUND_SQL = "SELECT MAX(id) FROM (" +
+            "SELECT id FROM course_visits WHERE id > ? ORDER BY id LIMIT ?) pending";
+    
+    private static final String CLAIM_SHARED_BOUND_SQL = "UPDATE statistics_watermarks SET updated_at = NOW() " +
+            "WHERE name = ? AND updated_at <= NOW() - ? * INTERVAL '1 millisecond'";
+    
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate ownTransaction;
+    
+    public VisitWriteBarrier(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.ownTransaction = new TransactionTemplate(transactionManager);
+        this.ownTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+    
+    /**
+     * Register the current transaction as a visit writer. Must be called in the
+     * inserting transaction before its first insert.
+     */
+    public void enterWrite() {
+        jdbcTemplate.query("SELECT pg_advisory_xact_lock_shared(?)", rs -> { }, LOCK_KEY);
+    }
+    
+    /**
+     * The highest id of at most maxVisits visits above fromId, with no uncommitted
+     * insert below it. Gaps in the id sequence are skipped over.
+     *
+     * @return the bound, or fromId if there are no new visits
+     */
+    public long settledUpperBound(long fromId, long maxVisits) {
+        Long upperBound = ownTransaction.execute(status -> {
+            lockOutWriters();
+            return jdbcTemplate.queryForObject(SETTLED_UPPER_BOUND_SQL, Long.class, fromId, maxVisits);
+        });
+        return upperBound != null ? upperBound : fromId;
+    }
+    
+    /**
+     * An id below which no insert is in flight, shared by all instances. Only the first
+     * instance to find it older than maxAgeMs takes the lock to advance it, so writers
+     * stall once per interval rather than once per instance.
+     */
+    public long sharedSettledBound(long maxAgeMs) {
+        Long bound = ownTransaction.execute(status -> {
+            if (jdbcTemplate.update(CLAIM_SHARED_BOUND_SQL, SHARED_BOUND, maxAgeMs) > 0) {
+                lockOutWriters();
+                jdbcTemplate.update("UPDATE statistics_watermarks " +
+                        "SET last_visit_id = GREATEST(last_visit_id, (SELECT COALESCE(MAX(id), 0) FROM course_visits)) " +
+                        "WHERE name = ?", SHARED_BOUND);
+            }
+            return jdbcTemplate.queryForObject("SELECT last_visit_id FROM statistics_watermarks WHERE name = ?",
+                    Long.class, SHARED_BOUND);
+        });
+        return bound != null ? bound : 0;
+    }
+    
+    private void lockOutWriters() {
+        jdbcTemplate.query("SELECT pg_advisory_xact_lock(?)", rs -> { }, LOCK_KEY);
+    }
+}
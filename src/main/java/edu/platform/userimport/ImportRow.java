@@ -0,0 +1,21 @@
+package edu.platform.userimport;
+
+import edu.platform.dto.request.UserRegistrationRequest;
+
+/**
+ * A data row of an import upload: either the user it describes or why it could not be read.
+ */
+public record ImportRow(long line, UserRegistrationRequest user, String error) {
+
+    static ImportRow of(long line, UserRegistrationRequest user) {
+        return new ImportRow(line, user, null);
+    }
+
+    static ImportRow unreadable(long line, String error) {
+        return new ImportRow(line, null, error);
+    }
+
+    public boolean isReadable() {
+        return error == null;
+    }
+}
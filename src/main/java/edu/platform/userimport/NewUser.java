@@ -0,0 +1,9 @@
+package edu.platform.userimport;
+
+import edu.platform.entity.enums.UserRole;
+
+/**
+ * A validated import row with its password already hashed.
+ */
+public record NewUser(long line, String email, String passwordHash, String fullName, UserRole role) {
+}
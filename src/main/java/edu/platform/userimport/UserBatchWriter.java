@@ -0,0 +1,78 @@
+package edu.platform.userimport;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Inserts imported users with plain JDBC.
+ * A chunk is sent as a single JDBC batch, which the driver rewrites into multi-row INSERTs
+ * (reWriteBatchedInserts=true on the datasource URL).
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class UserBatchWriter {
+
+    private static final String INSERT_SQL = "INSERT INTO users " +
+            "(email, password, full_name, role, created_at, updated_at) " +
+            "VALUES (?, ?, ?, CAST(? AS user_role), ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Insert the whole chunk in one transaction.
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void writeBatch(List<NewUser> users) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(INSERT_SQL, users, users.size(), (ps, user) -> bind(ps, user, now));
+    }
+
+    /**
+     * Insert users one by one, each in its own auto-committed statement.
+     * Used after a failed batch, e.g. when another request registered one of the emails meanwhile.
+     *
+     * @return the error of each user that could not be written
+     */
+    public Map<NewUser, String> writeIndividually(List<NewUser> users) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        Map<NewUser, String> failed = new HashMap<>();
+        for (NewUser user : users) {
+            try {
+                jdbcTemplate.update(INSERT_SQL, ps -> bind(ps, user, now));
+            } catch (Exception e) {
+                log.debug("Could not import user from line {}: {}", user.line(), e.getMessage());
+                failed.put(user, existsByEmail(user.email())
+                        ? "User with email " + user.email() + " already exists"
+                        : "Could not be saved");
+            }
+        }
+        return failed;
+    }
+
+    private boolean existsByEmail(String email) {
+        Integer count = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM users WHERE email = ?", Integer.class, email);
+        return count != null && count > 0;
+    }
+
+    private void bind(PreparedStatement ps, NewUser user, Timestamp now) throws SQLException {
+        ps.setString(1, user.email());
+        ps.setString(2, user.passwordHash());
+        ps.setString(3, user.fullName());
+        ps.setString(4, user.role().name());
+        ps.setTimestamp(5, now);
+        ps.setTimestamp(6, now);
+    }
+}
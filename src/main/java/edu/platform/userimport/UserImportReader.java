@@ -0,0 +1,160 @@
+package edu.platform.userimport;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import edu.platform.dto.request.UserRegistrationRequest;
+import edu.platform.entity.enums.UserRole;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Streams the rows of a user import upload, one line at a time.
+ * CSV needs a header naming the email, password, full_name and (optional) role columns;
+ * NDJSON has one registration object per line. Rows without a role import as students.
+ */
+@Component
+@RequiredArgsConstructor
+public class UserImportReader {
+
+    public static final MediaType TEXT_CSV = MediaType.parseMediaType("text/csv");
+
+    public static final MediaType APPLICATION_NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
+    private static final List<String> CSV_COLUMNS = List.of("email", "password", "full_name", "role");
+
+    private final ObjectMapper objectMapper;
+
+    /**
+     * @throws IllegalArgumentException if the format is not supported or the CSV header is invalid
+     */
+    public void read(InputStream body, MediaType contentType, Consumer<ImportRow> rows) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+        if (TEXT_CSV.isCompatibleWith(contentType)) {
+            readCsv(reader, rows);
+        } else if (APPLICATION_NDJSON.isCompatibleWith(contentType)) {
+            readNdjson(reader, rows);
+        } else {
+            throw new IllegalArgumentException("Unsupported import format: " + contentType);
+        }
+    }
+
+    private void readNdjson(BufferedReader reader, Consumer<ImportRow> rows) throws IOException {
+        long lineNumber = 0;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            try {
+                UserRegistrationRequest user = objectMapper.readValue(line, UserRegistrationRequest.class);
+                rows.accept(ImportRow.of(lineNumber, normalize(user)));
+            } catch (JsonProcessingException e) {
+                rows.accept(ImportRow.unreadable(lineNumber, "Invalid JSON: " + e.getOriginalMessage()));
+            }
+        }
+    }
+
+    private void readCsv(BufferedReader reader, Consumer<ImportRow> rows) throws IOException {
+        String header = reader.readLine();
+        if (header == null) {
+            return;
+        }
+        Map<String, Integer> columns = new HashMap<>();
+        List<String> names = splitCsv(header.replace("\uFEFF", ""));
+        for (int i = 0; i < names.size(); i++) {
+            String name = names.get(i).trim().toLowerCase(Locale.ROOT).replace("fullname", "full_name");
+            if (CSV_COLUMNS.contains(name)) {
+                columns.put(name, i);
+            }
+        }
+        for (String required : CSV_COLUMNS.subList(0, 3)) {
+            if (!columns.containsKey(required)) {
+                throw new IllegalArgumentException("CSV header must contain the column " + required);
+            }
+        }
+
+        long lineNumber = 1;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            List<String> values = splitCsv(line);
+            UserRegistrationRequest user = new UserRegistrationRequest();
+            user.setEmail(column(values, columns, "email"));
+            user.setPassword(column(values, columns, "password"));
+            user.setFullName(column(values, columns, "full_name"));
+            String role = column(values, columns, "role");
+            if (role != null && !role.isBlank()) {
+                try {
+                    user.setRole(UserRole.valueOf(role.trim().toUpperCase(Locale.ROOT)));
+                } catch (IllegalArgumentException e) {
+                    rows.accept(ImportRow.unreadable(lineNumber, "Unknown role: " + role));
+                    continue;
+                }
+            }
+            rows.accept(ImportRow.of(lineNumber, normalize(user)));
+        }
+    }
+
+    private static UserRegistrationRequest normalize(UserRegistrationRequest user) {
+        if (user.getRole() == null) {
+            user.setRole(UserRole.STUDENT);
+        }
+        if (user.getEmail() != null) {
+            user.setEmail(user.getEmail().trim());
+        }
+        return user;
+    }
+
+    private static String column(List<String> values, Map<String, Integer> columns, String name) {
+        Integer index = columns.get(name);
+        return index != null && index < values.size() ? values.get(index) : null;
+    }
+
+    /**
+     * Split a CSV line; fields may be quoted, with "" for a literal quote.
+     */
+    private static List<String> splitCsv(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+}
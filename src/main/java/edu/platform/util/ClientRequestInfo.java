@@ -0,0 +1,59 @@
+package edu.platform.util;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * Client details derived from an HTTP request for visit tracking.
+ */
+public final class ClientRequestInfo {
+    
+    private static final String[] IP_HEADERS = {
+        "X-Forwarded-For",
+        "Proxy-Client-IP",
+        "WL-Proxy-Client-IP",
+        "HTTP_X_FORWARDED_FOR",
+        "HTTP_X_FORWARDED",
+        "HTTP_X_CLUSTER_CLIENT_IP",
+        "HTTP_CLIENT_IP",
+        "HTTP_FORWARDED_FOR",
+        "HTTP_FORWARDED",
+        "HTTP_VIA",
+        "REMOTE_ADDR"
+    };
+    
+    private ClientRequestInfo() {
+    }
+    
+    /**
+     * Extract client IP address from request
+     */
+    public static String getClientIpAddress(HttpServletRequest request) {
+        for (String header : IP_HEADERS) {
+            String ip = request.getHeader(header);
+            if (ip != null && !ip.isEmpty() && !"unknown".equalsIgnoreCase(ip)) {
+                return ip.split(",")[0].trim();
+            }
+        }
+        
+        return request.getRemoteAddr();
+    }
+    
+    /**
+     * Detect device type from user agent
+     */
+    public static String detectDeviceType(String userAgent) {
+        if (userAgent == null) {
+            return "UNKNOWN";
+        }
+        
+        String ua = userAgent.toLowerCase();
+        
+        if (ua.contains("mobile") || ua.contains("android") || ua.contains("iphone")) {
+            return "MOBILE";
+        } else if (ua.contains("tablet") || ua.contains("ipad")) {
+            return "TABLET";
+        } else {
+            return "DESKTOP";
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package edu.platform.util;
+
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Postgres LISTEN/NOTIFY between nodes, used to evict in-memory caches everywhere.
+ * A notification is sent in the caller's transaction, so it is delivered only if that
+ * transaction commits. Each node listens on one dedicated connection outside the pool;
+ * notifications sent while it is disconnected are lost, so after every (re)connect the
+ * subscribers' reconnect actions run, e.g. to drop a whole cache.
+ * Subscriptions must be made before the application is ready.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ClusterNotifications {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${spring.datasource.url}")
+    private String url;
+
+    @Value("${spring.datasource.username}")
+    private String username;
+
+    @Value("${spring.datasource.password}")
+    private String password;
+
+    @Value("${cluster-notifications.listen-poll-ms:500}")
+    private int pollMs;
+
+    @Value("${cluster-notifications.reconnect-delay-ms:5000}")
+    private long reconnectDelayMs;
+
+    private final Map<String, Consumer<String>> handlers = new ConcurrentHashMap<>();
+    private final List<Runnable> reconnectActions = new CopyOnWriteArrayList<>();
+
+    private Thread listener;
+    private volatile boolean running;
+
+    /**
+     * Handle notifications on a channel; onReconnect runs whenever notifications may have been missed.
+     */
+    public void subscribe(String channel, Consumer<String> handler, Runnable onReconnect) {
+        if (handlers.putIfAbsent(channel, handler) != null) {
+            throw new IllegalStateException("Channel already has a subscriber: " + channel);
+        }
+        reconnectActions.add(onReconnect);
+    }
+
+    /**
+     * Notify all nodes, including this one, once the current transaction commits.
+     */
+    public void publish(String channel, String payload) {
+        jdbcTemplate.queryForObject("SELECT pg_notify(?, ?)", Object.class, channel, payload);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (handlers.isEmpty()) {
+            return;
+        }
+        running = true;
+        listener = new Thread(this::runListenLoop, "cluster-notification-listener");
+        listener.setDaemon(true);
+        listener.start();
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        if (listener == null) {
+            return;
+        }
+        running = false;
+        listener.interrupt();
+        listener.join(TimeUnit.SECONDS.toMillis(5));
+    }
+
+    private void runListenLoop() {
+        while (running) {
+            try (Connection connection = DriverManager.getConnection(url, username, password)) {
+                try (Statement statement = connection.createStatement()) {
+                    for (String channel : handlers.keySet()) {
+                        statement.execute("LISTEN " + channel);
+                    }
+                }
+                reconnectActions.forEach(Runnable::run);
+                log.info("Listening for cluster notifications on channels {}", handlers.keySet());
+
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications(pollMs);
+                    if (notifications != null) {
+                        for (PGNotification notification : notifications) {
+                            handle(notification);
+                        }
+                    }
+                }
+            } catch (SQLException e) {
+                if (!running) {
+                    return;
+                }
+                log.warn("Cluster notification listener disconnected, retrying in {}ms: {}",
+                        reconnectDelayMs, e.getMessage());
+                try {
+                    Thread.sleep(reconnectDelayMs);
+                } catch (InterruptedException ie) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private void handle(PGNotification notification) {
+        Consumer<String> handler = handlers.get(notification.getName());
+        if (handler == null) {
+            return;
+        }
+        try {
+            handler.accept(notification.getParameter());
+        } catch (RuntimeException e) {
+            log.warn("Ignoring malformed notification on {}: {}", notification.getName(), notification.getParameter());
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package edu.platform.util;
+
+import java.time.Instant;
+
+/**
+ * Claims of a JWT whose signature has been verified.
+ * userId and role are null for tokens issued without identity claims.
+ */
+public record VerifiedToken(String subject, Long userId, String role, Instant issuedAt, Instant expiresAt) {
+    
+    public boolean isExpired(Instant now) {
+        return !expiresAt.isAfter(now);
+    }
+    
+    /**
+     * @return whether the token carries enough claims to authenticate without loading the user
+     */
+    public boolean hasIdentityClaims() {
+        return userId != null && role != null;
+    }
+}
@@ -0,0 +1,2 @@
+-- Open attempts are loaded at startup to rebuild the auto-submission timing wheel
+CREATE INDEX idx_quiz_attempts_open ON quiz_attempts(quiz_id) WHERE is_completed = FALSE;
@@ -0,0 +1,12 @@
+-- Tokens carry user id and role claims and are trusted without a user lookup;
+-- tokens of a user issued before revoked_before are rejected.
+CREATE TABLE user_token_revocations (
+    user_id BIGINT PRIMARY KEY,
+    revoked_before TIMESTAMP NOT NULL,
+    FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE
+);
+
+CREATE INDEX idx_user_token_revocations_revoked_before ON user_token_revocations(revoked_before);
+
+COMMENT ON TABLE user_token_revocations IS 'Per-user cut-off for JWTs, e.g. after a role change or compromise';
+COMMENT ON COLUMN user_token_revocations.revoked_before IS 'Tokens issued before this time are no longer accepted';
@@ -0,0 +1,2 @@
+-- Recently completed attempts are checked periodically for a missing test result
+CREATE INDEX idx_quiz_attempts_completed_at ON quiz_attempts(completed_at) WHERE is_completed = TRUE;
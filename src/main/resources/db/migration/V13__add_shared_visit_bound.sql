@@ -0,0 +1,4 @@
+-- Highest course_visits id with no insert in flight below it, advanced by one instance at a
+-- time and read by the committed visit feed of every instance
+INSERT INTO statistics_watermarks (name, last_visit_id, updated_at)
+VALUES ('settled_visits', 0, TIMESTAMP '1970-01-01');
@@ -0,0 +1,5 @@
+-- Instance running a job; updated_at doubles as its heartbeat, so jobs of a
+-- vanished instance can be told apart from jobs still running elsewhere
+ALTER TABLE result_recalculation_jobs ADD COLUMN owner VARCHAR(64);
+
+COMMENT ON COLUMN result_recalculation_jobs.owner IS 'Instance whose coordinator runs the job, refreshed through updated_at';
@@ -0,0 +1,137 @@
+-- Convert course_visits into a table range-partitioned by month on visited_at.
+-- Partitions are named course_visits_pYYYYMM; rows outside any monthly partition
+-- land in course_visits_default until a matching partition is created.
+
+-- Keep the legacy table around until its rows are copied
+ALTER TABLE course_visits RENAME TO course_visits_legacy;
+ALTER TABLE course_visits_legacy RENAME CONSTRAINT course_visits_pkey TO course_visits_legacy_pkey;
+ALTER SEQUENCE course_visits_id_seq OWNED BY NONE;
+
+DROP INDEX idx_course_visits_user;
+DROP INDEX idx_course_visits_course;
+DROP INDEX idx_course_visits_lesson;
+DROP INDEX idx_course_visits_quiz;
+DROP INDEX idx_course_visits_visited_at;
+DROP INDEX idx_course_visits_type;
+DROP INDEX idx_course_visits_user_course;
+DROP INDEX idx_course_visits_course_date;
+DROP INDEX idx_course_visits_user_date;
+
+CREATE TABLE course_visits (
+    id BIGINT NOT NULL DEFAULT nextval('course_visits_id_seq'),
+    user_id BIGINT NOT NULL,
+    course_id BIGINT NOT NULL,
+    lesson_id BIGINT,
+    quiz_id BIGINT,
+    
+    -- Visit metadata
+    visit_type VARCHAR(20) NOT NULL DEFAULT 'COURSE_VIEW',
+    duration_seconds INTEGER,
+    device_type VARCHAR(50),
+    ip_address VARCHAR(45),
+    user_agent VARCHAR(500),
+    
+    -- Timestamps
+    visited_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    
+    -- The partition key has to be part of the primary key
+    CONSTRAINT course_visits_pkey PRIMARY KEY (id, visited_at),
+    
+    -- Foreign keys
+    CONSTRAINT fk_course_visits_user 
+        FOREIGN KEY (user_id) 
+        REFERENCES users(id) 
+        ON DELETE CASCADE,
+    
+    CONSTRAINT fk_course_visits_course 
+        FOREIGN KEY (course_id) 
+        REFERENCES courses(id) 
+        ON DELETE CASCADE,
+    
+    CONSTRAINT fk_course_visits_lesson 
+        FOREIGN KEY (lesson_id) 
+        REFERENCES lessons(id) 
+        ON DELETE SET NULL,
+    
+    CONSTRAINT fk_course_visits_quiz 
+        FOREIGN KEY (quiz_id) 
+        REFERENCES quizzes(id) 
+        ON DELETE SET NULL,
+    
+    -- Constraints
+    CONSTRAINT check_visit_duration 
+        CHECK (duration_seconds IS NULL OR duration_seconds >= 0)
+) PARTITION BY RANGE (visited_at);
+
+CREATE TABLE course_visits_default PARTITION OF course_visits DEFAULT;
+
+-- Indexes are declared on the parent and created on every partition
+CREATE INDEX idx_course_visits_user ON course_visits(user_id);
+CREATE INDEX idx_course_visits_course ON course_visits(course_id);
+CREATE INDEX idx_course_visits_lesson ON course_visits(lesson_id);
+CREATE INDEX idx_course_visits_quiz ON course_visits(quiz_id);
+CREATE INDEX idx_course_visits_visited_at ON course_visits(visited_at DESC);
+CREATE INDEX idx_course_visits_type ON course_visits(visit_type);
+CREATE INDEX idx_course_visits_user_course ON course_visits(user_id, course_id);
+CREATE INDEX idx_course_visits_course_date ON course_visits(course_id, visited_at DESC);
+CREATE INDEX idx_course_visits_user_date ON course_visits(user_id, visited_at DESC);
+
+-- Create (idempotently) the monthly partition containing p_month.
+-- Rows for that month already sitting in the default partition are moved into it.
+CREATE OR REPLACE FUNCTION create_course_visits_partition(p_month DATE)
+RETURNS TEXT
+LANGUAGE plpgsql
+AS $$
+DECLARE
+    v_start DATE := date_trunc('month', p_month)::DATE;
+    v_end DATE := (date_trunc('month', p_month) + INTERVAL '1 month')::DATE;
+    v_name TEXT := 'course_visits_p' || to_char(p_month, 'YYYYMM');
+BEGIN
+    IF to_regclass(v_name) IS NOT NULL THEN
+        RETURN v_name;
+    END IF;
+    
+    EXECUTE format('CREATE TABLE %I (LIKE course_visits INCLUDING DEFAULTS INCLUDING CONSTRAINTS)', v_name);
+    EXECUTE format(
+        'WITH moved AS (DELETE FROM course_visits_default WHERE visited_at >= %L AND visited_at < %L RETURNING *) '
+        'INSERT INTO %I SELECT * FROM moved',
+        v_start, v_end, v_name);
+    EXECUTE format('ALTER TABLE course_visits ATTACH PARTITION %I FOR VALUES FROM (%L) TO (%L)',
+        v_name, v_start, v_end);
+    
+    RETURN v_name;
+END;
+$$;
+
+-- Partitions for the existing data plus the next three months
+DO $$
+DECLARE
+    v_month DATE;
+BEGIN
+    FOR v_month IN
+        SELECT generate_series(
+            date_trunc('month', COALESCE((SELECT MIN(visited_at) FROM course_visits_legacy), CURRENT_TIMESTAMP)),
+            date_trunc('month', CURRENT_TIMESTAMP) + INTERVAL '3 months',
+            INTERVAL '1 month')::DATE
+    LOOP
+        PERFORM create_course_visits_partition(v_month);
+    END LOOP;
+END;
+$$;
+
+INSERT INTO course_visits (id, user_id, course_id, lesson_id, quiz_id, visit_type, duration_seconds,
+                           device_type, ip_address, user_agent, visited_at, created_at)
+SELECT id, user_id, course_id, lesson_id, quiz_id, visit_type, duration_seconds,
+       device_type, ip_address, user_agent, visited_at, created_at
+FROM course_visits_legacy;
+
+DROP TABLE course_visits_legacy;
+ALTER SEQUENCE course_visits_id_seq OWNED BY course_visits.id;
+
+-- Comments
+COMMENT ON TABLE course_visits IS 'Tracks user visits to courses, lessons, and quizzes; partitioned by month on visited_at';
+COMMENT ON COLUMN course_visits.visit_type IS 'Type of visit: COURSE_VIEW, LESSON_VIEW, QUIZ_VIEW, QUIZ_START, QUIZ_COMPLETE';
+COMMENT ON COLUMN course_visits.duration_seconds IS 'Time spent on the page in seconds';
+COMMENT ON COLUMN course_visits.device_type IS 'Device type: DESKTOP, MOBILE, TABLET';
+COMMENT ON FUNCTION create_course_visits_partition(DATE) IS 'Creates the monthly course_visits partition containing the given date';
@@ -0,0 +1,66 @@
+-- Incremental statistics aggregation.
+-- New visits are folded into hourly rows every few minutes, tracked by a visit id watermark;
+-- DAILY rows in course_statistics_aggregated are derived from the hourly rows.
+
+-- Number of visits that carried a duration, so averages can be re-weighted when rows are combined
+ALTER TABLE course_statistics_aggregated
+    ADD COLUMN duration_samples BIGINT NOT NULL DEFAULT 0;
+
+UPDATE course_statistics_aggregated
+SET duration_samples = ROUND(total_duration_seconds::DECIMAL / avg_duration_seconds)
+WHERE avg_duration_seconds > 0;
+
+CREATE TABLE course_statistics_hourly (
+    course_id BIGINT NOT NULL,
+    hour_start TIMESTAMP NOT NULL,
+    
+    -- Additive metrics only, so new visits can be folded in
+    total_visits BIGINT NOT NULL DEFAULT 0,
+    total_duration_seconds BIGINT NOT NULL DEFAULT 0,
+    duration_samples BIGINT NOT NULL DEFAULT 0,
+    lesson_views BIGINT NOT NULL DEFAULT 0,
+    quiz_attempts BIGINT NOT NULL DEFAULT 0,
+    
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    
+    CONSTRAINT pk_course_statistics_hourly PRIMARY KEY (course_id, hour_start),
+    
+    CONSTRAINT fk_hourly_stats_course 
+        FOREIGN KEY (course_id) 
+        REFERENCES courses(id) 
+        ON DELETE CASCADE
+);
+
+CREATE INDEX idx_hourly_stats_hour ON course_statistics_hourly(hour_start);
+
+-- Distinct visitors per course and day; unique visitors and completion rate are not additive
+CREATE TABLE course_daily_visitors (
+    course_id BIGINT NOT NULL,
+    visit_date DATE NOT NULL,
+    user_id BIGINT NOT NULL,
+    completed_quiz BOOLEAN NOT NULL DEFAULT FALSE,
+    
+    CONSTRAINT pk_course_daily_visitors PRIMARY KEY (course_id, visit_date, user_id),
+    
+    CONSTRAINT fk_daily_visitors_course 
+        FOREIGN KEY (course_id) 
+        REFERENCES courses(id) 
+        ON DELETE CASCADE
+);
+
+CREATE INDEX idx_daily_visitors_date ON course_daily_visitors(visit_date);
+
+-- High-water marks of incremental jobs; starting at 0 makes the first runs backfill existing visits
+CREATE TABLE statistics_watermarks (
+    name VARCHAR(50) PRIMARY KEY,
+    last_visit_id BIGINT NOT NULL DEFAULT 0,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+INSERT INTO statistics_watermarks (name, last_visit_id) VALUES ('course_visits', 0);
+
+-- Comments
+COMMENT ON COLUMN course_statistics_aggregated.duration_samples IS 'Number of visits with a duration, used to weight averages';
+COMMENT ON TABLE course_statistics_hourly IS 'Hourly course statistics folded incrementally from course_visits';
+COMMENT ON TABLE course_daily_visitors IS 'Distinct visitors per course and day, for unique visitor and completion metrics';
+COMMENT ON TABLE statistics_watermarks IS 'Last course_visits id folded by each incremental aggregation job';
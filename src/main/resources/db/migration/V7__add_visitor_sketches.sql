@@ -0,0 +1,6 @@
+-- HyperLogLog sketch of the visitors of each aggregated period.
+-- DAILY sketches are merged to estimate unique visitors over arbitrary ranges.
+ALTER TABLE course_statistics_aggregated
+    ADD COLUMN visitor_sketch BYTEA;
+
+COMMENT ON COLUMN course_statistics_aggregated.visitor_sketch IS 'Serialized HyperLogLog sketch of visitor ids for the period';
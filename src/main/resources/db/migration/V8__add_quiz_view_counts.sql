@@ -0,0 +1,34 @@
+-- Quiz view and completion counts in aggregated statistics, so per-course
+-- counters can be seeded without scanning course_visits.
+ALTER TABLE course_statistics_hourly
+    ADD COLUMN quiz_views BIGINT NOT NULL DEFAULT 0,
+    ADD COLUMN quiz_completions BIGINT NOT NULL DEFAULT 0;
+
+ALTER TABLE course_statistics_aggregated
+    ADD COLUMN quiz_views BIGINT NOT NULL DEFAULT 0,
+    ADD COLUMN quiz_completions BIGINT NOT NULL DEFAULT 0;
+
+-- Backfill from the visits still retained
+UPDATE course_statistics_hourly h
+SET quiz_views = c.quiz_views,
+    quiz_completions = c.quiz_completions
+FROM (
+    SELECT course_id, date_trunc('hour', visited_at) AS hour_start,
+           COUNT(*) FILTER (WHERE visit_type = 'QUIZ_VIEW') AS quiz_views,
+           COUNT(*) FILTER (WHERE visit_type = 'QUIZ_COMPLETE') AS quiz_completions
+    FROM course_visits
+    GROUP BY course_id, date_trunc('hour', visited_at)
+) c
+WHERE c.course_id = h.course_id AND c.hour_start = h.hour_start;
+
+UPDATE course_statistics_aggregated a
+SET quiz_views = c.quiz_views,
+    quiz_completions = c.quiz_completions
+FROM (
+    SELECT course_id, CAST(visited_at AS DATE) AS visit_date,
+           COUNT(*) FILTER (WHERE visit_type = 'QUIZ_VIEW') AS quiz_views,
+           COUNT(*) FILTER (WHERE visit_type = 'QUIZ_COMPLETE') AS quiz_completions
+    FROM course_visits
+    GROUP BY course_id, CAST(visited_at AS DATE)
+) c
+WHERE a.period_type = 'DAILY' AND c.course_id = a.course_id AND c.visit_date = a.period_start;
@@ -0,0 +1,31 @@
+-- Bulk recalculation of the test results of a quiz, e.g. after its answer key was fixed.
+-- Attempts are processed in id order; last_attempt_id is the checkpoint a job resumes from.
+CREATE TABLE result_recalculation_jobs (
+    id BIGSERIAL PRIMARY KEY,
+    quiz_id BIGINT NOT NULL,
+    status VARCHAR(20) NOT NULL DEFAULT 'PENDING',
+    last_attempt_id BIGINT NOT NULL DEFAULT 0,
+    total_attempts INTEGER NOT NULL DEFAULT 0,
+    processed_attempts INTEGER NOT NULL DEFAULT 0,
+    processing_millis BIGINT NOT NULL DEFAULT 0,
+    error_message VARCHAR(500),
+    started_at TIMESTAMP,
+    finished_at TIMESTAMP,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    FOREIGN KEY (quiz_id) REFERENCES quizzes(id) ON DELETE CASCADE
+);
+
+-- Optional restriction to attempts that answered any of these questions
+CREATE TABLE result_recalculation_job_questions (
+    job_id BIGINT NOT NULL,
+    question_id BIGINT NOT NULL,
+    PRIMARY KEY (job_id, question_id),
+    FOREIGN KEY (job_id) REFERENCES result_recalculation_jobs(id) ON DELETE CASCADE
+);
+
+CREATE INDEX idx_result_recalculation_jobs_quiz ON result_recalculation_jobs(quiz_id);
+CREATE INDEX idx_result_recalculation_jobs_status ON result_recalculation_jobs(status);
+
+COMMENT ON COLUMN result_recalculation_jobs.status IS 'Status: PENDING, RUNNING, COMPLETED, FAILED, CANCELLED';
+COMMENT ON COLUMN result_recalculation_jobs.processing_millis IS 'Time spent processing, summed over runs, for throughput';